@@ -1,5 +1,7 @@
 package com.tutedude.proctoring;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
@@ -18,6 +20,8 @@ import java.util.Map;
 @RestController
 public class VideoProctoringBackendApplication {
 
+    private static final Logger log = LoggerFactory.getLogger(VideoProctoringBackendApplication.class);
+
     public static void main(String[] args) {
         System.out.println("Starting Video Proctoring System...");
         System.out.println("Package: com.tutedude.proctoring");
@@ -46,12 +50,25 @@ public class VideoProctoringBackendApplication {
         endpoints.put("start_session", "POST /api/proctoring/sessions/start");
         endpoints.put("end_session", "POST /api/proctoring/sessions/{sessionId}/end");
         endpoints.put("add_event", "POST /api/proctoring/sessions/{sessionId}/events");
+        endpoints.put("add_events_batch", "POST /api/proctoring/sessions/{sessionId}/events/batch");
+        endpoints.put("stream_session", "GET /api/proctoring/sessions/{sessionId}/stream");
+        endpoints.put("list_sessions", "GET /api/proctoring/sessions?status=&candidate=&from=&to=&cursor=&limit=");
+        endpoints.put("list_events", "GET /api/proctoring/sessions/{sessionId}/events?cursor=&limit=");
         endpoints.put("get_report", "GET /api/proctoring/sessions/{sessionId}/report");
+        endpoints.put("timeline", "GET /api/proctoring/sessions/{sessionId}/timeline?resolution=10s|1m&from=&to=");
+        endpoints.put("stream_report", "GET /api/proctoring/sessions/{sessionId}/report/stream");
+        endpoints.put("export_sessions", "GET /api/proctoring/sessions/export?status=");
+        endpoints.put("scoring_policies", "GET /api/proctoring/scoring/policies");
+        endpoints.put("update_scoring_policy", "PUT /api/proctoring/scoring/policies/{name}");
+        endpoints.put("submit_report_job", "POST /api/proctoring/reports/jobs?status=&from=&to=");
+        endpoints.put("report_job", "GET|DELETE /api/proctoring/reports/jobs/{jobId}");
+        endpoints.put("report_job_results", "GET /api/proctoring/reports/jobs/{jobId}/results?format=ndjson|csv");
+        endpoints.put("statistics", "GET /api/proctoring/statistics");
         endpoints.put("test", "GET /test");
         
         response.put("endpoints", endpoints);
         
-        System.out.println("📋 Root endpoint accessed at: " + LocalDateTime.now());
+        log.debug("Root endpoint accessed");
         return response;
     }
     
@@ -64,7 +81,7 @@ public class VideoProctoringBackendApplication {
         response.put("status", "SUCCESS");
         response.put("controller_scan", "Controllers should be detected now");
         
-        System.out.println("🧪 Test endpoint accessed successfully!");
+        log.debug("Test endpoint accessed");
         return response;
     }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.tutedude.proctoring.config;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Which kind of threads run request handling and background dispatch,
+ * selected with {@code app.proctoring.execution-mode}
+ */
+public enum ExecutionMode {
+    /** Bounded pools of platform threads (Tomcat's worker pool, fixed dispatcher pools) */
+    PLATFORM,
+    /** A new virtual thread per request or task; needs Java 21+ */
+    VIRTUAL;
+
+    public static ExecutionMode fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown execution mode: " + name + " (expected platform or virtual)");
+        }
+    }
+
+    /**
+     * Executor for background tasks: one virtual thread per task in {@link #VIRTUAL} mode,
+     * otherwise a fixed pool of {@code platformThreads} daemon threads
+     */
+    public ExecutorService newExecutor(String namePrefix, int platformThreads) {
+        if (this == VIRTUAL) {
+            return VirtualThreads.newThreadPerTaskExecutor(namePrefix);
+        }
+        return Executors.newFixedThreadPool(platformThreads, daemonThreads(namePrefix));
+    }
+
+    /**
+     * Like {@link #newExecutor}, but platform threads are started as tasks arrive, up to
+     * {@code maxPlatformThreads}, and retire after a minute without work
+     */
+    public ExecutorService newElasticExecutor(String namePrefix, int maxPlatformThreads) {
+        if (this == VIRTUAL) {
+            return VirtualThreads.newThreadPerTaskExecutor(namePrefix);
+        }
+        // Core size equal to the maximum makes the pool add threads before it queues tasks
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxPlatformThreads, maxPlatformThreads,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), daemonThreads(namePrefix));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ThreadFactory daemonThreads(String namePrefix) {
+        AtomicInteger threads = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
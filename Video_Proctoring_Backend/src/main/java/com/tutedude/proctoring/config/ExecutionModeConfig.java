@@ -0,0 +1,43 @@
+package com.tutedude.proctoring.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Applies {@code app.proctoring.execution-mode}. In {@code virtual} mode Tomcat hands
+ * every request to its own virtual thread instead of the bounded worker pool, so a
+ * request blocked on I/O no longer holds one of {@code server.tomcat.threads.max}
+ * threads. On a JVM older than 21 the application falls back to platform threads.
+ */
+@Configuration
+public class ExecutionModeConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionModeConfig.class);
+
+    @Bean
+    public ExecutionMode executionMode(@Value("${app.proctoring.execution-mode:platform}") String name) {
+        ExecutionMode requested = ExecutionMode.fromName(name);
+        if (requested == ExecutionMode.VIRTUAL && !VirtualThreads.isSupported()) {
+            log.warn("Virtual threads need Java 21 or later, running on {}; using platform threads",
+                    Runtime.version());
+            return ExecutionMode.PLATFORM;
+        }
+        log.info("Execution mode: {}", requested);
+        return requested;
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> executionModeProtocolHandlerCustomizer(
+            ExecutionMode executionMode) {
+        return protocolHandler -> {
+            if (executionMode == ExecutionMode.VIRTUAL) {
+                protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("http-virtual-"));
+            }
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.tutedude.proctoring.config;
+
+import com.tutedude.proctoring.model.ScoringPolicyDefinition;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Scoring policies loaded from {@code app.proctoring.scoring.*}. Map keys that are event
+ * types, severities or rating names need bracket notation to keep their exact spelling,
+ * e.g. {@code app.proctoring.scoring.policies.strict.type-weights[PHONE_DETECTED]=20}.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.proctoring.scoring")
+public class ScoringProperties {
+
+    // Policy of sessions started without one
+    private String defaultPolicy = "default";
+    private Map<String, ScoringPolicyDefinition> policies = new LinkedHashMap<>();
+
+    public String getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    public void setDefaultPolicy(String defaultPolicy) {
+        this.defaultPolicy = defaultPolicy;
+    }
+
+    public Map<String, ScoringPolicyDefinition> getPolicies() {
+        return policies;
+    }
+
+    public void setPolicies(Map<String, ScoringPolicyDefinition> policies) {
+        this.policies = policies;
+    }
+}
@@ -1,13 +1,19 @@
 package com.tutedude.proctoring.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
-    
+
+    @Autowired
+    private ExecutionMode executionMode;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -15,4 +21,12 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*");
     }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // Async handlers (streamed responses) follow the request execution mode
+        if (executionMode == ExecutionMode.VIRTUAL) {
+            configurer.setTaskExecutor(new TaskExecutorAdapter(VirtualThreads.newThreadPerTaskExecutor("mvc-async-")));
+        }
+    }
 }
@@ -1,13 +1,35 @@
 package com.tutedude.proctoring.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tutedude.proctoring.model.CursorPage;
 import com.tutedude.proctoring.model.DetectionEvent;
-import com.tutedude.proctoring.model.InterviewSession;
+import com.tutedude.proctoring.model.EventIngestionResult;
 import com.tutedude.proctoring.model.ProctoringReport;
+import com.tutedude.proctoring.model.ReportJob;
+import com.tutedude.proctoring.model.ScoringPolicyDefinition;
+import com.tutedude.proctoring.model.SessionSnapshot;
+import com.tutedude.proctoring.model.SessionSummary;
+import com.tutedude.proctoring.model.SessionTimeline;
+import com.tutedude.proctoring.service.EventNotStoredException;
 import com.tutedude.proctoring.service.ProctoringService;
+import com.tutedude.proctoring.service.ReportJobService;
+import com.tutedude.proctoring.service.SessionLimitExceededException;
+import com.tutedude.proctoring.service.StaleSequenceException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -18,51 +40,168 @@ public class ProctoringController {
 
 	
 	
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int MAX_PAGE_SIZE = 500;
+    
     @Autowired
     private ProctoringService proctoringService;
     
+    @Autowired
+    private ReportJobService reportJobService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     @PostMapping("/sessions/start")
     public ResponseEntity<Map<String, String>> startSession(@RequestBody Map<String, String> request) {
         String candidateName = request.get("candidateName");
-        String sessionId = proctoringService.startSession(candidateName);
-        return ResponseEntity.ok(Map.of("sessionId", sessionId, "status", "started"));
+        try {
+            String sessionId = proctoringService.startSession(candidateName, request.get("scoringPolicy"));
+            return ResponseEntity.ok(Map.of("sessionId", sessionId, "status", "started"));
+        } catch (SessionLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
     
     @PostMapping("/sessions/{sessionId}/end")
-    public ResponseEntity<InterviewSession> endSession(@PathVariable String sessionId) {
-        InterviewSession session = proctoringService.endSession(sessionId);
+    public ResponseEntity<SessionSnapshot> endSession(@PathVariable String sessionId) {
+        SessionSnapshot session = proctoringService.endSession(sessionId);
         if (session != null) {
             return ResponseEntity.ok(session);
         }
         return ResponseEntity.notFound().build();
     }
     
+    @PostMapping("/sessions/{sessionId}/heartbeat")
+    public ResponseEntity<Void> heartbeat(@PathVariable String sessionId) {
+        if (proctoringService.heartbeat(sessionId)) {
+            return ResponseEntity.noContent().build();
+        }
+        if (proctoringService.getSession(sessionId) != null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+    
     @PostMapping("/sessions/{sessionId}/events")
     public ResponseEntity<String> addDetectionEvent(
             @PathVariable String sessionId,
             @RequestBody DetectionEvent event) {
         
-        proctoringService.addDetectionEvent(
-            sessionId, 
-            event.getEventType(), 
-            event.getMessage(), 
-            event.getSeverity()
-        );
+        boolean added;
+        try {
+            added = proctoringService.addDetectionEvent(
+                sessionId, 
+                event.getEventType(), 
+                event.getMessage(), 
+                event.getSeverity(),
+                event.getSequence()
+            );
+        } catch (StaleSequenceException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (EventNotStoredException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+        if (!added) {
+            return ResponseEntity.ok("Duplicate event ignored");
+        }
+        if (proctoringService.acknowledgesBeforeStored()) {
+            return ResponseEntity.accepted().body("Event queued");
+        }
         return ResponseEntity.ok("Event recorded");
     }
     
+    @PostMapping(value = "/sessions/{sessionId}/events/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> addDetectionEvents(
+            @PathVariable String sessionId,
+            @RequestBody List<DetectionEvent> events) {
+        
+        return ResponseEntity.ok(batchResponse(sessionId, proctoringService.addDetectionEvents(sessionId, events)));
+    }
+    
+    @PostMapping(value = "/sessions/{sessionId}/events/batch", consumes = NDJSON)
+    public ResponseEntity<Map<String, Object>> addDetectionEventsNdjson(
+            @PathVariable String sessionId,
+            InputStream body) throws IOException {
+        
+        List<DetectionEvent> events = new ArrayList<>();
+        try (MappingIterator<DetectionEvent> iterator = objectMapper.readerFor(DetectionEvent.class).readValues(body)) {
+            while (iterator.hasNextValue()) {
+                events.add(iterator.nextValue());
+            }
+        }
+        return ResponseEntity.ok(batchResponse(sessionId, proctoringService.addDetectionEvents(sessionId, events)));
+    }
+    
     @GetMapping("/sessions/{sessionId}")
-    public ResponseEntity<InterviewSession> getSession(@PathVariable String sessionId) {
-        InterviewSession session = proctoringService.getSession(sessionId);
+    public ResponseEntity<SessionSnapshot> getSession(@PathVariable String sessionId) {
+        SessionSnapshot session = proctoringService.getSession(sessionId);
         if (session != null) {
             return ResponseEntity.ok(session);
         }
         return ResponseEntity.notFound().build();
     }
     
+    /**
+     * Live stream of a session's new events and score changes. Resumes after the
+     * Last-Event-ID sent by a reconnecting client, or at the {@code from} event index.
+     */
+    @GetMapping(value = "/sessions/{sessionId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSession(
+            @PathVariable String sessionId,
+            @RequestParam(value = "from", required = false) Integer from,
+            @RequestHeader(value = "Last-Event-ID", required = false) Integer lastEventId) {
+        
+        int fromIndex = lastEventId != null ? lastEventId + 1 : (from != null ? from : -1);
+        SseEmitter emitter = proctoringService.streamSession(sessionId, fromIndex);
+        if (emitter != null) {
+            return ResponseEntity.ok(emitter);
+        }
+        return ResponseEntity.notFound().build();
+    }
+    
+    /**
+     * Page through session summaries, newest first. Events are listed separately.
+     */
     @GetMapping("/sessions")
-    public ResponseEntity<List<InterviewSession>> getAllSessions() {
-        return ResponseEntity.ok(proctoringService.getAllSessions());
+    public ResponseEntity<CursorPage<SessionSummary>> getAllSessions(
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "candidate", required = false) String candidate,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(proctoringService.listSessions(status, candidate, from, to, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/sessions/{sessionId}/events")
+    public ResponseEntity<CursorPage<DetectionEvent>> getSessionEvents(
+            @PathVariable String sessionId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            CursorPage<DetectionEvent> page = proctoringService.listEvents(sessionId, cursor, limit);
+            if (page != null) {
+                return ResponseEntity.ok(page);
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/sessions/{sessionId}/report")
@@ -74,6 +213,154 @@ public class ProctoringController {
         return ResponseEntity.notFound().build();
     }
     
+    /**
+     * Event counts over time in 10-second or 1-minute buckets, oldest first
+     */
+    @GetMapping("/sessions/{sessionId}/timeline")
+    public ResponseEntity<SessionTimeline> getTimeline(
+            @PathVariable String sessionId,
+            @RequestParam(value = "resolution", defaultValue = "1m") String resolution,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        
+        try {
+            SessionTimeline timeline = proctoringService.getTimeline(sessionId, resolution, from, to);
+            if (timeline != null) {
+                return ResponseEntity.ok(timeline);
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Same document as the report, written from the event log as it is sent; use it for
+     * long sessions, where memory per request stays flat regardless of event count.
+     */
+    @GetMapping(value = "/sessions/{sessionId}/report/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamReport(@PathVariable String sessionId) {
+        StreamingResponseBody body = proctoringService.streamReport(sessionId);
+        if (body != null) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+        }
+        return ResponseEntity.notFound().build();
+    }
+    
+    /**
+     * Dump of every session with its events, one JSON object per line, newest first
+     */
+    @GetMapping(value = "/sessions/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportSessions(
+            @RequestParam(value = "status", required = false) String status) {
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(proctoringService.exportSessions(status));
+    }
+    
+    private Map<String, Object> batchResponse(String sessionId, List<EventIngestionResult> results) {
+        long accepted = results.stream().filter(r -> "ACCEPTED".equals(r.getStatus())).count();
+        long duplicates = results.stream().filter(r -> "DUPLICATE".equals(r.getStatus())).count();
+        
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("sessionId", sessionId);
+        response.put("accepted", accepted);
+        response.put("duplicates", duplicates);
+        response.put("rejected", results.size() - accepted - duplicates);
+        response.put("results", results);
+        return response;
+    }
+    
+    @GetMapping("/scoring/policies")
+    public ResponseEntity<Map<String, ScoringPolicyDefinition>> getScoringPolicies() {
+        return ResponseEntity.ok(proctoringService.getScoringPolicies());
+    }
+    
+    /**
+     * Install or replace a scoring policy; sessions scored under it are re-scored before this returns
+     */
+    @PutMapping("/scoring/policies/{name}")
+    public ResponseEntity<Map<String, Object>> updateScoringPolicy(
+            @PathVariable String name,
+            @RequestBody ScoringPolicyDefinition definition) {
+        
+        try {
+            int rescored = proctoringService.updateScoringPolicy(name, definition);
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("policy", name);
+            response.put("rescoredSessions", rescored);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Build the reports of every matching session in the background; poll the returned
+     * job for progress and download its results while it runs or after
+     */
+    @PostMapping("/reports/jobs")
+    public ResponseEntity<?> submitReportJob(
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportJobService.submit(status, from, to));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/reports/jobs/{jobId}")
+    public ResponseEntity<ReportJob> getReportJob(@PathVariable String jobId) {
+        ReportJob job = reportJobService.getJob(jobId);
+        if (job != null) {
+            return ResponseEntity.ok(job);
+        }
+        return ResponseEntity.notFound().build();
+    }
+    
+    /**
+     * A job's reports as NDJSON or CSV; rows still being built are waited for
+     */
+    @GetMapping("/reports/jobs/{jobId}/results")
+    public ResponseEntity<StreamingResponseBody> getReportJobResults(
+            @PathVariable String jobId,
+            @RequestParam(value = "format", defaultValue = ReportJobService.FORMAT_NDJSON) String format) {
+        
+        StreamingResponseBody body;
+        try {
+            body = reportJobService.streamResults(jobId, format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (body == null) {
+            return ResponseEntity.notFound().build();
+        }
+        MediaType contentType = ReportJobService.FORMAT_CSV.equalsIgnoreCase(format)
+                ? MediaType.parseMediaType("text/csv")
+                : MediaType.parseMediaType(NDJSON);
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+    
+    /**
+     * Cancel a job if it is still running and discard its results
+     */
+    @DeleteMapping("/reports/jobs/{jobId}")
+    public ResponseEntity<Void> cancelReportJob(@PathVariable String jobId) {
+        if (reportJobService.cancel(jobId)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+    
+    @GetMapping("/statistics")
+    public ResponseEntity<Map<String, Object>> getSystemStatistics() {
+        return ResponseEntity.ok(proctoringService.getSystemStatistics());
+    }
+    
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> healthCheck() {
         return ResponseEntity.ok(Map.of(
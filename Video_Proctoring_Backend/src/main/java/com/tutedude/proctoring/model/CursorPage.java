@@ -0,0 +1,55 @@
+package com.tutedude.proctoring.model;
+
+import java.util.List;
+
+
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor; // Pass back as ?cursor= to get the next page; null on the last page
+    private int limit;
+
+    // Default constructor
+    public CursorPage() {
+    }
+
+    // Constructor with parameters
+    public CursorPage(List<T> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public String toString() {
+        return "CursorPage{" +
+                "items=" + (items != null ? items.size() : 0) +
+                ", nextCursor='" + nextCursor + '\'' +
+                ", limit=" + limit +
+                '}';
+    }
+}
@@ -1,5 +1,7 @@
 package com.tutedude.proctoring.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.time.LocalDateTime;
 
 
@@ -11,6 +13,11 @@ public class DetectionEvent {
     private String severity;
     private LocalDateTime timestamp;
     private String sessionId;
+    private LocalDateTime endTimestamp; // Last occurrence when repeats were coalesced into this event
+    private int occurrences = 1;
+    // Client-assigned number, unique per session, that makes retries idempotent; not stored
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Long sequence;
 
     // Default constructor
     public DetectionEvent() {
@@ -75,6 +82,30 @@ public class DetectionEvent {
         this.sessionId = sessionId;
     }
 
+    public LocalDateTime getEndTimestamp() {
+        return endTimestamp;
+    }
+
+    public void setEndTimestamp(LocalDateTime endTimestamp) {
+        this.endTimestamp = endTimestamp;
+    }
+
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    public void setOccurrences(int occurrences) {
+        this.occurrences = occurrences;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
     @Override
     public String toString() {
         return "DetectionEvent{" +
@@ -84,6 +115,9 @@ public class DetectionEvent {
                 ", severity='" + severity + '\'' +
                 ", timestamp=" + timestamp +
                 ", sessionId='" + sessionId + '\'' +
+                ", endTimestamp=" + endTimestamp +
+                ", occurrences=" + occurrences +
+                ", sequence=" + sequence +
                 '}';
     }
 }
\ No newline at end of file
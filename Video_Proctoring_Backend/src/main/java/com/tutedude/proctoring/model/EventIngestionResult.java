@@ -0,0 +1,79 @@
+package com.tutedude.proctoring.model;
+
+
+public class EventIngestionResult {
+    private int index;
+    private String status; // ACCEPTED, DUPLICATE, REJECTED
+    private Long eventId;
+    private String error;
+
+    // Default constructor
+    public EventIngestionResult() {
+    }
+
+    // Constructor with parameters
+    public EventIngestionResult(int index, String status, Long eventId, String error) {
+        this.index = index;
+        this.status = status;
+        this.eventId = eventId;
+        this.error = error;
+    }
+
+    public static EventIngestionResult accepted(int index, Long eventId) {
+        return new EventIngestionResult(index, "ACCEPTED", eventId, null);
+    }
+
+    /**
+     * A retry of an event the session already accepted under the same sequence number
+     */
+    public static EventIngestionResult duplicate(int index) {
+        return new EventIngestionResult(index, "DUPLICATE", null, null);
+    }
+
+    public static EventIngestionResult rejected(int index, String error) {
+        return new EventIngestionResult(index, "REJECTED", null, error);
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public String toString() {
+        return "EventIngestionResult{" +
+                "index=" + index +
+                ", status='" + status + '\'' +
+                ", eventId=" + eventId +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
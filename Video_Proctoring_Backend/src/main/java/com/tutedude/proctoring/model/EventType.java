@@ -0,0 +1,41 @@
+package com.tutedude.proctoring.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Event types reported by the frontend detectors.
+ * Clients may still send other types; those are kept as free-form strings.
+ */
+public enum EventType {
+    LOOKING_AWAY,
+    NO_FACE,
+    MULTIPLE_FACES,
+    PHONE_DETECTED,
+    BOOK_DETECTED,
+    NOTES_DETECTED;
+
+    private static final EventType[] VALUES = values();
+    private static final Map<String, EventType> BY_NAME = new HashMap<>();
+
+    static {
+        for (EventType type : VALUES) {
+            BY_NAME.put(type.name(), type);
+        }
+    }
+
+    public static int count() {
+        return VALUES.length;
+    }
+
+    public static EventType fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Exact-name lookup, or null for a type this enum does not know
+     */
+    public static EventType fromName(String name) {
+        return name == null ? null : BY_NAME.get(name);
+    }
+}
@@ -10,14 +10,16 @@ public class InterviewSession {
     private String candidateName;
     private LocalDateTime startTime;
     private LocalDateTime endTime;
-    private String status; // ACTIVE, COMPLETED, TERMINATED
+    // ACTIVE, COMPLETED or TERMINATED, see SessionStatus; written once the session has ended
+    private volatile String status;
     private List<DetectionEvent> detectionEvents;
     private int durationInSeconds;
+    private String scoringPolicy;
 
     // Default constructor
     public InterviewSession() {
         this.detectionEvents = new ArrayList<>();
-        this.status = "ACTIVE";
+        this.status = SessionStatus.ACTIVE.name();
         this.startTime = LocalDateTime.now();
     }
 
@@ -38,11 +40,21 @@ public class InterviewSession {
 
     // Method to end session
     public void endSession() {
+        finish(SessionStatus.COMPLETED);
+    }
+
+    // Method to terminate a session that was not ended normally, e.g. after going idle
+    public void terminateSession() {
+        finish(SessionStatus.TERMINATED);
+    }
+
+    private void finish(SessionStatus finalStatus) {
         this.endTime = LocalDateTime.now();
-        this.status = "COMPLETED";
         if (this.startTime != null && this.endTime != null) {
             this.durationInSeconds = (int) java.time.Duration.between(startTime, endTime).getSeconds();
         }
+        // Published last, so a reader that sees the final status also sees the end time and duration
+        this.status = finalStatus.name();
     }
 
     // Getters and Setters
@@ -102,6 +114,14 @@ public class InterviewSession {
         this.durationInSeconds = durationInSeconds;
     }
 
+    public String getScoringPolicy() {
+        return scoringPolicy;
+    }
+
+    public void setScoringPolicy(String scoringPolicy) {
+        this.scoringPolicy = scoringPolicy;
+    }
+
     @Override
     public String toString() {
         return "InterviewSession{" +
@@ -111,6 +131,7 @@ public class InterviewSession {
                 ", endTime=" + endTime +
                 ", status='" + status + '\'' +
                 ", durationInSeconds=" + durationInSeconds +
+                ", scoringPolicy='" + scoringPolicy + '\'' +
                 ", detectionEventsCount=" + (detectionEvents != null ? detectionEvents.size() : 0) +
                 '}';
     }
@@ -13,6 +13,7 @@ public class ProctoringReport {
     private int durationInSeconds;
     private int integrityScore;
     private String overallRating;
+    private String scoringPolicy;
     private List<DetectionEvent> detectionEvents;
     private Map<String, Integer> eventSummary;
     private int totalEvents;
@@ -24,80 +25,22 @@ public class ProctoringReport {
         this.eventSummary = new HashMap<>();
     }
 
-    // Constructor from InterviewSession
-    public ProctoringReport(InterviewSession session) {
-        this();
+    // Constructor from aggregated counters and a score computed by the session's scoring policy
+    public ProctoringReport(SessionSnapshot session, Map<String, Integer> eventSummary,
+                            int totalEvents, int dangerEvents, int warningEvents,
+                            String scoringPolicy, int integrityScore, String overallRating) {
         this.sessionId = session.getSessionId();
         this.candidateName = session.getCandidateName();
         this.sessionDate = session.getStartTime();
         this.durationInSeconds = session.getDurationInSeconds();
         this.detectionEvents = session.getDetectionEvents();
-        
-        calculateMetrics();
-    }
-
-    // Method to calculate all metrics
-    private void calculateMetrics() {
-        if (detectionEvents == null) {
-            this.totalEvents = 0;
-            this.dangerEvents = 0;
-            this.warningEvents = 0;
-            this.integrityScore = 100;
-            this.overallRating = "Excellent";
-            return;
-        }
-
-        // Reset counters
-        this.eventSummary.clear();
-        this.dangerEvents = 0;
-        this.warningEvents = 0;
-
-        // Count events by type and severity
-        for (DetectionEvent event : detectionEvents) {
-            // Count by severity
-            if ("DANGER".equalsIgnoreCase(event.getSeverity())) {
-                this.dangerEvents++;
-            } else if ("WARNING".equalsIgnoreCase(event.getSeverity())) {
-                this.warningEvents++;
-            }
-
-            // Count by event type
-            String eventType = event.getEventType();
-            this.eventSummary.put(eventType, 
-                this.eventSummary.getOrDefault(eventType, 0) + 1);
-        }
-
-        this.totalEvents = detectionEvents.size();
-
-        // Calculate integrity score
-        this.integrityScore = calculateIntegrityScore();
-        
-        // Determine overall rating
-        this.overallRating = determineOverallRating();
-    }
-
-    private int calculateIntegrityScore() {
-        int score = 100;
-        
-        // Deduct points based on severity
-        score -= (this.dangerEvents * 10); // -10 for each danger event
-        score -= (this.warningEvents * 5); // -5 for each warning event
-        
-        // Additional deductions for specific event types
-        score -= (this.eventSummary.getOrDefault("MULTIPLE_FACES", 0) * 15);
-        score -= (this.eventSummary.getOrDefault("NO_FACE", 0) * 12);
-        score -= (this.eventSummary.getOrDefault("PHONE_DETECTED", 0) * 8);
-        
-        return Math.max(0, score);
-    }
-
-    private String determineOverallRating() {
-        if (integrityScore >= 90) return "Excellent";
-        else if (integrityScore >= 80) return "Very Good";
-        else if (integrityScore >= 70) return "Good";
-        else if (integrityScore >= 60) return "Fair";
-        else if (integrityScore >= 40) return "Poor";
-        else return "Very Poor";
+        this.eventSummary = eventSummary;
+        this.totalEvents = totalEvents;
+        this.dangerEvents = dangerEvents;
+        this.warningEvents = warningEvents;
+        this.scoringPolicy = scoringPolicy;
+        this.integrityScore = integrityScore;
+        this.overallRating = overallRating;
     }
 
     // Getters and Setters
@@ -149,13 +92,20 @@ public class ProctoringReport {
         this.overallRating = overallRating;
     }
 
+    public String getScoringPolicy() {
+        return scoringPolicy;
+    }
+
+    public void setScoringPolicy(String scoringPolicy) {
+        this.scoringPolicy = scoringPolicy;
+    }
+
     public List<DetectionEvent> getDetectionEvents() {
         return detectionEvents;
     }
 
     public void setDetectionEvents(List<DetectionEvent> detectionEvents) {
         this.detectionEvents = detectionEvents;
-        calculateMetrics(); // Recalculate when events are set
     }
 
     public Map<String, Integer> getEventSummary() {
@@ -197,6 +147,7 @@ public class ProctoringReport {
                 ", candidateName='" + candidateName + '\'' +
                 ", integrityScore=" + integrityScore +
                 ", overallRating='" + overallRating + '\'' +
+                ", scoringPolicy='" + scoringPolicy + '\'' +
                 ", totalEvents=" + totalEvents +
                 ", dangerEvents=" + dangerEvents +
                 ", warningEvents=" + warningEvents +
@@ -0,0 +1,129 @@
+package com.tutedude.proctoring.model;
+
+import java.time.LocalDateTime;
+
+
+public class ReportJob {
+    private String jobId;
+    private String state; // QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    // Filter the job was started with; null means any
+    private String sessionStatus;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private int totalSessions;
+    private int completedSessions;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private String error;
+
+    // Default constructor
+    public ReportJob() {
+    }
+
+    // Constructor with parameters
+    public ReportJob(String jobId, String state, String sessionStatus, LocalDateTime from, LocalDateTime to,
+                     int totalSessions, int completedSessions, LocalDateTime createdAt,
+                     LocalDateTime finishedAt, String error) {
+        this.jobId = jobId;
+        this.state = state;
+        this.sessionStatus = sessionStatus;
+        this.from = from;
+        this.to = to;
+        this.totalSessions = totalSessions;
+        this.completedSessions = completedSessions;
+        this.createdAt = createdAt;
+        this.finishedAt = finishedAt;
+        this.error = error;
+    }
+
+    // Getters and Setters
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getSessionStatus() {
+        return sessionStatus;
+    }
+
+    public void setSessionStatus(String sessionStatus) {
+        this.sessionStatus = sessionStatus;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public int getTotalSessions() {
+        return totalSessions;
+    }
+
+    public void setTotalSessions(int totalSessions) {
+        this.totalSessions = totalSessions;
+    }
+
+    public int getCompletedSessions() {
+        return completedSessions;
+    }
+
+    public void setCompletedSessions(int completedSessions) {
+        this.completedSessions = completedSessions;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportJob{" +
+                "jobId='" + jobId + '\'' +
+                ", state='" + state + '\'' +
+                ", completedSessions=" + completedSessions +
+                ", totalSessions=" + totalSessions +
+                '}';
+    }
+}
@@ -0,0 +1,87 @@
+package com.tutedude.proctoring.model;
+
+
+public class ScoreUpdate {
+    private String sessionId;
+    private int totalEvents;
+    private int dangerEvents;
+    private int warningEvents;
+    private int integrityScore;
+    private int scoreChange; // Change since the previous update sent to the same subscriber
+
+    // Default constructor
+    public ScoreUpdate() {
+    }
+
+    // Constructor with parameters
+    public ScoreUpdate(String sessionId, int totalEvents, int dangerEvents, int warningEvents,
+                       int integrityScore, int scoreChange) {
+        this.sessionId = sessionId;
+        this.totalEvents = totalEvents;
+        this.dangerEvents = dangerEvents;
+        this.warningEvents = warningEvents;
+        this.integrityScore = integrityScore;
+        this.scoreChange = scoreChange;
+    }
+
+    // Getters and Setters
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public int getTotalEvents() {
+        return totalEvents;
+    }
+
+    public void setTotalEvents(int totalEvents) {
+        this.totalEvents = totalEvents;
+    }
+
+    public int getDangerEvents() {
+        return dangerEvents;
+    }
+
+    public void setDangerEvents(int dangerEvents) {
+        this.dangerEvents = dangerEvents;
+    }
+
+    public int getWarningEvents() {
+        return warningEvents;
+    }
+
+    public void setWarningEvents(int warningEvents) {
+        this.warningEvents = warningEvents;
+    }
+
+    public int getIntegrityScore() {
+        return integrityScore;
+    }
+
+    public void setIntegrityScore(int integrityScore) {
+        this.integrityScore = integrityScore;
+    }
+
+    public int getScoreChange() {
+        return scoreChange;
+    }
+
+    public void setScoreChange(int scoreChange) {
+        this.scoreChange = scoreChange;
+    }
+
+    @Override
+    public String toString() {
+        return "ScoreUpdate{" +
+                "sessionId='" + sessionId + '\'' +
+                ", totalEvents=" + totalEvents +
+                ", dangerEvents=" + dangerEvents +
+                ", warningEvents=" + warningEvents +
+                ", integrityScore=" + integrityScore +
+                ", scoreChange=" + scoreChange +
+                '}';
+    }
+}
@@ -0,0 +1,113 @@
+package com.tutedude.proctoring.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Source form of an integrity scoring policy, as configured under
+ * {@code app.proctoring.scoring.policies.<name>} or sent to the policy endpoint.
+ * Fields left null take the value of the built-in default policy.
+ */
+public class ScoringPolicyDefinition {
+    // Points deducted per event of each severity
+    private Map<String, Integer> severityWeights;
+    // Extra points deducted per event of each type
+    private Map<String, Integer> typeWeights;
+    // Most points all events of a type may deduct together
+    private Map<String, Integer> typeCaps;
+    // Events lose half their weight per half-life before the latest event (0 disables decay)
+    private Long decayHalfLifeSeconds;
+    // Rating name to the lowest score that earns it
+    private Map<String, Integer> ratings;
+
+    // Default constructor
+    public ScoringPolicyDefinition() {
+    }
+
+    // Constructor with parameters
+    public ScoringPolicyDefinition(Map<String, Integer> severityWeights, Map<String, Integer> typeWeights,
+                                   Map<String, Integer> typeCaps, Long decayHalfLifeSeconds,
+                                   Map<String, Integer> ratings) {
+        this.severityWeights = severityWeights;
+        this.typeWeights = typeWeights;
+        this.typeCaps = typeCaps;
+        this.decayHalfLifeSeconds = decayHalfLifeSeconds;
+        this.ratings = ratings;
+    }
+
+    /**
+     * The weights and thresholds reports have always used
+     */
+    public static ScoringPolicyDefinition defaults() {
+        Map<String, Integer> severityWeights = new LinkedHashMap<>();
+        severityWeights.put(Severity.DANGER.name(), 10);
+        severityWeights.put(Severity.WARNING.name(), 5);
+
+        Map<String, Integer> typeWeights = new LinkedHashMap<>();
+        typeWeights.put(EventType.MULTIPLE_FACES.name(), 15);
+        typeWeights.put(EventType.NO_FACE.name(), 12);
+        typeWeights.put(EventType.PHONE_DETECTED.name(), 8);
+
+        Map<String, Integer> ratings = new LinkedHashMap<>();
+        ratings.put("Excellent", 90);
+        ratings.put("Very Good", 80);
+        ratings.put("Good", 70);
+        ratings.put("Fair", 60);
+        ratings.put("Poor", 40);
+        ratings.put("Very Poor", 0);
+
+        return new ScoringPolicyDefinition(severityWeights, typeWeights, new LinkedHashMap<>(), 0L, ratings);
+    }
+
+    // Getters and Setters
+    public Map<String, Integer> getSeverityWeights() {
+        return severityWeights;
+    }
+
+    public void setSeverityWeights(Map<String, Integer> severityWeights) {
+        this.severityWeights = severityWeights;
+    }
+
+    public Map<String, Integer> getTypeWeights() {
+        return typeWeights;
+    }
+
+    public void setTypeWeights(Map<String, Integer> typeWeights) {
+        this.typeWeights = typeWeights;
+    }
+
+    public Map<String, Integer> getTypeCaps() {
+        return typeCaps;
+    }
+
+    public void setTypeCaps(Map<String, Integer> typeCaps) {
+        this.typeCaps = typeCaps;
+    }
+
+    public Long getDecayHalfLifeSeconds() {
+        return decayHalfLifeSeconds;
+    }
+
+    public void setDecayHalfLifeSeconds(Long decayHalfLifeSeconds) {
+        this.decayHalfLifeSeconds = decayHalfLifeSeconds;
+    }
+
+    public Map<String, Integer> getRatings() {
+        return ratings;
+    }
+
+    public void setRatings(Map<String, Integer> ratings) {
+        this.ratings = ratings;
+    }
+
+    @Override
+    public String toString() {
+        return "ScoringPolicyDefinition{" +
+                "severityWeights=" + severityWeights +
+                ", typeWeights=" + typeWeights +
+                ", typeCaps=" + typeCaps +
+                ", decayHalfLifeSeconds=" + decayHalfLifeSeconds +
+                ", ratings=" + ratings +
+                '}';
+    }
+}
@@ -0,0 +1,98 @@
+package com.tutedude.proctoring.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Immutable, point-in-time view of a session as readers see it.
+ *
+ * The event list is a read-only view over the session's append-only log, bounded at
+ * {@code eventWatermark}: events appended later never show up in it, and building it
+ * copies nothing. Reads hand out a new snapshot instead of writing the events back onto
+ * the live session, so concurrent readers share no mutable state. Serializes to the same
+ * JSON as {@link InterviewSession}, plus the watermark.
+ */
+public final class SessionSnapshot {
+    private final String sessionId;
+    private final String candidateName;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final String status;
+    private final int durationInSeconds;
+    private final String scoringPolicy;
+    // Number of events in the log when the snapshot was taken; a later snapshot never has fewer
+    private final int eventWatermark;
+    private final List<DetectionEvent> detectionEvents;
+
+    // Constructor from the live session and a bounded view of its events
+    public SessionSnapshot(InterviewSession session, List<DetectionEvent> detectionEvents) {
+        this(session, () -> detectionEvents);
+    }
+
+    // Constructor from the live session, taking the view of its events only after the
+    // status: a snapshot that reads as ended then holds every event the session will have
+    public SessionSnapshot(InterviewSession session, Supplier<List<DetectionEvent>> detectionEvents) {
+        // Status first: once it reads as ended, the end time, duration and events are final
+        this.status = session.getStatus();
+        this.sessionId = session.getSessionId();
+        this.candidateName = session.getCandidateName();
+        this.startTime = session.getStartTime();
+        this.endTime = session.getEndTime();
+        this.durationInSeconds = session.getDurationInSeconds();
+        this.scoringPolicy = session.getScoringPolicy();
+        this.detectionEvents = detectionEvents.get();
+        this.eventWatermark = this.detectionEvents.size();
+    }
+
+    // Getters
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getCandidateName() {
+        return candidateName;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public List<DetectionEvent> getDetectionEvents() {
+        return detectionEvents;
+    }
+
+    public int getDurationInSeconds() {
+        return durationInSeconds;
+    }
+
+    public String getScoringPolicy() {
+        return scoringPolicy;
+    }
+
+    public int getEventWatermark() {
+        return eventWatermark;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionSnapshot{" +
+                "sessionId='" + sessionId + '\'' +
+                ", candidateName='" + candidateName + '\'' +
+                ", startTime=" + startTime +
+                ", endTime=" + endTime +
+                ", status='" + status + '\'' +
+                ", durationInSeconds=" + durationInSeconds +
+                ", scoringPolicy='" + scoringPolicy + '\'' +
+                ", eventWatermark=" + eventWatermark +
+                '}';
+    }
+}
@@ -0,0 +1,18 @@
+package com.tutedude.proctoring.model;
+
+/**
+ * Lifecycle states of an interview session. A session only ever moves forward:
+ * ACTIVE, then ENDING, then COMPLETED or TERMINATED. ENDING is transient and internal:
+ * new events are turned away while appends already in progress finish, and the session
+ * still shows as ACTIVE until it reaches its final state.
+ */
+public enum SessionStatus {
+    ACTIVE,
+    ENDING,
+    COMPLETED,
+    TERMINATED;
+
+    public boolean isFinal() {
+        return this == COMPLETED || this == TERMINATED;
+    }
+}
@@ -0,0 +1,108 @@
+package com.tutedude.proctoring.model;
+
+import java.time.LocalDateTime;
+
+
+public class SessionSummary {
+    private String sessionId;
+    private String candidateName;
+    private String status;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private int durationInSeconds;
+    private int totalEvents;
+    private int integrityScore;
+
+    // Default constructor
+    public SessionSummary() {
+    }
+
+    // Constructor with parameters
+    public SessionSummary(InterviewSession session, int totalEvents, int integrityScore) {
+        this.sessionId = session.getSessionId();
+        this.candidateName = session.getCandidateName();
+        this.status = session.getStatus();
+        this.startTime = session.getStartTime();
+        this.endTime = session.getEndTime();
+        this.durationInSeconds = session.getDurationInSeconds();
+        this.totalEvents = totalEvents;
+        this.integrityScore = integrityScore;
+    }
+
+    // Getters and Setters
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public String getCandidateName() {
+        return candidateName;
+    }
+
+    public void setCandidateName(String candidateName) {
+        this.candidateName = candidateName;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public int getDurationInSeconds() {
+        return durationInSeconds;
+    }
+
+    public void setDurationInSeconds(int durationInSeconds) {
+        this.durationInSeconds = durationInSeconds;
+    }
+
+    public int getTotalEvents() {
+        return totalEvents;
+    }
+
+    public void setTotalEvents(int totalEvents) {
+        this.totalEvents = totalEvents;
+    }
+
+    public int getIntegrityScore() {
+        return integrityScore;
+    }
+
+    public void setIntegrityScore(int integrityScore) {
+        this.integrityScore = integrityScore;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionSummary{" +
+                "sessionId='" + sessionId + '\'' +
+                ", candidateName='" + candidateName + '\'' +
+                ", status='" + status + '\'' +
+                ", startTime=" + startTime +
+                ", totalEvents=" + totalEvents +
+                ", integrityScore=" + integrityScore +
+                '}';
+    }
+}
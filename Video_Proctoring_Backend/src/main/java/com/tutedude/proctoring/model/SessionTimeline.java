@@ -0,0 +1,66 @@
+package com.tutedude.proctoring.model;
+
+import java.util.List;
+
+
+public class SessionTimeline {
+    private String sessionId;
+    private String resolution; // 10s or 1m
+    private int bucketSeconds;
+    private List<TimelineBucket> buckets; // Oldest first, empty buckets omitted
+
+    // Default constructor
+    public SessionTimeline() {
+    }
+
+    // Constructor with parameters
+    public SessionTimeline(String sessionId, String resolution, int bucketSeconds, List<TimelineBucket> buckets) {
+        this.sessionId = sessionId;
+        this.resolution = resolution;
+        this.bucketSeconds = bucketSeconds;
+        this.buckets = buckets;
+    }
+
+    // Getters and Setters
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public String getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(String resolution) {
+        this.resolution = resolution;
+    }
+
+    public int getBucketSeconds() {
+        return bucketSeconds;
+    }
+
+    public void setBucketSeconds(int bucketSeconds) {
+        this.bucketSeconds = bucketSeconds;
+    }
+
+    public List<TimelineBucket> getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(List<TimelineBucket> buckets) {
+        this.buckets = buckets;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionTimeline{" +
+                "sessionId='" + sessionId + '\'' +
+                ", resolution='" + resolution + '\'' +
+                ", bucketSeconds=" + bucketSeconds +
+                ", buckets=" + (buckets != null ? buckets.size() : 0) +
+                '}';
+    }
+}
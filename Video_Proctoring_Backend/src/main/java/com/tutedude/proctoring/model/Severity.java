@@ -0,0 +1,30 @@
+package com.tutedude.proctoring.model;
+
+/**
+ * Severity levels that affect scoring. Matching is case-insensitive,
+ * as it has always been for the report counters.
+ */
+public enum Severity {
+    INFO,
+    WARNING,
+    DANGER;
+
+    /**
+     * Case-insensitive lookup, or null for any other severity string
+     */
+    public static Severity fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        if ("DANGER".equalsIgnoreCase(name)) {
+            return DANGER;
+        }
+        if ("WARNING".equalsIgnoreCase(name)) {
+            return WARNING;
+        }
+        if ("INFO".equalsIgnoreCase(name)) {
+            return INFO;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,79 @@
+package com.tutedude.proctoring.model;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+
+public class TimelineBucket {
+    private LocalDateTime start;
+    private int totalEvents;
+    private int dangerEvents;
+    private int warningEvents;
+    private Map<String, Integer> eventCounts; // Non-zero counts by event type; unknown types under OTHER
+
+    // Default constructor
+    public TimelineBucket() {
+    }
+
+    // Constructor with parameters
+    public TimelineBucket(LocalDateTime start, int totalEvents, int dangerEvents, int warningEvents,
+                          Map<String, Integer> eventCounts) {
+        this.start = start;
+        this.totalEvents = totalEvents;
+        this.dangerEvents = dangerEvents;
+        this.warningEvents = warningEvents;
+        this.eventCounts = eventCounts;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public void setStart(LocalDateTime start) {
+        this.start = start;
+    }
+
+    public int getTotalEvents() {
+        return totalEvents;
+    }
+
+    public void setTotalEvents(int totalEvents) {
+        this.totalEvents = totalEvents;
+    }
+
+    public int getDangerEvents() {
+        return dangerEvents;
+    }
+
+    public void setDangerEvents(int dangerEvents) {
+        this.dangerEvents = dangerEvents;
+    }
+
+    public int getWarningEvents() {
+        return warningEvents;
+    }
+
+    public void setWarningEvents(int warningEvents) {
+        this.warningEvents = warningEvents;
+    }
+
+    public Map<String, Integer> getEventCounts() {
+        return eventCounts;
+    }
+
+    public void setEventCounts(Map<String, Integer> eventCounts) {
+        this.eventCounts = eventCounts;
+    }
+
+    @Override
+    public String toString() {
+        return "TimelineBucket{" +
+                "start=" + start +
+                ", totalEvents=" + totalEvents +
+                ", dangerEvents=" + dangerEvents +
+                ", warningEvents=" + warningEvents +
+                ", eventCounts=" + eventCounts +
+                '}';
+    }
+}
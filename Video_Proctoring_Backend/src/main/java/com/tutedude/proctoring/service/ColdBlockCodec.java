@@ -0,0 +1,345 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.DetectionEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodes a finished session's event log as one compact, compressed block.
+ *
+ * Events are cut into chunks of {@value #CHUNK_EVENTS}, each compressed on its own behind
+ * an index of chunk offsets, so a page of events inflates only the chunks it covers.
+ * Within a chunk, columns are written one after another so similar values sit together:
+ * dictionary codes for event type, severity and message (one string table per chunk),
+ * then ids and timestamps as zig-zag varint deltas from the previous event, then each
+ * event's run length and end as an offset from its own timestamp. A session's events are
+ * mostly a few repeated strings with steadily rising ids and times, so most columns shrink
+ * to a byte per event before Deflate compresses the chunk.
+ *
+ * Layout: {@code [int version][int count][int chunk offset]... [chunk]...}, each chunk
+ * {@code [int raw length][deflated: strings, columns]}.
+ */
+final class ColdBlockCodec {
+
+    private static final int VERSION = 2;
+    static final int CHUNK_EVENTS = 1024;
+    private static final int HEADER_BYTES = 8;
+
+    private ColdBlockCodec() {
+    }
+
+    static byte[] encode(SessionEventLog log) {
+        int count = log.size();
+        int chunks = (count + CHUNK_EVENTS - 1) / CHUNK_EVENTS;
+        Output out = new Output(HEADER_BYTES + chunks * 4 + count * 2);
+        out.fixedInt(VERSION);
+        out.fixedInt(count);
+        byte[][] encoded = new byte[chunks][];
+        int offset = HEADER_BYTES + chunks * 4;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            encoded[chunk] = encodeChunk(log, chunk * CHUNK_EVENTS, Math.min(count, (chunk + 1) * CHUNK_EVENTS));
+            out.fixedInt(offset);
+            offset += encoded[chunk].length;
+        }
+        for (byte[] chunk : encoded) {
+            out.write(chunk, 0, chunk.length);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Number of events in a block, read from its header
+     */
+    static int count(ByteBuffer block) {
+        checkVersion(block);
+        return block.getInt(4);
+    }
+
+    static SessionEventLog decode(String sessionId, ByteBuffer block) {
+        SessionEventLog log = new SessionEventLog(sessionId);
+        int count = count(block);
+        for (int chunk = 0; chunk * CHUNK_EVENTS < count; chunk++) {
+            decodeChunk(block, chunk, count, log);
+        }
+        return log;
+    }
+
+    /**
+     * The events in {@code [from, to)}, inflating only the chunks that hold them
+     */
+    static List<DetectionEvent> decode(String sessionId, ByteBuffer block, int from, int to) {
+        int count = count(block);
+        if (from < 0 || to > count || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") of " + count);
+        }
+        if (from == to) {
+            return new ArrayList<>();
+        }
+        SessionEventLog log = new SessionEventLog(sessionId);
+        int first = from / CHUNK_EVENTS;
+        for (int chunk = first; chunk <= (to - 1) / CHUNK_EVENTS; chunk++) {
+            decodeChunk(block, chunk, count, log);
+        }
+        int base = first * CHUNK_EVENTS;
+        return new ArrayList<>(log.snapshot().subList(from - base, to - base));
+    }
+
+    /**
+     * The events of chunk {@code chunk} alone, as a log of at most {@value #CHUNK_EVENTS}
+     */
+    static SessionEventLog decodeChunk(String sessionId, ByteBuffer block, int chunk) {
+        SessionEventLog log = new SessionEventLog(sessionId);
+        decodeChunk(block, chunk, count(block), log);
+        return log;
+    }
+
+    private static byte[] encodeChunk(SessionEventLog log, int from, int to) {
+        int count = to - from;
+        long[] ids = new long[count];
+        long[] timestamps = new long[count];
+        long[] ends = new long[count];
+        int[] occurrences = new int[count];
+        int[] types = new int[count];
+        int[] severities = new int[count];
+        int[] messages = new int[count];
+
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        int[] next = { 0 };
+        log.forEach(from, to, (id, eventType, message, severity, timestampMillis, endMillis, runLength) -> {
+            int i = next[0]++;
+            ids[i] = id;
+            timestamps[i] = timestampMillis;
+            ends[i] = endMillis;
+            occurrences[i] = runLength;
+            types[i] = code(codes, strings, eventType);
+            severities[i] = code(codes, strings, severity);
+            messages[i] = code(codes, strings, message);
+        });
+
+        Output out = new Output(32 + count * 8);
+        out.varint(strings.size());
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            out.varint(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+        for (int type : types) {
+            out.varint(type);
+        }
+        for (int severity : severities) {
+            out.varint(severity);
+        }
+        for (int message : messages) {
+            out.varint(message);
+        }
+        // Deltas wrap for the Long.MIN_VALUE null marker and unwrap the same way on decode
+        long previous = 0;
+        for (long id : ids) {
+            out.zigzag(id - previous);
+            previous = id;
+        }
+        previous = 0;
+        for (long timestamp : timestamps) {
+            out.zigzag(timestamp - previous);
+            previous = timestamp;
+        }
+        for (int i = 0; i < count; i++) {
+            out.varint(occurrences[i] - 1);
+        }
+        for (int i = 0; i < count; i++) {
+            if (occurrences[i] > 1) {
+                out.zigzag(ends[i] - timestamps[i]);
+            }
+        }
+        return deflate(out.toByteArray());
+    }
+
+    // Appends the events of one chunk to the log
+    private static void decodeChunk(ByteBuffer block, int chunk, int total, SessionEventLog log) {
+        int chunks = (total + CHUNK_EVENTS - 1) / CHUNK_EVENTS;
+        int start = block.getInt(HEADER_BYTES + chunk * 4);
+        int end = chunk + 1 < chunks ? block.getInt(HEADER_BYTES + (chunk + 1) * 4) : block.limit();
+        byte[] compressed = new byte[end - start];
+        // Absolute read, so concurrent readers do not share a position
+        block.get(start, compressed);
+
+        Input in = new Input(inflate(compressed));
+        int count = Math.min(CHUNK_EVENTS, total - chunk * CHUNK_EVENTS);
+        String[] strings = new String[in.varint()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = in.string(in.varint());
+        }
+        int[] types = new int[count];
+        int[] severities = new int[count];
+        int[] messages = new int[count];
+        for (int i = 0; i < count; i++) {
+            types[i] = in.varint();
+        }
+        for (int i = 0; i < count; i++) {
+            severities[i] = in.varint();
+        }
+        for (int i = 0; i < count; i++) {
+            messages[i] = in.varint();
+        }
+        long[] ids = new long[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += in.zigzag();
+            ids[i] = previous;
+        }
+        long[] timestamps = new long[count];
+        previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += in.zigzag();
+            timestamps[i] = previous;
+        }
+        int[] occurrences = new int[count];
+        for (int i = 0; i < count; i++) {
+            occurrences[i] = in.varint() + 1;
+        }
+
+        for (int i = 0; i < count; i++) {
+            int index = log.append(ids[i], string(strings, types[i]), string(strings, messages[i]),
+                    string(strings, severities[i]), timestamps[i]);
+            if (occurrences[i] > 1) {
+                log.extend(index, timestamps[i] + in.zigzag(), occurrences[i]);
+            }
+        }
+    }
+
+    private static void checkVersion(ByteBuffer block) {
+        int version = block.getInt(0);
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported cold block version: " + version);
+        }
+    }
+
+    // 0 stands for null, so strings are numbered from 1
+    private static int code(Map<String, Integer> codes, List<String> strings, String value) {
+        if (value == null) {
+            return 0;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            strings.add(value);
+            code = strings.size();
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    private static String string(String[] strings, int code) {
+        return code == 0 ? null : strings[code - 1];
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            Output out = new Output(raw.length / 2 + 16);
+            out.fixedInt(raw.length);
+            byte[] chunk = new byte[4096];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(chunk);
+                out.write(chunk, 0, written);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] block) {
+        int rawLength = ((block[0] & 0xFF) << 24) | ((block[1] & 0xFF) << 16) | ((block[2] & 0xFF) << 8)
+                | (block[3] & 0xFF);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(block, 4, block.length - 4);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength) {
+                int inflated = inflater.inflate(raw, read, rawLength - read);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IllegalStateException("Cold block is truncated");
+                }
+                read += inflated;
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Cold block is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static final class Output extends ByteArrayOutputStream {
+        private Output(int capacity) {
+            super(capacity);
+        }
+
+        void varint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void zigzag(long value) {
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        void fixedInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+    }
+
+    private static final class Input {
+        private final byte[] bytes;
+        private int position;
+
+        private Input(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int varint() {
+            return (int) longVarint();
+        }
+
+        long zigzag() {
+            long value = longVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String string(int length) {
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private long longVarint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+    }
+}
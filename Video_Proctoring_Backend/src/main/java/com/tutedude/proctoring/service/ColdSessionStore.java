@@ -0,0 +1,265 @@
+package com.tutedude.proctoring.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tutedude.proctoring.model.DetectionEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier for the events of sessions that have ended.
+ *
+ * A finished session's event log is encoded by {@link ColdBlockCodec} into one compressed
+ * block, kept either off-heap in a direct buffer ({@code memory}) or in one file per
+ * session under the configured directory ({@code disk}). Whole logs decoded for reports
+ * are kept for a short while after their last read, so a client fetching a session and
+ * then its report decodes it once. Pages of events inflate only the chunks they cover,
+ * and streamed documents one chunk at a time.
+ *
+ * The tier is ephemeral in both modes: blocks are derived data and the journal remains
+ * the durable record, so any files left from an earlier run are deleted on startup and
+ * rebuilt by replay.
+ *
+ * When {@code app.proctoring.cold-tier.enabled} is false nothing is archived and every
+ * lookup misses.
+ */
+@Component
+public class ColdSessionStore {
+
+    private static final String BLOCK_SUFFIX = ".cold";
+    private static final String TEMP_SUFFIX = BLOCK_SUFFIX + ".tmp";
+
+    private final boolean enabled;
+    private final boolean onDisk;
+    private final Path directory;
+
+    // Off-heap blocks in memory mode; block sizes in disk mode
+    private final Map<String, ByteBuffer> blocks = new ConcurrentHashMap<>();
+    private final Map<String, Integer> blockSizes = new ConcurrentHashMap<>();
+    private final AtomicLong storedBytes = new AtomicLong();
+    // Recently decoded logs; null when disabled
+    private final Cache<String, SessionEventLog> decoded;
+
+    public ColdSessionStore(@Value("${app.proctoring.cold-tier.enabled:true}") boolean enabled,
+                            @Value("${app.proctoring.cold-tier.storage:memory}") String storage,
+                            @Value("${app.proctoring.cold-tier.directory:data/cold}") String directory,
+                            @Value("${app.proctoring.cold-tier.decoded-cache-ms:5000}") long decodedCacheMs,
+                            @Value("${app.proctoring.cold-tier.decoded-cache-max-mb:16}") long decodedCacheMaxMb,
+                            ProctoringMetrics metrics) {
+        if (!"memory".equalsIgnoreCase(storage) && !"disk".equalsIgnoreCase(storage)) {
+            throw new IllegalArgumentException("Unknown cold tier storage: " + storage + " (expected memory or disk)");
+        }
+        this.enabled = enabled;
+        this.onDisk = "disk".equalsIgnoreCase(storage);
+        this.directory = Paths.get(directory);
+        if (enabled && onDisk) {
+            clearDirectory();
+        }
+        this.decoded = enabled && decodedCacheMs > 0 && decodedCacheMaxMb > 0
+                ? Caffeine.newBuilder()
+                        .expireAfterAccess(Duration.ofMillis(decodedCacheMs))
+                        .maximumWeight(decodedCacheMaxMb * 1024 * 1024)
+                        .weigher((String sessionId, SessionEventLog log) ->
+                                (int) Math.min(log.estimatedBytes(), Integer.MAX_VALUE))
+                        .build()
+                : null;
+
+        metrics.gauge("proctoring.sessions.archived", "Ended sessions whose events are in the cold tier",
+                this, ColdSessionStore::size);
+        metrics.gauge("proctoring.events.cold.bytes", "Compressed bytes held by the cold tier",
+                storedBytes, AtomicLong::get);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Encode and store the final events of a session, replacing any earlier block
+     */
+    public void archive(String sessionId, SessionEventLog events) {
+        if (!enabled) {
+            return;
+        }
+        byte[] block = ColdBlockCodec.encode(events);
+        Integer previous;
+        if (onDisk) {
+            try {
+                // Written aside and moved into place, so readers that mapped the old file keep it
+                Path written = Files.write(blockPath(sessionId).resolveSibling(sessionId + TEMP_SUFFIX), block);
+                Files.move(written, blockPath(sessionId), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write cold block of session " + sessionId, e);
+            }
+            previous = blockSizes.put(sessionId, block.length);
+        } else {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(block.length);
+            buffer.put(block).flip();
+            ByteBuffer replaced = blocks.put(sessionId, buffer);
+            previous = replaced != null ? replaced.capacity() : null;
+        }
+        storedBytes.addAndGet(block.length - (previous != null ? previous : 0));
+        invalidateDecoded(sessionId);
+    }
+
+    /**
+     * The archived events of a session as a log shared with other readers, which must not
+     * modify it, or null when the session has no block
+     */
+    public SessionEventLog load(String sessionId) {
+        if (decoded != null) {
+            return decoded.get(sessionId, this::decode);
+        }
+        return decode(sessionId);
+    }
+
+    /**
+     * Number of archived events of a session, or -1 when it has no block
+     */
+    public int count(String sessionId) {
+        SessionEventLog log = decoded != null ? decoded.getIfPresent(sessionId) : null;
+        if (log != null) {
+            return log.size();
+        }
+        ByteBuffer block = block(sessionId);
+        return block != null ? ColdBlockCodec.count(block) : -1;
+    }
+
+    /**
+     * The archived events in {@code [from, to)}, or null when the session has no block.
+     * Decodes only the part of the block holding them unless the whole log is cached.
+     */
+    public List<DetectionEvent> events(String sessionId, int from, int to) {
+        SessionEventLog log = decoded != null ? decoded.getIfPresent(sessionId) : null;
+        if (log != null) {
+            return new ArrayList<>(log.snapshot().subList(from, to));
+        }
+        ByteBuffer block = block(sessionId);
+        return block != null ? ColdBlockCodec.decode(sessionId, block, from, to) : null;
+    }
+
+    /**
+     * Visit the archived events of a session in order, decoding one chunk at a time unless
+     * the whole log is cached; visits nothing when the session has no block
+     */
+    public <E extends Exception> void forEach(String sessionId, SessionEventLog.EventVisitor<E> visitor) throws E {
+        SessionEventLog log = decoded != null ? decoded.getIfPresent(sessionId) : null;
+        if (log != null) {
+            log.forEach(0, log.size(), visitor);
+            return;
+        }
+        ByteBuffer block = block(sessionId);
+        if (block == null) {
+            return;
+        }
+        int chunks = (ColdBlockCodec.count(block) + ColdBlockCodec.CHUNK_EVENTS - 1) / ColdBlockCodec.CHUNK_EVENTS;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            SessionEventLog events = ColdBlockCodec.decodeChunk(sessionId, block, chunk);
+            events.forEach(0, events.size(), visitor);
+        }
+    }
+
+    public void remove(String sessionId) {
+        if (onDisk) {
+            Integer size = blockSizes.remove(sessionId);
+            if (size == null) {
+                return;
+            }
+            storedBytes.addAndGet(-size);
+            try {
+                Files.deleteIfExists(blockPath(sessionId));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete cold block of session " + sessionId, e);
+            }
+        } else {
+            // The direct buffer is freed once it is garbage collected
+            ByteBuffer removed = blocks.remove(sessionId);
+            if (removed != null) {
+                storedBytes.addAndGet(-removed.capacity());
+            }
+        }
+        invalidateDecoded(sessionId);
+    }
+
+    /**
+     * Number of archived sessions
+     */
+    public int size() {
+        return onDisk ? blockSizes.size() : blocks.size();
+    }
+
+    /**
+     * Compressed bytes held, off-heap or on disk
+     */
+    public long storedBytes() {
+        return storedBytes.get();
+    }
+
+    private SessionEventLog decode(String sessionId) {
+        ByteBuffer block = block(sessionId);
+        return block != null ? ColdBlockCodec.decode(sessionId, block) : null;
+    }
+
+    // The stored block, read only through absolute gets; a read-only mapping in disk mode
+    private ByteBuffer block(String sessionId) {
+        if (!onDisk) {
+            return blocks.get(sessionId);
+        }
+        if (!blockSizes.containsKey(sessionId)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(blockPath(sessionId), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            // Removed since the check
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read cold block of session " + sessionId, e);
+        }
+    }
+
+    private void invalidateDecoded(String sessionId) {
+        if (decoded != null) {
+            decoded.invalidate(sessionId);
+        }
+    }
+
+    private Path blockPath(String sessionId) {
+        return directory.resolve(sessionId + BLOCK_SUFFIX);
+    }
+
+    private void clearDirectory() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path path : (Iterable<Path>) files::iterator) {
+                    String name = path.getFileName().toString();
+                    if (name.endsWith(BLOCK_SUFFIX) || name.endsWith(TEMP_SUFFIX)) {
+                        Files.delete(path);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to prepare cold tier directory " + directory, e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.DetectionEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Open runs of repeated detections for one session.
+ *
+ * A detection extends the open run of the same event type and severity when it arrives
+ * within {@code windowMillis} of that run's last occurrence; otherwise it starts a new
+ * run, which is stored as a new event. Callers hold {@link #lock} around matching and
+ * the log and journal writes that follow, so run positions in the log and in the
+ * journal agree.
+ */
+final class EventCoalescer {
+
+    // Past this many open runs, runs that can no longer be extended are dropped
+    private static final int PRUNE_THRESHOLD = 64;
+
+    final ReentrantLock lock = new ReentrantLock();
+    private final long windowMillis;
+    // Keyed by event type and severity
+    private final Map<String, Run> openRuns = new HashMap<>();
+
+    EventCoalescer(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * The open run a detection at {@code timestampMillis} extends, or null when it starts a new one
+     */
+    Run match(String eventType, String severity, long timestampMillis) {
+        Run run = openRuns.get(key(eventType, severity));
+        if (run == null || timestampMillis < run.lastMillis || timestampMillis - run.lastMillis > windowMillis) {
+            return null;
+        }
+        run.lastMillis = timestampMillis;
+        run.occurrences++;
+        if (run.pending != null) {
+            run.pending.setEndTimestamp(SessionEventLog.toLocalDateTime(timestampMillis));
+            run.pending.setOccurrences(run.occurrences);
+        }
+        return run;
+    }
+
+    /**
+     * Start a run for an event already stored at {@code index}
+     */
+    Run open(String eventType, String severity, long eventId, int index, long timestampMillis) {
+        Run run = new Run(eventId, timestampMillis);
+        run.index = index;
+        put(key(eventType, severity), run);
+        return run;
+    }
+
+    /**
+     * Start a run for an event that is appended later as part of a batch; repeats in the
+     * same batch are folded into the event itself until {@link Run#stored} is called
+     */
+    Run openPending(DetectionEvent event, long timestampMillis) {
+        Run run = new Run(event.getId(), timestampMillis);
+        run.pending = event;
+        put(key(event.getEventType(), event.getSeverity()), run);
+        return run;
+    }
+
+    private void put(String key, Run run) {
+        openRuns.put(key, run);
+        if (openRuns.size() > PRUNE_THRESHOLD) {
+            // Client-supplied event types could otherwise grow this without bound
+            openRuns.values().removeIf(open -> run.lastMillis - open.lastMillis > windowMillis);
+        }
+    }
+
+    private static String key(String eventType, String severity) {
+        return eventType + '\u0000' + severity;
+    }
+
+    static final class Run {
+        private final long eventId;
+        private int index = -1;
+        private DetectionEvent pending;
+        private long lastMillis;
+        private int occurrences = 1;
+
+        private Run(long eventId, long timestampMillis) {
+            this.eventId = eventId;
+            this.lastMillis = timestampMillis;
+        }
+
+        long getEventId() {
+            return eventId;
+        }
+
+        /**
+         * Position in the log, or -1 while the event is still waiting to be appended
+         */
+        int getIndex() {
+            return index;
+        }
+
+        long getLastMillis() {
+            return lastMillis;
+        }
+
+        int getOccurrences() {
+            return occurrences;
+        }
+
+        void stored(int index) {
+            this.index = index;
+            this.pending = null;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.tutedude.proctoring.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style detection event ID generator.
+ *
+ * An ID is laid out as {@code [41 bits millis since 2024-01-01][14 bits sequence][8 bits node]}.
+ * The millis and sequence bits form a single counter that is bumped with one atomic
+ * increment, and jumps forward to the wall clock whenever the clock overtakes it. When
+ * more than 16384 IDs are requested within one millisecond the counter simply borrows
+ * from the next millisecond instead of waiting, so IDs stay unique and strictly
+ * increasing on this node. The node bits keep IDs from different nodes apart.
+ *
+ * Calls that happen one after another, on one thread or several, get strictly
+ * increasing IDs; concurrent calls get unique IDs in no particular order, so callers
+ * that need IDs in the order of something else take them under the same lock (see
+ * {@link SessionEventLog#appendLock}). The hot path allocates nothing.
+ */
+@Component
+public class EventIdGenerator {
+
+    static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+    static final int NODE_BITS = 8;
+    static final int SEQUENCE_BITS = 14;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private final long nodeId;
+    private final AtomicLong counter = new AtomicLong();
+
+    public EventIdGenerator(@Value("${app.proctoring.node-id:0}") int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Next unique event ID
+     */
+    public long nextId() {
+        long next = counter.incrementAndGet();
+        long now = clockCounter();
+        if (next < now) {
+            // The clock moved ahead of the counter; catch up, then take a fresh value
+            counter.accumulateAndGet(now, Math::max);
+            next = counter.incrementAndGet();
+        }
+        return (next << NODE_BITS) | nodeId;
+    }
+
+    /**
+     * Make sure IDs generated from now on sort after an ID that was issued earlier,
+     * for example one replayed from persistent storage
+     */
+    public void advancePast(long id) {
+        counter.accumulateAndGet(id >>> NODE_BITS, Math::max);
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Wall-clock millis of an ID, useful when debugging
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    private static long clockCounter() {
+        return (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+    }
+}
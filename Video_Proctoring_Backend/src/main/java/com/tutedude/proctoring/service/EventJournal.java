@@ -0,0 +1,840 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.DetectionEvent;
+import com.tutedude.proctoring.model.EventType;
+import com.tutedude.proctoring.model.Severity;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of session lifecycle and detection event records.
+ *
+ * Records are appended to fixed-size, memory-mapped segment files
+ * ({@code journal-0000000001.seg}, ...); a new segment is started when the next
+ * record does not fit. Each record is framed as
+ * {@code [int length][int crc32][byte type][payload]} and the length is written last,
+ * so a record torn by a crash reads as the end of the journal. Sessions get a small
+ * integer handle when they start, so event records do not repeat the session id.
+ *
+ * Appends only copy into the mapping; dirty segments are forced to disk by a
+ * background group-commit every {@code fsync-interval-ms}. When the interval is 0 each
+ * append waits for a force made after the append lock is released, and appenders that
+ * arrive while one force runs share the next. On startup {@link #replay} feeds every
+ * record back to the service and then positions the journal for new appends.
+ *
+ * Each segment tracks the sessions its records belong to. Once every one of them has
+ * been deleted (by the API or by eviction), a full segment holds nothing replay needs
+ * and its file is removed, so disk use and startup time follow the sessions still
+ * stored rather than everything ever written. Records left in later segments for a
+ * session whose start was retired are skipped on replay.
+ *
+ * When {@code app.proctoring.journal.enabled} is false every method is a no-op that
+ * returns before taking the lock.
+ */
+@Component
+public class EventJournal {
+
+    static final byte SESSION_STARTED = 1;
+    static final byte EVENT_APPENDED = 2;
+    static final byte SESSION_ENDED = 3;
+    static final byte SESSION_DELETED = 4;
+    static final byte EVENT_EXTENDED = 5;
+    static final byte SESSION_POLICY = 6;
+    static final byte SEQUENCES_ACCEPTED = 7;
+
+    private static final int HEADER_BYTES = 8;
+    private static final byte CUSTOM_CODE = -1;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    /**
+     * Callbacks invoked for each record during replay, in journal order
+     */
+    public interface ReplayHandler {
+        void sessionStarted(String sessionId, String candidateName, long startMillis);
+
+        void eventAppended(String sessionId, long id, String eventType, String message, String severity,
+                           long timestampMillis);
+
+        void eventExtended(String sessionId, int index, long endMillis, int occurrences);
+
+        void sessionPolicyAssigned(String sessionId, String policyName);
+
+        void sequencesAccepted(String sessionId, long[] sequences);
+
+        void sessionEnded(String sessionId, String status, long endMillis, int durationInSeconds);
+
+        void sessionDeleted(String sessionId);
+    }
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final long fsyncIntervalMs;
+    // A lock rather than a monitor: segment rolls and fsync-per-append force to disk while
+    // holding it, which would pin the carrier of a virtual request thread
+    private final ReentrantLock lock = new ReentrantLock();
+    // Held by the one appender forcing for everyone waiting when fsync-interval-ms is 0
+    private final ReentrantLock forceLock = new ReentrantLock();
+
+    private final Map<String, Integer> sessionHandles = new HashMap<>();
+    private final Map<Integer, String> handleSessions = new HashMap<>();
+    private int nextHandle;
+    // Handles of the stored sessions with records in each segment still on disk
+    private final NavigableMap<Long, Set<Integer>> segmentSessions = new TreeMap<>();
+    private final CRC32 crc = new CRC32();
+
+    private long segmentNumber;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private boolean dirty;
+    // Records sealed so far, and how many of them a force has covered
+    private long appended;
+    private volatile long durable;
+    private ScheduledExecutorService flusher;
+
+    @Autowired
+    public EventJournal(@Value("${app.proctoring.journal.enabled:false}") boolean enabled,
+                        @Value("${app.proctoring.journal.directory:data/journal}") String directory,
+                        @Value("${app.proctoring.journal.segment-size-mb:64}") int segmentSizeMb,
+                        @Value("${app.proctoring.journal.fsync-interval-ms:100}") long fsyncIntervalMs) {
+        this(enabled, Paths.get(directory), segmentSizeMb * 1024 * 1024, fsyncIntervalMs);
+    }
+
+    EventJournal(boolean enabled, Path directory, int segmentSizeBytes, long fsyncIntervalMs) {
+        if (segmentSizeBytes < 1024) {
+            throw new IllegalArgumentException("Journal segment size is too small: " + segmentSizeBytes);
+        }
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = segmentSizeBytes;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Replay every record into the handler, then open the journal for appends.
+     * Returns the number of records replayed.
+     */
+    public long replay(ReplayHandler handler) {
+        if (!enabled) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            if (segment != null) {
+                throw new IllegalStateException("Journal already opened");
+            }
+
+            try {
+                Files.createDirectories(directory);
+                List<Path> segments = listSegments();
+                long records = 0;
+                int endPosition = 0;
+                for (Path path : segments) {
+                    long number = segmentNumberOf(path);
+                    segmentSessions.put(number, new HashSet<>());
+                    try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+                        ByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                        records += replaySegment(buffer, number, handler);
+                        endPosition = buffer.position();
+                    }
+                }
+
+                if (segments.isEmpty()) {
+                    openSegment(1, 0);
+                } else {
+                    openSegment(segmentNumberOf(segments.get(segments.size() - 1)), endPosition);
+                }
+                retireSegments();
+                startFlusher();
+                return records;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to replay journal in " + directory, e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void sessionStarted(String sessionId, String candidateName, long startMillis) {
+        if (!enabled) {
+            return;
+        }
+        long written;
+        lock.lock();
+        try {
+            int handle = nextHandle++;
+            byte[] id = utf8(sessionId);
+            byte[] name = utf8(candidateName);
+            ByteBuffer record = begin(SESSION_STARTED, handle, stringBytes(id) + stringBytes(name) + 8);
+            putString(record, id);
+            putString(record, name);
+            record.putLong(startMillis);
+            seal(record);
+            sessionHandles.put(sessionId, handle);
+            handleSessions.put(handle, sessionId);
+            written = appended;
+        } finally {
+            lock.unlock();
+        }
+        afterAppend(written);
+    }
+
+    public void eventAppended(String sessionId, long id, String eventType, String message,
+                                           String severity, long timestampMillis) {
+        if (!enabled) {
+            return;
+        }
+        long written;
+        lock.lock();
+        try {
+            Integer handle = sessionHandles.get(sessionId);
+            if (handle == null) {
+                return;
+            }
+            writeEvent(handle, id, eventType, message, severity, timestampMillis);
+            written = appended;
+        } finally {
+            lock.unlock();
+        }
+        afterAppend(written);
+    }
+
+    public void eventsAppended(String sessionId, List<DetectionEvent> events) {
+        if (!enabled || events.isEmpty()) {
+            return;
+        }
+        long written;
+        lock.lock();
+        try {
+            Integer handle = sessionHandles.get(sessionId);
+            if (handle == null) {
+                return;
+            }
+            for (DetectionEvent event : events) {
+                writeEvent(handle, event.getId(), event.getEventType(), event.getMessage(), event.getSeverity(),
+                        SessionEventLog.toEpochMillis(event.getTimestamp()));
+            }
+            written = appended;
+        } finally {
+            lock.unlock();
+        }
+        afterAppend(written);
+    }
+
+    /**
+     * The session's event at {@code index} (in journal order) now covers {@code occurrences}
+     * coalesced repeats, the last one at {@code endMillis}
+     */
+    public void eventExtended(String sessionId, int index, long endMillis, int occurrences) {
+        if (!enabled) {
+            return;
+        }
+        long written;
+        lock.lock();
+        try {
+            Integer handle = sessionHandles.get(sessionId);
+            if (handle == null) {
+                return;
+            }
+            ByteBuffer record = begin(EVENT_EXTENDED, handle, 4 + 8 + 4);
+            record.putInt(index);
+            record.putLong(endMillis);
+            record.putInt(occurrences);
+            seal(record);
+            written = appended;
+        } finally {
+            lock.unlock();
+        }
+        afterAppend(written);
+    }
+
+    /**
+     * The session's client sent events under these sequence numbers, the first
+     * {@code count} of {@code sequences}; written after the events themselves
+     */
+    public void sequencesAccepted(String sessionId, long[] sequences, int count) {
+        if (!enabled || count == 0) {
+            return;
+        }
+        long written;
+        lock.lock();
+        try {
+            Integer handle = sessionHandles.get(sessionId);
+            if (handle == null) {
+                return;
+            }
+            ByteBuffer record = begin(SEQUENCES_ACCEPTED, handle, 4 + 8 * count);
+            record.putInt(count);
+            for (int i = 0; i < count; i++) {
+                record.putLong(sequences[i]);
+            }
+            seal(record);
+            written = appended;
+        } finally {
+            lock.unlock();
+        }
+        afterAppend(written);
+    }
+
+    /**
+     * The session is scored under {@code policyName} from now on
+     */
+    public void sessionPolicyAssigned(String sessionId, String policyName) {
+        if (!enabled) {
+            return;
+        }
+        long written;
+        lock.lock();
+        try {
+            Integer handle = sessionHandles.get(sessionId);
+            if (handle == null) {
+                return;
+            }
+            byte[] nameBytes = utf8(policyName);
+            ByteBuffer record = begin(SESSION_POLICY, handle, stringBytes(nameBytes));
+            putString(record, nameBytes);
+            seal(record);
+            written = appended;
+        } finally {
+            lock.unlock();
+        }
+        afterAppend(written);
+    }
+
+    public void sessionEnded(String sessionId, String status, long endMillis, int durationInSeconds) {
+        if (!enabled) {
+            return;
+        }
+        long written;
+        lock.lock();
+        try {
+            Integer handle = sessionHandles.get(sessionId);
+            if (handle == null) {
+                return;
+            }
+            byte[] statusBytes = utf8(status);
+            ByteBuffer record = begin(SESSION_ENDED, handle, stringBytes(statusBytes) + 8 + 4);
+            putString(record, statusBytes);
+            record.putLong(endMillis);
+            record.putInt(durationInSeconds);
+            seal(record);
+            written = appended;
+        } finally {
+            lock.unlock();
+        }
+        afterAppend(written);
+    }
+
+    public void sessionDeleted(String sessionId) {
+        if (!enabled) {
+            return;
+        }
+        long written;
+        lock.lock();
+        try {
+            Integer handle = sessionHandles.remove(sessionId);
+            if (handle == null) {
+                return;
+            }
+            seal(begin(SESSION_DELETED, handle, 0));
+            handleSessions.remove(handle);
+            release(handle);
+            written = appended;
+        } finally {
+            lock.unlock();
+        }
+        afterAppend(written);
+    }
+
+    /**
+     * Throw IllegalArgumentException when an event with these strings would not fit in a
+     * segment, so callers can reject it before storing anything
+     */
+    public void checkEvent(String eventType, String message, String severity) {
+        if (!enabled) {
+            return;
+        }
+        // UTF-8 never takes more than three bytes per char, so short strings skip the encoding
+        long bound = 8 + 8 + 2 + maxStringBytes(eventType) + maxStringBytes(severity) + maxStringBytes(message);
+        if (recordBytes(0) + bound > segmentSize) {
+            checkFits(8 + 8 + 2 + stringBytes(utf8(eventType)) + stringBytes(utf8(severity))
+                    + stringBytes(utf8(message)));
+        }
+    }
+
+    /**
+     * Throw IllegalArgumentException when the start of this session would not fit in a segment
+     */
+    public void checkSessionStart(String sessionId, String candidateName) {
+        if (enabled) {
+            checkFits(stringBytes(utf8(sessionId)) + stringBytes(utf8(candidateName)) + 8);
+        }
+    }
+
+    /**
+     * Force everything appended so far to disk. The force itself runs outside the
+     * append lock, so a group commit does not stall request threads.
+     */
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        MappedByteBuffer dirtySegment;
+        lock.lock();
+        try {
+            if (segment == null || !dirty) {
+                return;
+            }
+            dirtySegment = segment;
+            dirty = false;
+        } finally {
+            lock.unlock();
+        }
+        dirtySegment.force();
+    }
+
+    /**
+     * Like {@link #flush()}, but forces the segment even when another flush has already
+     * taken it, so everything appended before the call is on disk when it returns
+     */
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        MappedByteBuffer current;
+        lock.lock();
+        try {
+            if (segment == null) {
+                return;
+            }
+            current = segment;
+            dirty = false;
+        } finally {
+            lock.unlock();
+        }
+        current.force();
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            if (flusher != null) {
+                flusher.shutdownNow();
+                flusher = null;
+            }
+            if (segment != null) {
+                segment.force();
+                closeChannel();
+                segment = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeEvent(int handle, long id, String eventType, String message, String severity,
+                            long timestampMillis) {
+        EventType knownType = EventType.fromName(eventType);
+        Severity knownSeverity = eventSeverity(severity);
+        byte[] typeBytes = knownType == null ? utf8(eventType) : null;
+        byte[] severityBytes = knownSeverity == null ? utf8(severity) : null;
+        byte[] messageBytes = utf8(message);
+
+        int size = 8 + 8
+                + 1 + (knownType == null ? stringBytes(typeBytes) : 0)
+                + 1 + (knownSeverity == null ? stringBytes(severityBytes) : 0)
+                + stringBytes(messageBytes);
+        ByteBuffer record = begin(EVENT_APPENDED, handle, size);
+        record.putLong(id);
+        record.putLong(timestampMillis);
+        if (knownType != null) {
+            record.put((byte) knownType.ordinal());
+        } else {
+            record.put(CUSTOM_CODE);
+            putString(record, typeBytes);
+        }
+        if (knownSeverity != null) {
+            record.put((byte) knownSeverity.ordinal());
+        } else {
+            record.put(CUSTOM_CODE);
+            putString(record, severityBytes);
+        }
+        putString(record, messageBytes);
+        seal(record);
+    }
+
+    /**
+     * Reserve room for a record of the session with {@code handle} in the current segment,
+     * rolling to a new one if needed, and return a buffer positioned after the handle
+     */
+    private ByteBuffer begin(byte type, int handle, int payloadBytes) {
+        if (segment == null) {
+            throw new IllegalStateException("Journal has not been opened, call replay() first");
+        }
+        // Callers check sizes up front; this only guards against a record they missed
+        checkFits(payloadBytes);
+        int recordBytes = recordBytes(payloadBytes);
+        if (segment.remaining() < recordBytes) {
+            rollSegment();
+        }
+        int start = segment.position();
+        segment.position(start + HEADER_BYTES);
+        segment.put(type);
+        ByteBuffer record = segment.duplicate();
+        record.position(start + HEADER_BYTES + 1);
+        record.limit(start + recordBytes);
+        record.putInt(handle);
+        segment.position(start);
+        segmentSessions.get(segmentNumber).add(handle);
+        return record;
+    }
+
+    private void checkFits(int payloadBytes) {
+        int recordBytes = recordBytes(payloadBytes);
+        if (recordBytes > segmentSize) {
+            throw new IllegalArgumentException("Journal record of " + recordBytes
+                    + " bytes exceeds the segment size of " + segmentSize + " bytes");
+        }
+    }
+
+    // Header, type and session handle around the payload
+    private static int recordBytes(int payloadBytes) {
+        return HEADER_BYTES + 1 + 4 + payloadBytes;
+    }
+
+    /**
+     * Checksum the payload and write the header, length last
+     */
+    private void seal(ByteBuffer record) {
+        int start = segment.position();
+        int end = record.position();
+        int length = end - start - HEADER_BYTES;
+
+        ByteBuffer payload = segment.duplicate();
+        payload.position(start + HEADER_BYTES);
+        payload.limit(end);
+        crc.reset();
+        crc.update(payload);
+
+        segment.putInt(start + 4, (int) crc.getValue());
+        segment.putInt(start, length);
+        segment.position(end);
+        dirty = true;
+        appended++;
+    }
+
+    /**
+     * With an fsync interval of 0, return once the first {@code written} records are on disk.
+     * Runs after the append lock is released: one appender forces at a time, and the force
+     * covers every record sealed before it started, so appenders that queued behind it find
+     * their records already durable and return without forcing again.
+     */
+    private void afterAppend(long written) {
+        if (fsyncIntervalMs > 0 || durable >= written) {
+            return;
+        }
+        forceLock.lock();
+        try {
+            if (durable >= written) {
+                return;
+            }
+            MappedByteBuffer current;
+            long through;
+            lock.lock();
+            try {
+                if (segment == null) {
+                    return;
+                }
+                // Earlier segments were forced when they were rolled
+                current = segment;
+                through = appended;
+                dirty = false;
+            } finally {
+                lock.unlock();
+            }
+            current.force();
+            durable = through;
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    private long replaySegment(ByteBuffer buffer, long number, ReplayHandler handler) {
+        long records = 0;
+        CRC32 check = new CRC32();
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt(start);
+            if (length <= 0 || length > buffer.remaining() - HEADER_BYTES) {
+                break;
+            }
+            ByteBuffer payload = buffer.duplicate();
+            payload.position(start + HEADER_BYTES);
+            payload.limit(start + HEADER_BYTES + length);
+            check.reset();
+            check.update(payload.duplicate());
+            if ((int) check.getValue() != buffer.getInt(start + 4)) {
+                // Torn or corrupt tail; everything after it is ignored
+                break;
+            }
+            apply(payload, number, handler);
+            buffer.position(start + HEADER_BYTES + length);
+            records++;
+        }
+        return records;
+    }
+
+    private void apply(ByteBuffer record, long segmentNumber, ReplayHandler handler) {
+        byte type = record.get();
+        int handle = record.getInt();
+        nextHandle = Math.max(nextHandle, handle + 1);
+        if (type == SESSION_STARTED) {
+            String sessionId = getString(record);
+            String candidateName = getString(record);
+            long startMillis = record.getLong();
+            handleSessions.put(handle, sessionId);
+            sessionHandles.put(sessionId, handle);
+            segmentSessions.get(segmentNumber).add(handle);
+            handler.sessionStarted(sessionId, candidateName, startMillis);
+            return;
+        }
+        String sessionId = handleSessions.get(handle);
+        if (sessionId == null) {
+            // Its session was deleted and the segment that started it retired
+            return;
+        }
+        segmentSessions.get(segmentNumber).add(handle);
+        switch (type) {
+            case EVENT_APPENDED -> {
+                long id = record.getLong();
+                long timestampMillis = record.getLong();
+                byte typeCode = record.get();
+                String eventType = typeCode == CUSTOM_CODE ? getString(record) : EventType.fromOrdinal(typeCode).name();
+                byte severityCode = record.get();
+                String severity = severityCode == CUSTOM_CODE ? getString(record) : Severity.values()[severityCode].name();
+                String message = getString(record);
+                handler.eventAppended(sessionId, id, eventType, message, severity, timestampMillis);
+            }
+            case EVENT_EXTENDED -> {
+                int index = record.getInt();
+                long endMillis = record.getLong();
+                int occurrences = record.getInt();
+                handler.eventExtended(sessionId, index, endMillis, occurrences);
+            }
+            case SESSION_POLICY -> {
+                String policyName = getString(record);
+                handler.sessionPolicyAssigned(sessionId, policyName);
+            }
+            case SEQUENCES_ACCEPTED -> {
+                long[] sequences = new long[record.getInt()];
+                for (int i = 0; i < sequences.length; i++) {
+                    sequences[i] = record.getLong();
+                }
+                handler.sequencesAccepted(sessionId, sequences);
+            }
+            case SESSION_ENDED -> {
+                String status = getString(record);
+                long endMillis = record.getLong();
+                int durationInSeconds = record.getInt();
+                handler.sessionEnded(sessionId, status, endMillis, durationInSeconds);
+            }
+            case SESSION_DELETED -> {
+                sessionHandles.remove(sessionId);
+                handleSessions.remove(handle);
+                for (Set<Integer> handles : segmentSessions.values()) {
+                    handles.remove(handle);
+                }
+                handler.sessionDeleted(sessionId);
+            }
+            default -> throw new IllegalStateException("Unknown journal record type: " + type);
+        }
+    }
+
+    private void rollSegment() {
+        segment.force();
+        dirty = false;
+        closeChannel();
+        openSegment(segmentNumber + 1, 0);
+        retireSegments();
+    }
+
+    /**
+     * Forget a deleted session in every segment, and remove the segments it leaves without any
+     */
+    private void release(int handle) {
+        for (Set<Integer> handles : segmentSessions.values()) {
+            handles.remove(handle);
+        }
+        retireSegments();
+    }
+
+    /**
+     * Delete every segment before the current one that no stored session has records in
+     */
+    private void retireSegments() {
+        Iterator<Map.Entry<Long, Set<Integer>>> iterator = segmentSessions.headMap(segmentNumber, false).entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Set<Integer>> entry = iterator.next();
+            if (!entry.getValue().isEmpty()) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(segmentPath(entry.getKey()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete journal segment " + entry.getKey(), e);
+            }
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Number of segment files the journal currently keeps
+     */
+    int segmentCount() {
+        lock.lock();
+        try {
+            return segmentSessions.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void openSegment(long number, int position) {
+        try {
+            channel = FileChannel.open(segmentPath(number),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            segment.position(Math.min(position, segmentSize));
+            segmentNumber = number;
+            segmentSessions.computeIfAbsent(number, k -> new HashSet<>());
+            clearTornTail();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open journal segment " + number, e);
+        }
+    }
+
+    /**
+     * Zero whatever a crash left after the last valid record, so new records are never
+     * followed by stale bytes that could be mistaken for a record
+     */
+    private void clearTornTail() {
+        int position = segment.position();
+        if (segment.remaining() < HEADER_BYTES || segment.getLong(position) == 0) {
+            return;
+        }
+        for (int i = position; i < segmentSize; i++) {
+            segment.put(i, (byte) 0);
+        }
+        dirty = true;
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close journal segment " + segmentNumber, e);
+        }
+    }
+
+    private void startFlusher() {
+        if (fsyncIntervalMs <= 0) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-fsync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private static long segmentNumberOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Severities are stored by ordinal only on an exact name match, so the original string always round-trips
+     */
+    private static Severity eventSeverity(String severity) {
+        Severity known = Severity.fromName(severity);
+        return known != null && known.name().equals(severity) ? known : null;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringBytes(byte[] bytes) {
+        return 4 + (bytes == null ? 0 : bytes.length);
+    }
+
+    private static long maxStringBytes(String value) {
+        return 4 + (value == null ? 0 : value.length() * 3L);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,13 @@
+package com.tutedude.proctoring.service;
+
+/**
+ * Thrown to a producer waiting for a queued event to become durable when the writer could
+ * not store or journal it. The client may retry: an event that was not stored has its
+ * sequence released, and one stored but not forced is acknowledged as a duplicate.
+ */
+public class EventNotStoredException extends RuntimeException {
+
+    public EventNotStoredException(String sessionId, Throwable cause) {
+        super("Event of session " + sessionId + " was not stored: " + cause.getMessage(), cause);
+    }
+}
@@ -0,0 +1,256 @@
+package com.tutedude.proctoring.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous event ingestion: a fixed number of shards, each a preallocated ring of
+ * slots drained by a single writer thread.
+ *
+ * A producer claims a slot with one atomic increment, fills it in place and publishes it
+ * by writing its sequence, so nothing is allocated or locked per event. A session always
+ * maps to the same shard, which means its events are stored by one thread, in the order
+ * they were published. The writer takes everything published so far as one batch, so
+ * journaling and forcing to disk happen once per batch rather than once per event. A full
+ * ring makes producers wait instead of growing, keeping memory fixed under overload.
+ */
+final class IngestionPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionPipeline.class);
+
+    // Producers waiting for a free slot or a stored event spin, then yield, then park
+    private static final int SPINS = 100;
+    private static final int YIELDS = 100;
+    private static final long PARK_NANOS = 20_000;
+    // Longest an idle writer sleeps without being woken
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Stores one batch of a shard's events, in the order they were published
+     */
+    interface BatchWriter {
+        void write(List<QueuedEvent> batch);
+    }
+
+    /**
+     * One ring slot, reused for every event published into it
+     */
+    static final class QueuedEvent {
+        // Sequence this slot was last published under; written last, read first
+        private volatile long sequence = -1;
+
+        String sessionId;
+        String eventType;
+        String message;
+        String severity;
+        // Client sequence number, or -1 when the client sent none
+        long clientSequence;
+        long timestamp;
+        SessionLifecycle lifecycle;
+        // Set by the writer when the event could not be stored. Tagged with its sequence and
+        // never cleared, since the slot may be reused before a waiting producer reads it
+        private volatile Failure failure;
+
+        /**
+         * Record that the event now in this slot was not stored, for {@link #awaitStored}
+         */
+        void failed(RuntimeException cause) {
+            failure = new Failure(sequence, cause);
+        }
+
+        private void clear() {
+            sessionId = null;
+            eventType = null;
+            message = null;
+            severity = null;
+            lifecycle = null;
+        }
+    }
+
+    private record Failure(long sequence, RuntimeException cause) {
+    }
+
+    private final Shard[] shards;
+    private volatile boolean running = true;
+
+    IngestionPipeline(int shardCount, int ringSize, BatchWriter writer) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Ingestion shards must be positive: " + shardCount);
+        }
+        if (ringSize <= 0 || Integer.bitCount(ringSize) != 1) {
+            throw new IllegalArgumentException("Ingestion ring size must be a power of two: " + ringSize);
+        }
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, ringSize, writer);
+        }
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+    }
+
+    /**
+     * Queue an event, waiting while its shard's ring is full. Returns the sequence to pass
+     * to {@link #awaitStored}.
+     */
+    long publish(String sessionId, String eventType, String message, String severity, long clientSequence,
+                 long timestamp, SessionLifecycle lifecycle) {
+        if (!running) {
+            throw new IllegalStateException("Ingestion pipeline is shut down");
+        }
+        Shard shard = shardOf(sessionId);
+        long sequence = shard.claimed.getAndIncrement();
+        shard.awaitCompleted(sequence - shard.slots.length);
+
+        QueuedEvent slot = shard.slots[(int) (sequence & shard.mask)];
+        slot.sessionId = sessionId;
+        slot.eventType = eventType;
+        slot.message = message;
+        slot.severity = severity;
+        slot.clientSequence = clientSequence;
+        slot.timestamp = timestamp;
+        slot.lifecycle = lifecycle;
+        slot.sequence = sequence;
+
+        if (shard.sleeping) {
+            LockSupport.unpark(shard.thread);
+        }
+        return sequence;
+    }
+
+    /**
+     * Wait until the batch holding the event published under {@code sequence} has been written
+     *
+     * @throws EventNotStoredException when the writer failed to store or journal the event
+     */
+    void awaitStored(String sessionId, long sequence) {
+        Shard shard = shardOf(sessionId);
+        shard.awaitCompleted(sequence);
+        Failure failure = shard.slots[(int) (sequence & shard.mask)].failure;
+        if (failure != null && failure.sequence == sequence) {
+            throw new EventNotStoredException(sessionId, failure.cause);
+        }
+    }
+
+    /**
+     * Events published but not yet written, across all shards
+     */
+    long backlog() {
+        long total = 0;
+        for (Shard shard : shards) {
+            total += shard.claimed.get() - 1 - shard.completed;
+        }
+        return total;
+    }
+
+    /**
+     * Write what has been published and stop the writer threads
+     */
+    void close() {
+        running = false;
+        for (Shard shard : shards) {
+            LockSupport.unpark(shard.thread);
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Shard shardOf(String sessionId) {
+        return shards[(sessionId.hashCode() & Integer.MAX_VALUE) % shards.length];
+    }
+
+    private final class Shard implements Runnable {
+        private final QueuedEvent[] slots;
+        private final long mask;
+        private final BatchWriter writer;
+        private final Thread thread;
+        // Next sequence a producer will take
+        private final AtomicLong claimed = new AtomicLong();
+        // Last sequence written; its slot and every one before it may be reused
+        private volatile long completed = -1;
+        private volatile boolean sleeping;
+
+        private Shard(int index, int ringSize, BatchWriter writer) {
+            this.slots = new QueuedEvent[ringSize];
+            for (int i = 0; i < ringSize; i++) {
+                slots[i] = new QueuedEvent();
+            }
+            this.mask = ringSize - 1;
+            this.writer = writer;
+            this.thread = new Thread(this, "ingest-writer-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<QueuedEvent> batch = new ArrayList<>(slots.length);
+            while (true) {
+                long next = completed + 1;
+                if (!isPublished(next)) {
+                    if (!running) {
+                        return;
+                    }
+                    // Announce the sleep before the last check, so a publish in between unparks us
+                    sleeping = true;
+                    if (!isPublished(next) && running) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    sleeping = false;
+                    continue;
+                }
+
+                long last = next;
+                while (last - next + 1 < slots.length && isPublished(last + 1)) {
+                    last++;
+                }
+                for (long sequence = next; sequence <= last; sequence++) {
+                    batch.add(slots[(int) (sequence & mask)]);
+                }
+                try {
+                    writer.write(batch);
+                } catch (RuntimeException e) {
+                    log.error("Ingestion writer {} failed to store {} events", thread.getName(), batch.size(), e);
+                    for (QueuedEvent slot : batch) {
+                        slot.failed(e);
+                    }
+                }
+                for (QueuedEvent slot : batch) {
+                    slot.clear();
+                }
+                batch.clear();
+                completed = last;
+            }
+        }
+
+        private boolean isPublished(long sequence) {
+            return slots[(int) (sequence & mask)].sequence == sequence;
+        }
+
+        private void awaitCompleted(long sequence) {
+            for (int attempt = 0; completed < sequence; attempt++) {
+                if (attempt < SPINS) {
+                    Thread.onSpinWait();
+                } else if (attempt < SPINS + YIELDS) {
+                    Thread.yield();
+                } else {
+                    if (!thread.isAlive()) {
+                        throw new IllegalStateException("Ingestion pipeline is shut down");
+                    }
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.EventType;
+import com.tutedude.proctoring.model.Severity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Meters for the proctoring hot paths, exported through {@code /actuator/prometheus}.
+ *
+ * Every meter the request path touches is registered up front, so recording is a
+ * field read and an atomic add with no registry lookup or tag allocation. Event
+ * counters are indexed by event type and severity ordinal; values outside the enums
+ * share an {@code OTHER} tag so client-supplied strings cannot blow up cardinality.
+ */
+@Component
+public class ProctoringMetrics {
+
+    static final String OTHER = "OTHER";
+    private static final int OTHER_TYPE = EventType.count();
+    private static final int OTHER_SEVERITY = Severity.values().length;
+
+    private final MeterRegistry registry;
+    private final Timer startSession;
+    private final Timer endSession;
+    private final Timer addEvent;
+    private final Timer addEventBatch;
+    private final Timer generateReport;
+    private final DistributionSummary batchSize;
+    // [type ordinal or OTHER][severity ordinal or OTHER]
+    private final Counter[][] events;
+
+    public ProctoringMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.startSession = timer("proctoring.session.start", "Time to start a session");
+        this.endSession = timer("proctoring.session.end", "Time to end a session");
+        this.addEvent = Timer.builder("proctoring.event.add")
+                .description("Time to record detection events")
+                .tag("mode", "single")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.addEventBatch = Timer.builder("proctoring.event.add")
+                .description("Time to record detection events")
+                .tag("mode", "batch")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.generateReport = timer("proctoring.report.generate", "Time to generate a session report");
+        this.batchSize = DistributionSummary.builder("proctoring.event.batch.size")
+                .description("Events per batch request")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        EventType[] types = EventType.values();
+        Severity[] severities = Severity.values();
+        this.events = new Counter[types.length + 1][severities.length + 1];
+        for (int t = 0; t <= types.length; t++) {
+            for (int s = 0; s <= severities.length; s++) {
+                events[t][s] = Counter.builder("proctoring.events")
+                        .description("Detection events recorded")
+                        .tag("type", t < types.length ? types[t].name() : OTHER)
+                        .tag("severity", s < severities.length ? severities[s].name() : OTHER)
+                        .register(registry);
+            }
+        }
+    }
+
+    public void recordStartSession(long nanos) {
+        startSession.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordEndSession(long nanos) {
+        endSession.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAddEvent(long nanos) {
+        addEvent.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAddEventBatch(long nanos, int events) {
+        addEventBatch.record(nanos, TimeUnit.NANOSECONDS);
+        batchSize.record(events);
+    }
+
+    public void recordGenerateReport(long nanos) {
+        generateReport.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Count one recorded event by type and severity
+     */
+    public void countEvent(String eventType, String severity) {
+        EventType type = EventType.fromName(eventType);
+        Severity level = Severity.fromName(severity);
+        events[type != null ? type.ordinal() : OTHER_TYPE][level != null ? level.ordinal() : OTHER_SEVERITY].increment();
+    }
+
+    /**
+     * Register a gauge sampled from {@code source} at scrape time
+     */
+    public <T> void gauge(String name, String description, T source, ToDoubleFunction<T> value) {
+        Gauge.builder(name, source, value).description(description).register(registry);
+    }
+
+    /**
+     * Register a monotonic counter maintained by {@code source}
+     */
+    public <T> void counter(String name, String description, T source, ToDoubleFunction<T> value) {
+        FunctionCounter.builder(name, source, value).description(description).register(registry);
+    }
+
+    private Timer timer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -1,160 +1,1095 @@
 package com.tutedude.proctoring.service;
 
+import com.tutedude.proctoring.model.CursorPage;
 import com.tutedude.proctoring.model.DetectionEvent;
+import com.tutedude.proctoring.model.EventIngestionResult;
 import com.tutedude.proctoring.model.InterviewSession;
 import com.tutedude.proctoring.model.ProctoringReport;
+import com.tutedude.proctoring.model.ScoringPolicyDefinition;
+import com.tutedude.proctoring.model.SessionSnapshot;
+import com.tutedude.proctoring.model.SessionStatus;
+import com.tutedude.proctoring.model.SessionSummary;
+import com.tutedude.proctoring.model.SessionTimeline;
+import com.tutedude.proctoring.model.TimelineBucket;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 @Service
 public class ProctoringService {
 
+    private static final Logger log = LoggerFactory.getLogger(ProctoringService.class);
+
     // In-memory storage for demo purposes
     // In production, use a database
     private final Map<String, InterviewSession> sessions = new ConcurrentHashMap<>();
-    private final Map<String, List<DetectionEvent>> sessionEvents = new ConcurrentHashMap<>();
+    private final Map<String, SessionEventLog> sessionEvents = new ConcurrentHashMap<>();
+    private final Map<String, SessionAggregate> sessionAggregates = new ConcurrentHashMap<>();
+    // Sessions by start time, status and candidate, kept in step with every transition
+    private final SessionIndex sessionIndex = new SessionIndex();
+    // Idle-timeout deadlines of active sessions
+    private final SessionExpiryQueue expiryQueue = new SessionExpiryQueue();
+
+    // Admission control: sessions holding one of the max-concurrent-sessions slots
+    private final Set<String> admittedSessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger admittedCount = new AtomicInteger();
+
+    private final AtomicLong timedOutSessions = new AtomicLong();
+    private final AtomicLong evictedSessions = new AtomicLong();
+    private final AtomicLong rejectedSessions = new AtomicLong();
+    // Detections folded into an existing run instead of being stored
+    private final AtomicLong coalescedEvents = new AtomicLong();
+
+    // Open runs of each session while coalescing is on
+    private final Map<String, EventCoalescer> sessionCoalescers = new ConcurrentHashMap<>();
+
+    // Authoritative lifecycle state of each session, gating every append
+    private final Map<String, SessionLifecycle> sessionLifecycles = new ConcurrentHashMap<>();
+
+    // Client sequence numbers accepted by sessions whose clients send them
+    private final Map<String, SequenceWindow> sessionSequences = new ConcurrentHashMap<>();
+    // Retried events acknowledged without being stored again
+    private final AtomicLong duplicateEvents = new AtomicLong();
+
+    @Value("${app.proctoring.session-timeout-minutes:120}")
+    private long sessionTimeoutMinutes;
+
+    // Zero or less disables the limit
+    @Value("${app.proctoring.max-concurrent-sessions:100}")
+    private int maxConcurrentSessions;
+
+    // Ended sessions are evicted this long after they started
+    @Value("${app.proctoring.cleanup-interval-hours:24}")
+    private long cleanupIntervalHours;
+
+    private int evictionBatchSize;
+
+    // Log one in this many event ingestion calls (1 logs all, 0 logs none)
+    @Value("${app.proctoring.logging.event-sample-rate:1000}")
+    private int eventLogSampleRate;
+
+    // Repeats of the same type and severity within this window become one event (0 disables coalescing)
+    @Value("${app.proctoring.coalescing.window-ms:0}")
+    private long coalescingWindowMs;
+
+    // Whether a coalesced run counts once towards totals and score, instead of once per occurrence
+    private boolean scoreRuns;
+
+    // Re-scores sessions in parallel after a scoring policy changes
+    private ForkJoinPool rescorePool;
+
+    // sync stores each event on the request thread; async queues it for a shard writer
+    @Value("${app.proctoring.ingestion.mode:sync}")
+    private String ingestionMode;
+
+    // Writer threads in async mode (0 uses one per CPU)
+    @Value("${app.proctoring.ingestion.shards:0}")
+    private int ingestionShards;
+
+    // Slots per shard in async mode; a power of two
+    @Value("${app.proctoring.ingestion.ring-size:4096}")
+    private int ingestionRingSize;
+
+    // In async mode, acknowledge an event only once it is stored and forced to the journal
+    @Value("${app.proctoring.ingestion.wait-for-durable:false}")
+    private boolean waitForDurable;
+
+    // Null in sync mode
+    private IngestionPipeline ingestionPipeline;
+
+    // Client sequence numbers remembered per session below the highest one, a multiple of 64
+    @Value("${app.proctoring.ingestion.dedup-window:256}")
+    private int dedupWindow;
+
+    @Autowired
+    private EventIdGenerator eventIdGenerator;
+
+    @Autowired
+    private EventJournal eventJournal;
+
+    @Autowired
+    private SessionEventStream eventStream;
+
+    @Autowired
+    private ProctoringMetrics metrics;
+
+    @Autowired
+    private SessionJsonWriter jsonWriter;
+
+    @Autowired
+    private ScoringPolicies scoringPolicies;
+
+    @Autowired
+    private ReportCache reportCache;
+
+    @Autowired
+    private ColdSessionStore coldStore;
+
+    @Value("${app.proctoring.coalescing.score-by:occurrences}")
+    void setCoalescingScoreBy(String scoreBy) {
+        if ("runs".equalsIgnoreCase(scoreBy)) {
+            scoreRuns = true;
+        } else if ("occurrences".equalsIgnoreCase(scoreBy)) {
+            scoreRuns = false;
+        } else {
+            throw new IllegalArgumentException("Unknown coalescing score-by: " + scoreBy
+                    + " (expected occurrences or runs)");
+        }
+    }
+
+    // Each eviction pass stops at a short batch, so a non-positive size would never finish
+    @Value("${app.proctoring.eviction.batch-size:500}")
+    void setEvictionBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Eviction batch size must be positive: " + batchSize);
+        }
+        evictionBatchSize = batchSize;
+    }
+
+    // Zero or less uses one thread per CPU
+    @Value("${app.proctoring.scoring.rescore-threads:0}")
+    void setRescoreThreads(int threads) {
+        rescorePool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PostConstruct
+    public void startIngestion() {
+        if ("sync".equalsIgnoreCase(ingestionMode)) {
+            return;
+        }
+        if (!"async".equalsIgnoreCase(ingestionMode)) {
+            throw new IllegalArgumentException("Unknown ingestion mode: " + ingestionMode + " (expected sync or async)");
+        }
+        int shards = ingestionShards > 0 ? ingestionShards : Runtime.getRuntime().availableProcessors();
+        ingestionPipeline = new IngestionPipeline(shards, ingestionRingSize, this::storeQueued);
+        metrics.gauge("proctoring.ingestion.backlog", "Detection events queued but not yet stored",
+                ingestionPipeline, IngestionPipeline::backlog);
+        log.info("Async ingestion on {} shards of {} slots (wait for durable: {})",
+                shards, ingestionRingSize, waitForDurable);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ingestionPipeline != null) {
+            ingestionPipeline.close();
+        }
+        rescorePool.shutdownNow();
+    }
+
+    /**
+     * Whether {@link #addDetectionEvent} returns before the event is stored
+     */
+    public boolean acknowledgesBeforeStored() {
+        return ingestionPipeline != null && !waitForDurable;
+    }
+
+    /**
+     * Rebuild sessions and events from the journal on startup
+     */
+    @PostConstruct
+    public void recoverFromJournal() {
+        if (!eventJournal.isEnabled()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        long records = eventJournal.replay(new EventJournal.ReplayHandler() {
+            @Override
+            public void sessionStarted(String sessionId, String candidateName, long startMillis) {
+                InterviewSession session = new InterviewSession(sessionId, candidateName);
+                session.setStartTime(SessionEventLog.toLocalDateTime(startMillis));
+                // Recovered sessions are admitted even past the limit; their idle timeout restarts now
+                admittedCount.incrementAndGet();
+                registerSession(session);
+            }
+
+            @Override
+            public void eventAppended(String sessionId, long id, String eventType, String message,
+                                      String severity, long timestampMillis) {
+                SessionEventLog events = sessionEvents.get(sessionId);
+                if (events != null) {
+                    events.append(id, eventType, message, severity, timestampMillis);
+                    sessionAggregates.get(sessionId).record(eventType, severity, timestampMillis);
+                }
+                eventIdGenerator.advancePast(id);
+            }
+
+            @Override
+            public void eventExtended(String sessionId, int index, long endMillis, int occurrences) {
+                SessionEventLog events = sessionEvents.get(sessionId);
+                if (events == null || index >= events.size()) {
+                    return;
+                }
+                int previous = events.occurrences(index);
+                events.extend(index, endMillis, occurrences);
+                if (!scoreRuns) {
+                    // Occurrences between journal records are counted at the latest end time
+                    DetectionEvent event = events.snapshot().get(index);
+                    SessionAggregate aggregate = sessionAggregates.get(sessionId);
+                    for (int i = previous; i < occurrences; i++) {
+                        aggregate.record(event.getEventType(), event.getSeverity(), endMillis);
+                    }
+                }
+            }
+
+            @Override
+            public void sessionPolicyAssigned(String sessionId, String policyName) {
+                InterviewSession session = sessions.get(sessionId);
+                if (session == null) {
+                    return;
+                }
+                ScoringPolicy policy = scoringPolicies.find(policyName);
+                if (policy == null) {
+                    log.warn("Scoring policy {} of session {} is no longer configured, using the default",
+                            policyName, sessionId);
+                    return;
+                }
+                session.setScoringPolicy(policyName);
+                sessionAggregates.get(sessionId).rescore(policy, eventLog(sessionId), scoreRuns);
+            }
+
+            @Override
+            public void sequencesAccepted(String sessionId, long[] sequences) {
+                if (!sessions.containsKey(sessionId)) {
+                    return;
+                }
+                SequenceWindow window = sequenceWindow(sessionId);
+                for (long sequence : sequences) {
+                    window.accept(sequence);
+                }
+            }
+
+            @Override
+            public void sessionEnded(String sessionId, String status, long endMillis, int durationInSeconds) {
+                InterviewSession session = sessions.get(sessionId);
+                if (session != null) {
+                    String previousStatus = session.getStatus();
+                    session.setEndTime(SessionEventLog.toLocalDateTime(endMillis));
+                    session.setDurationInSeconds(durationInSeconds);
+                    session.setStatus(status);
+                    sessionLifecycles.get(sessionId).finish(SessionStatus.valueOf(status));
+                    sessionIndex.statusChanged(session, previousStatus);
+                    releaseAdmission(sessionId);
+                    archiveEvents(sessionId);
+                }
+            }
+
+            @Override
+            public void sessionDeleted(String sessionId) {
+                removeSession(sessionId);
+            }
+        });
+
+        log.info("Recovered {} sessions from {} journal records in {} ms",
+                sessions.size(), records, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Register gauges and counters that are read from the session store at scrape time
+     */
+    @PostConstruct
+    public void registerMetrics() {
+        metrics.gauge("proctoring.sessions.active", "Sessions currently active",
+                sessionIndex, index -> index.count("ACTIVE"));
+        metrics.gauge("proctoring.sessions.stored", "Sessions held in memory",
+                sessions, Map::size);
+        metrics.gauge("proctoring.events.buffered", "Detection events held in memory",
+                this, service -> service.sessionEvents.values().stream().mapToLong(SessionEventLog::size).sum());
+        metrics.gauge("proctoring.events.store.bytes", "Estimated heap used by the event store",
+                this, service -> service.sessionEvents.values().stream().mapToLong(SessionEventLog::estimatedBytes).sum());
+        metrics.counter("proctoring.sessions.timed.out", "Active sessions terminated after going idle",
+                timedOutSessions, AtomicLong::get);
+        metrics.counter("proctoring.sessions.evicted", "Ended sessions evicted by age",
+                evictedSessions, AtomicLong::get);
+        metrics.counter("proctoring.sessions.rejected", "Session starts rejected by admission control",
+                rejectedSessions, AtomicLong::get);
+        metrics.counter("proctoring.events.coalesced", "Detections merged into an existing run",
+                coalescedEvents, AtomicLong::get);
+        metrics.counter("proctoring.events.duplicates", "Retried events acknowledged without being stored again",
+                duplicateEvents, AtomicLong::get);
+    }
 
     /**
      * Start a new interview session
      */
     public String startSession(String candidateName) {
+        return startSession(candidateName, null);
+    }
+
+    /**
+     * Start a new interview session scored under the named policy, or the default one when null
+     */
+    public String startSession(String candidateName, String scoringPolicy) {
+        long begin = System.nanoTime();
         if (candidateName == null || candidateName.trim().isEmpty()) {
             throw new IllegalArgumentException("Candidate name cannot be null or empty");
         }
-
+        ScoringPolicy policy = scoringPolicies.resolve(scoringPolicy);
         String sessionId = generateSessionId();
+        // Rejected before any state changes, as the journal could not record it
+        eventJournal.checkSessionStart(sessionId, candidateName.trim());
+
+        acquireAdmission();
         InterviewSession session = new InterviewSession(sessionId, candidateName.trim());
-        sessions.put(sessionId, session);
-        sessionEvents.put(sessionId, new ArrayList<>());
+        session.setScoringPolicy(policy.getName());
+        registerSession(session);
+        eventJournal.sessionStarted(sessionId, session.getCandidateName(),
+                SessionEventLog.toEpochMillis(session.getStartTime()));
+        if (scoringPolicy != null) {
+            eventJournal.sessionPolicyAssigned(sessionId, policy.getName());
+        }
 
-        System.out.println("Started new interview session: " + sessionId + " for candidate: " + candidateName);
+        log.info("Started new interview session: {} for candidate: {}", sessionId, session.getCandidateName());
+        metrics.recordStartSession(System.nanoTime() - begin);
         return sessionId;
     }
 
     /**
-     * End an interview session
+     * Keep an active session from timing out while its client has nothing to report;
+     * false when the session does not exist or has already ended
      */
-    public InterviewSession endSession(String sessionId) {
+    public boolean heartbeat(String sessionId) {
         InterviewSession session = sessions.get(sessionId);
-        if (session == null) {
+        SessionAggregate aggregate = sessionAggregates.get(sessionId);
+        if (session == null || aggregate == null || !"ACTIVE".equals(session.getStatus())) {
+            return false;
+        }
+        aggregate.touch();
+        return true;
+    }
+
+    /**
+     * End an interview session. Events still being added when this is called are stored
+     * before it returns, and none are accepted after; ending a session that is no longer
+     * active changes nothing.
+     */
+    public SessionSnapshot endSession(String sessionId) {
+        long begin = System.nanoTime();
+        InterviewSession session = sessions.get(sessionId);
+        SessionLifecycle lifecycle = sessionLifecycles.get(sessionId);
+        if (session == null || lifecycle == null) {
             throw new IllegalArgumentException("Session not found: " + sessionId);
         }
+        if (!lifecycle.seal()) {
+            return snapshot(session);
+        }
 
+        String previousStatus = session.getStatus();
         session.endSession();
-        
-        // Add all events to the session
-        List<DetectionEvent> events = sessionEvents.get(sessionId);
-        if (events != null) {
-            session.setDetectionEvents(new ArrayList<>(events));
-        }
+        lifecycle.finish(SessionStatus.COMPLETED);
+        sessionFinished(session, previousStatus);
 
-        System.out.println("Ended interview session: " + sessionId);
-        return session;
+        // Sealed, so this snapshot holds every event the session will ever have. Taken from
+        // the live log before it is archived, so ending never decodes the block it just
+        // wrote; the report is built and cached by the first generateReport instead
+        SessionSnapshot ended = snapshot(session);
+        archiveEvents(sessionId);
+
+        log.info("Ended interview session: {}", sessionId);
+        metrics.recordEndSession(System.nanoTime() - begin);
+        return ended;
     }
 
     /**
      * Add a detection event to a session
      */
     public void addDetectionEvent(String sessionId, String eventType, String message, String severity) {
-        InterviewSession session = sessions.get(sessionId);
-        if (session == null) {
-            throw new IllegalArgumentException("Session not found: " + sessionId);
+        addDetectionEvent(sessionId, eventType, message, severity, null);
+    }
+
+    /**
+     * Add a detection event to a session, once per client {@code sequence} number when one
+     * is given. Returns false, storing nothing, for a retry of an event already accepted.
+     * In async ingestion mode the event is queued and stored shortly after, unless
+     * wait-for-durable is set; either way, ending the session stores it first.
+     *
+     * @throws StaleSequenceException when the sequence is too old to tell whether it is a retry
+     * @throws EventNotStoredException when wait-for-durable is set and the queued event could
+     *         not be stored or journaled
+     */
+    public boolean addDetectionEvent(String sessionId, String eventType, String message, String severity,
+                                     Long sequence) {
+        long begin = System.nanoTime();
+        // Too large for the journal: turned away before anything is claimed or stored
+        eventJournal.checkEvent(eventType, message, severity);
+        if (ingestionPipeline != null) {
+            boolean queued = enqueueDetectionEvent(sessionId, eventType, message, severity, sequence);
+            metrics.recordAddEvent(System.nanoTime() - begin);
+            return queued;
+        }
+        SessionLifecycle lifecycle = enterAppend(sessionId);
+        try {
+            if (sequence != null && !claimSequence(sessionId, sequence)) {
+                return false;
+            }
+            long timestamp = System.currentTimeMillis();
+            SessionEventLog events = sessionEvents.computeIfAbsent(sessionId, k -> new SessionEventLog(sessionId));
+            SessionAggregate aggregate = sessionAggregates.computeIfAbsent(sessionId, k -> new SessionAggregate());
+            aggregate.recordLock.readLock().lock();
+            try {
+                if (appendOrCoalesce(sessionId, events, eventType, message, severity, timestamp) || !scoreRuns) {
+                    aggregate.record(eventType, severity, timestamp);
+                }
+            } catch (RuntimeException e) {
+                // Not stored, so a retry under the same sequence must be accepted
+                if (sequence != null) {
+                    releaseSequences(sessionId, new long[] { sequence }, 1);
+                }
+                throw e;
+            } finally {
+                aggregate.recordLock.readLock().unlock();
+            }
+            if (sequence != null) {
+                eventJournal.sequencesAccepted(sessionId, new long[] { sequence }, 1);
+            }
+        } finally {
+            lifecycle.exit();
+        }
+        eventStream.eventsAppended(sessionId);
+        metrics.countEvent(eventType, severity);
+        
+        if (sampleEventLog()) {
+            log.info("Added detection event to session {}: {} - {} (sampled 1/{})",
+                    sessionId, eventType, severity, eventLogSampleRate);
         }
+        metrics.recordAddEvent(System.nanoTime() - begin);
+        return true;
+    }
+
+    private boolean enqueueDetectionEvent(String sessionId, String eventType, String message, String severity,
+                                          Long clientSequence) {
+        // Rejected here because the writer can no longer report it to the caller
+        if (eventType == null || eventType.trim().isEmpty()) {
+            throw new IllegalArgumentException("Event type cannot be null or empty");
+        }
+        // Left by the writer once the event is stored, so sealing the session waits for the queue
+        SessionLifecycle lifecycle = enterAppend(sessionId);
+        long sequence;
+        boolean claimed = false;
+        try {
+            // Claimed before queueing, so a retry arriving while the original waits is caught
+            if (clientSequence != null) {
+                if (!claimSequence(sessionId, clientSequence)) {
+                    lifecycle.exit();
+                    return false;
+                }
+                claimed = true;
+            }
+            sequence = ingestionPipeline.publish(sessionId, eventType, message, severity,
+                    clientSequence != null ? clientSequence : -1, System.currentTimeMillis(), lifecycle);
+        } catch (RuntimeException e) {
+            if (claimed) {
+                releaseSequences(sessionId, new long[] { clientSequence }, 1);
+            }
+            lifecycle.exit();
+            throw e;
+        }
+        if (waitForDurable) {
+            ingestionPipeline.awaitStored(sessionId, sequence);
+        }
+
+        if (sampleEventLog()) {
+            log.info("Queued detection event for session {}: {} - {} (sampled 1/{})",
+                    sessionId, eventType, severity, eventLogSampleRate);
+        }
+        return true;
+    }
 
-        if (!"ACTIVE".equals(session.getStatus())) {
+    /**
+     * Record that the session's client sent an event under {@code sequence}; false when
+     * it already had
+     */
+    private boolean claimSequence(String sessionId, long sequence) {
+        SequenceWindow window = sequenceWindow(sessionId);
+        return switch (window.accept(sequence)) {
+            case ACCEPTED -> true;
+            case DUPLICATE -> {
+                duplicateEvents.incrementAndGet();
+                yield false;
+            }
+            case STALE -> throw new StaleSequenceException(sessionId, sequence, window.highest(), window.size());
+        };
+    }
+
+    /**
+     * Give back sequences claimed for events that were not stored after all
+     */
+    private void releaseSequences(String sessionId, long[] sequences, int count) {
+        SequenceWindow window = sessionSequences.get(sessionId);
+        if (window != null) {
+            for (int i = 0; i < count; i++) {
+                window.release(sequences[i]);
+            }
+        }
+    }
+
+    private SequenceWindow sequenceWindow(String sessionId) {
+        return sessionSequences.computeIfAbsent(sessionId, k -> new SequenceWindow(dedupWindow));
+    }
+
+    /**
+     * Store a batch taken off an ingestion ring: one append and one journal write per
+     * session, then a single force when acknowledgements wait for it
+     */
+    private void storeQueued(List<IngestionPipeline.QueuedEvent> batch) {
+        Map<String, List<IngestionPipeline.QueuedEvent>> bySession = new LinkedHashMap<>();
+        for (IngestionPipeline.QueuedEvent queued : batch) {
+            bySession.computeIfAbsent(queued.sessionId, k -> new ArrayList<>()).add(queued);
+        }
+        for (Map.Entry<String, List<IngestionPipeline.QueuedEvent>> entry : bySession.entrySet()) {
+            String sessionId = entry.getKey();
+            List<IngestionPipeline.QueuedEvent> queued = entry.getValue();
+            List<DetectionEvent> events = new ArrayList<>(queued.size());
+            for (IngestionPipeline.QueuedEvent q : queued) {
+                DetectionEvent event = new DetectionEvent(q.eventType, q.message, q.severity, sessionId);
+                event.setTimestamp(SessionEventLog.toLocalDateTime(q.timestamp));
+                event.setSequence(q.clientSequence >= 0 ? q.clientSequence : null);
+                events.add(event);
+            }
+            try {
+                appendBatch(sessionId, events, true);
+            } catch (RuntimeException e) {
+                log.error("Failed to store {} queued events of session {}", events.size(), sessionId, e);
+                // Their sequences were released; producers waiting for durability report the failure
+                for (IngestionPipeline.QueuedEvent q : queued) {
+                    q.failed(e);
+                }
+            } finally {
+                for (IngestionPipeline.QueuedEvent q : queued) {
+                    q.lifecycle.exit();
+                }
+            }
+            eventStream.eventsAppended(sessionId);
+        }
+        if (waitForDurable) {
+            // Thrown to the pipeline, which fails the whole batch for its waiting producers
+            eventJournal.sync();
+        }
+    }
+
+    /**
+     * Add a batch of detection events to a session.
+     * The session is validated once and all accepted events are appended in a single operation.
+     */
+    public List<EventIngestionResult> addDetectionEvents(String sessionId, List<DetectionEvent> events) {
+        long begin = System.nanoTime();
+        SessionLifecycle lifecycle = enterAppend(sessionId);
+        List<EventIngestionResult> results;
+        try {
+            results = appendBatch(sessionId, events, false);
+        } finally {
+            lifecycle.exit();
+        }
+        eventStream.eventsAppended(sessionId);
+
+        if (sampleEventLog()) {
+            log.info("Added {} of {} detection events to session {} (sampled 1/{})",
+                    results.stream().filter(r -> "ACCEPTED".equals(r.getStatus())).count(),
+                    events.size(), sessionId, eventLogSampleRate);
+        }
+        metrics.recordAddEventBatch(System.nanoTime() - begin, events.size());
+        return results;
+    }
+
+    /**
+     * Admit an append to an active session; the caller must {@link SessionLifecycle#exit} it
+     */
+    private SessionLifecycle enterAppend(String sessionId) {
+        SessionLifecycle lifecycle = sessionLifecycles.get(sessionId);
+        if (lifecycle == null) {
+            throw new IllegalArgumentException("Session not found: " + sessionId);
+        }
+        if (!lifecycle.tryEnter()) {
             throw new IllegalStateException("Cannot add events to inactive session: " + sessionId);
         }
+        return lifecycle;
+    }
 
-        DetectionEvent event = new DetectionEvent(eventType, message, severity, sessionId);
-        event.setId(System.currentTimeMillis()); // Simple ID generation
-        
-        // Add to session events
-        sessionEvents.computeIfAbsent(sessionId, k -> new ArrayList<>()).add(event);
-        
-        System.out.println("Added detection event to session " + sessionId + ": " + eventType + " - " + severity);
+    /**
+     * Store a batch. Events {@code queued} on an ingestion ring were timestamped when
+     * received and had their sequence numbers claimed then; others are handled here.
+     */
+    private List<EventIngestionResult> appendBatch(String sessionId, List<DetectionEvent> events,
+                                                   boolean queued) {
+        SessionEventLog eventLog = sessionEvents.computeIfAbsent(sessionId, k -> new SessionEventLog(sessionId));
+        SessionAggregate aggregate = sessionAggregates.computeIfAbsent(sessionId, k -> new SessionAggregate());
+        EventCoalescer coalescer = coalescingWindowMs > 0
+                ? sessionCoalescers.computeIfAbsent(sessionId, k -> new EventCoalescer(coalescingWindowMs))
+                : null;
+
+        List<EventIngestionResult> results = new ArrayList<>(events.size());
+        List<DetectionEvent> accepted = new ArrayList<>(events.size());
+        // Client sequence numbers of the events stored or folded into a run
+        long[] sequences = null;
+        int sequenceCount = 0;
+        // Runs started by this batch, in the same order as accepted
+        List<EventCoalescer.Run> opened = new ArrayList<>();
+        boolean stored = false;
+        // Ingestion holds this from storing to recording, so a re-score never sees one without the other
+        aggregate.recordLock.readLock().lock();
+        try {
+            if (coalescer != null) {
+                coalescer.lock.lock();
+            }
+            // IDs are taken in this order, so they increase with position in the log
+            eventLog.appendLock.lock();
+            try {
+                for (int i = 0; i < events.size(); i++) {
+                    DetectionEvent request = events.get(i);
+                    if (request == null || request.getEventType() == null || request.getEventType().trim().isEmpty()) {
+                        results.add(EventIngestionResult.rejected(i, "Event type cannot be null or empty"));
+                        continue;
+                    }
+                    try {
+                        eventJournal.checkEvent(request.getEventType(), request.getMessage(), request.getSeverity());
+                    } catch (IllegalArgumentException e) {
+                        results.add(EventIngestionResult.rejected(i, e.getMessage()));
+                        continue;
+                    }
+                    Long sequence = request.getSequence();
+                    if (sequence != null) {
+                        if (!queued) {
+                            try {
+                                if (!claimSequence(sessionId, sequence)) {
+                                    results.add(EventIngestionResult.duplicate(i));
+                                    continue;
+                                }
+                            } catch (IllegalArgumentException e) {
+                                results.add(EventIngestionResult.rejected(i, e.getMessage()));
+                                continue;
+                            }
+                        }
+                        if (sequences == null) {
+                            sequences = new long[events.size()];
+                        }
+                        sequences[sequenceCount++] = sequence;
+                    }
+
+                    DetectionEvent event = new DetectionEvent(
+                            request.getEventType(), request.getMessage(), request.getSeverity(), sessionId);
+                    if (queued) {
+                        event.setTimestamp(request.getTimestamp());
+                    }
+                    long timestamp = SessionEventLog.toEpochMillis(event.getTimestamp());
+                    EventCoalescer.Run run = coalescer != null
+                            ? coalescer.match(event.getEventType(), event.getSeverity(), timestamp)
+                            : null;
+                    if (run != null) {
+                        // Runs started earlier in this batch are folded into their pending event instead
+                        if (run.getIndex() >= 0) {
+                            eventJournal.eventExtended(sessionId, run.getIndex(), timestamp, run.getOccurrences());
+                            eventLog.extend(run.getIndex(), timestamp, run.getOccurrences());
+                        }
+                        coalescedEvents.incrementAndGet();
+                        results.add(EventIngestionResult.accepted(i, run.getEventId()));
+                        if (!scoreRuns) {
+                            aggregate.record(event.getEventType(), event.getSeverity(), timestamp);
+                        }
+                        metrics.countEvent(event.getEventType(), event.getSeverity());
+                        continue;
+                    }
+
+                    event.setId(eventIdGenerator.nextId());
+                    accepted.add(event);
+                    results.add(EventIngestionResult.accepted(i, event.getId()));
+                    if (coalescer != null) {
+                        opened.add(coalescer.openPending(event, timestamp));
+                    }
+                }
+
+                // Journaled first, so a failed write leaves nothing stored for the retry to duplicate
+                eventJournal.eventsAppended(sessionId, accepted);
+                int start = eventLog.appendAll(accepted);
+                stored = true;
+                for (int k = 0; k < opened.size(); k++) {
+                    EventCoalescer.Run run = opened.get(k);
+                    run.stored(start + k);
+                    if (run.getOccurrences() > 1) {
+                        eventJournal.eventExtended(sessionId, start + k, run.getLastMillis(), run.getOccurrences());
+                    }
+                }
+                eventJournal.sequencesAccepted(sessionId, sequences, sequenceCount);
+            } catch (RuntimeException e) {
+                // Claimed here or when queued; a retry of events that were not stored must be accepted
+                if (!stored) {
+                    releaseSequences(sessionId, sequences, sequenceCount);
+                }
+                throw e;
+            } finally {
+                eventLog.appendLock.unlock();
+                if (coalescer != null) {
+                    coalescer.lock.unlock();
+                }
+            }
+
+            for (DetectionEvent event : accepted) {
+                aggregate.record(event.getEventType(), event.getSeverity(),
+                        SessionEventLog.toEpochMillis(event.getTimestamp()));
+                metrics.countEvent(event.getEventType(), event.getSeverity());
+            }
+        } finally {
+            aggregate.recordLock.readLock().unlock();
+        }
+        return results;
     }
 
     /**
-     * Get a specific session
+     * Get a snapshot of a session with the events recorded so far
      */
-    public InterviewSession getSession(String sessionId) {
+    public SessionSnapshot getSession(String sessionId) {
         InterviewSession session = sessions.get(sessionId);
-        if (session != null) {
-            // Add current events to session
-            List<DetectionEvent> events = sessionEvents.get(sessionId);
-            if (events != null) {
-                session.setDetectionEvents(new ArrayList<>(events));
-            }
+        return session != null ? snapshot(session) : null;
+    }
+
+    /**
+     * Point-in-time view of a session; copies no events and leaves the live session untouched
+     */
+    private SessionSnapshot snapshot(InterviewSession session) {
+        return new SessionSnapshot(session, () -> {
+            SessionEventLog events = eventLog(session.getSessionId());
+            return events != null ? events.snapshot() : List.of();
+        });
+    }
+
+    /**
+     * Subscribe to the live events of a session, starting at the given event index,
+     * or with the next event recorded when the index is negative
+     */
+    public SseEmitter streamSession(String sessionId, int fromIndex) {
+        InterviewSession session = sessions.get(sessionId);
+        SessionEventLog events = eventLog(sessionId);
+        SessionAggregate aggregate = sessionAggregates.get(sessionId);
+        if (session == null || events == null || aggregate == null) {
+            return null;
+        }
+
+        int size = events.size();
+        SseEmitter emitter = eventStream.subscribe(session, events, aggregate,
+                fromIndex < 0 ? size : Math.min(fromIndex, size));
+        // removeSession drops the session before closing its streams, so a removal that missed
+        // this subscriber has already made the session disappear here
+        if (sessions.get(sessionId) != session) {
+            eventStream.sessionRemoved(sessionId);
         }
-        return session;
+        return emitter;
     }
 
     /**
-     * Get all sessions
+     * Snapshots of all sessions
      */
-    public List<InterviewSession> getAllSessions() {
-        List<InterviewSession> allSessions = new ArrayList<>();
+    public List<SessionSnapshot> getAllSessions() {
+        List<SessionSnapshot> allSessions = new ArrayList<>();
         for (InterviewSession session : sessions.values()) {
-            // Add current events to each session
-            List<DetectionEvent> events = sessionEvents.get(session.getSessionId());
-            if (events != null) {
-                session.setDetectionEvents(new ArrayList<>(events));
-            }
-            allSessions.add(session);
+            allSessions.add(snapshot(session));
         }
         return allSessions;
     }
 
     /**
-     * Generate a proctoring report for a session
+     * List session summaries, newest first, one page at a time.
+     * Filters are optional; the cursor is the nextCursor of the previous page.
+     */
+    public CursorPage<SessionSummary> listSessions(String status, String candidateName, LocalDateTime from,
+                                                   LocalDateTime to, String cursor, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+
+        // Keyset range: [from, min(to, cursor)), walked from the top down
+        SessionKey lower = from != null ? new SessionKey(SessionEventLog.toEpochMillis(from), SessionKey.MIN_ID) : null;
+        SessionKey upper = to != null ? new SessionKey(SessionEventLog.toEpochMillis(to), SessionKey.MAX_ID) : null;
+        boolean upperInclusive = true;
+        if (cursor != null) {
+            SessionKey after = SessionKey.decode(cursor);
+            if (upper == null || after.compareTo(upper) <= 0) {
+                upper = after;
+                upperInclusive = false;
+            }
+        }
+
+        // Start from the most selective index; the other filter is checked per session
+        NavigableMap<SessionKey, InterviewSession> range = candidateName != null
+                ? sessionIndex.forCandidate(candidateName)
+                : status != null ? sessionIndex.withStatus(status) : sessionIndex.all();
+        if (lower != null && upper != null) {
+            if (lower.compareTo(upper) > 0) {
+                return new CursorPage<>(List.of(), null, limit);
+            }
+            range = range.subMap(lower, true, upper, upperInclusive);
+        } else if (lower != null) {
+            range = range.tailMap(lower, true);
+        } else if (upper != null) {
+            range = range.headMap(upper, upperInclusive);
+        }
+
+        List<SessionSummary> items = new ArrayList<>(Math.min(limit, 64));
+        SessionKey last = null;
+        for (Map.Entry<SessionKey, InterviewSession> entry : range.descendingMap().entrySet()) {
+            if (items.size() == limit) {
+                break;
+            }
+            InterviewSession session = entry.getValue();
+            if (!matches(session, status, candidateName)) {
+                continue;
+            }
+            items.add(summarize(session));
+            last = entry.getKey();
+        }
+
+        String nextCursor = items.size() == limit ? last.encode() : null;
+        return new CursorPage<>(items, nextCursor, limit);
+    }
+
+    /**
+     * Sessions with the given status (any when null) that started in {@code [from, to]},
+     * newest first
+     */
+    public List<InterviewSession> findSessions(String status, LocalDateTime from, LocalDateTime to) {
+        NavigableMap<SessionKey, InterviewSession> range = status != null ? sessionIndex.withStatus(status) : sessionIndex.all();
+        SessionKey lower = from != null ? new SessionKey(SessionEventLog.toEpochMillis(from), SessionKey.MIN_ID) : null;
+        SessionKey upper = to != null ? new SessionKey(SessionEventLog.toEpochMillis(to), SessionKey.MAX_ID) : null;
+        if (lower != null && upper != null) {
+            if (lower.compareTo(upper) > 0) {
+                return List.of();
+            }
+            range = range.subMap(lower, true, upper, true);
+        } else if (lower != null) {
+            range = range.tailMap(lower, true);
+        } else if (upper != null) {
+            range = range.headMap(upper, true);
+        }
+
+        List<InterviewSession> found = new ArrayList<>();
+        for (InterviewSession session : range.descendingMap().values()) {
+            if (matches(session, status, null)) {
+                found.add(session);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The session's report from its running counters, without copying its events into it.
+     * Returns null when the session no longer exists.
+     */
+    public ProctoringReport summaryReport(String sessionId) {
+        InterviewSession session = sessions.get(sessionId);
+        SessionAggregate aggregate = sessionAggregates.get(sessionId);
+        if (session == null || aggregate == null) {
+            return null;
+        }
+        return aggregate.toReport(new SessionSnapshot(session, List.of()));
+    }
+
+    /**
+     * List a session's events in the order they were recorded, one page at a time.
+     * The cursor is the index of the first event to return. Pages of an archived session
+     * decode only the part of its cold block that holds them.
+     */
+    public CursorPage<DetectionEvent> listEvents(String sessionId, String cursor, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        // The cold block is stored before the live log is dropped, so one of the two is found
+        SessionEventLog events = sessionEvents.get(sessionId);
+        int archived = events == null ? coldStore.count(sessionId) : -1;
+        if (events == null && archived < 0) {
+            return null;
+        }
+
+        int start = 0;
+        if (cursor != null) {
+            try {
+                start = Integer.parseInt(cursor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            if (start < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+
+        List<DetectionEvent> snapshot = events != null ? events.snapshot() : null;
+        int size = snapshot != null ? snapshot.size() : archived;
+        int end = (int) Math.min((long) start + limit, size);
+        List<DetectionEvent> items = List.of();
+        if (start < end) {
+            items = snapshot != null ? new ArrayList<>(snapshot.subList(start, end))
+                    : coldStore.events(sessionId, start, end);
+            if (items == null) {
+                // Deleted since the count
+                return null;
+            }
+        }
+        return new CursorPage<>(items, end < size ? Integer.toString(end) : null, limit);
+    }
+
+    /**
+     * Generate a proctoring report for a session. Reports of ended sessions are built once
+     * and then served from the report cache.
      */
     public ProctoringReport generateReport(String sessionId) {
+        long begin = System.nanoTime();
         InterviewSession session = sessions.get(sessionId);
         if (session == null) {
             throw new IllegalArgumentException("Session not found: " + sessionId);
         }
 
-        // Ensure session has all events
-        List<DetectionEvent> events = sessionEvents.get(sessionId);
-        if (events != null) {
-            session.setDetectionEvents(new ArrayList<>(events));
+        SessionAggregate aggregate = sessionAggregates.get(sessionId);
+        if (aggregate == null) {
+            // Deleted since the lookup above
+            throw new IllegalArgumentException("Session not found: " + sessionId);
         }
-
-        ProctoringReport report = new ProctoringReport(session);
+        ProctoringReport report = "ACTIVE".equals(session.getStatus())
+                ? aggregate.toReport(snapshot(session))
+                : reportCache.get(sessionId, aggregate.getScoringPolicy(), id -> aggregate.toReport(snapshot(session)));
         
-        System.out.println("Generated report for session: " + sessionId + 
-                          " - Integrity Score: " + report.getIntegrityScore());
+        log.debug("Generated report for session: {} - Integrity Score: {}", sessionId, report.getIntegrityScore());
         
+        metrics.recordGenerateReport(System.nanoTime() - begin);
         return report;
     }
 
+    /**
+     * Event counts of a session over time, at {@code 10s} or {@code 1m} resolution, optionally
+     * limited to buckets starting in {@code [from, to)}. Costs one pass over the buckets, however
+     * many events the session has. Returns null when the session does not exist.
+     */
+    public SessionTimeline getTimeline(String sessionId, String resolution, LocalDateTime from, LocalDateTime to) {
+        boolean fineGrained;
+        if ("10s".equals(resolution)) {
+            fineGrained = true;
+        } else if ("1m".equals(resolution)) {
+            fineGrained = false;
+        } else {
+            throw new IllegalArgumentException("Unsupported timeline resolution: " + resolution + " (use 10s or 1m)");
+        }
+        SessionAggregate aggregate = sessionAggregates.get(sessionId);
+        if (!sessions.containsKey(sessionId) || aggregate == null) {
+            return null;
+        }
+
+        List<TimelineBucket> buckets = aggregate.getTimeline(fineGrained,
+                from != null ? SessionEventLog.toEpochMillis(from) : Long.MIN_VALUE,
+                to != null ? SessionEventLog.toEpochMillis(to) : Long.MAX_VALUE);
+        return new SessionTimeline(sessionId, resolution, fineGrained ? 10 : 60, buckets);
+    }
+
+    /**
+     * Stream a session's report, events included, straight from its event log or cold block.
+     * Returns null when the session does not exist.
+     */
+    public StreamingResponseBody streamReport(String sessionId) {
+        InterviewSession session = sessions.get(sessionId);
+        SessionJsonWriter.EventSource events = eventSource(sessionId);
+        SessionAggregate aggregate = sessionAggregates.get(sessionId);
+        if (session == null || aggregate == null) {
+            return null;
+        }
+        return out -> jsonWriter.writeReport(out, session, events, aggregate);
+    }
+
+    /**
+     * Stream every session with its events as newline-delimited JSON, newest first,
+     * optionally only sessions with the given status
+     */
+    public StreamingResponseBody exportSessions(String status) {
+        Iterable<InterviewSession> source = (status != null ? sessionIndex.withStatus(status) : sessionIndex.all())
+                .descendingMap().values();
+        return out -> jsonWriter.writeSessions(out, source, this::eventSource);
+    }
+
     /**
      * Delete a session and its events
      */
     public boolean deleteSession(String sessionId) {
-        InterviewSession removedSession = sessions.remove(sessionId);
-        sessionEvents.remove(sessionId);
-        
-        boolean deleted = removedSession != null;
+        boolean deleted = removeSession(sessionId);
         if (deleted) {
-            System.out.println("Deleted session: " + sessionId);
+            eventJournal.sessionDeleted(sessionId);
+            log.info("Deleted session: {}", sessionId);
         }
         return deleted;
     }
 
+    /**
+     * Scoring policies by name, with defaults filled in
+     */
+    public Map<String, ScoringPolicyDefinition> getScoringPolicies() {
+        return scoringPolicies.definitions();
+    }
+
+    /**
+     * Compile and install a scoring policy, replacing any of the same name, then re-score
+     * every stored session that uses it. Returns the number of sessions re-scored.
+     */
+    public int updateScoringPolicy(String name, ScoringPolicyDefinition definition) {
+        long start = System.currentTimeMillis();
+        ScoringPolicy policy = scoringPolicies.put(name, definition);
+        int rescored = rescoreSessions(policy);
+        log.info("Installed scoring policy {} and re-scored {} sessions in {} ms",
+                name, rescored, System.currentTimeMillis() - start);
+        return rescored;
+    }
+
+    /**
+     * Move every session scored under a policy of this name to {@code policy}, in parallel
+     */
+    private int rescoreSessions(ScoringPolicy policy) {
+        List<String> affected = new ArrayList<>();
+        for (InterviewSession session : sessions.values()) {
+            if (policy.getName().equals(session.getScoringPolicy())) {
+                affected.add(session.getSessionId());
+            }
+        }
+        try {
+            rescorePool.submit(() -> affected.parallelStream().forEach(sessionId -> {
+                SessionAggregate aggregate = sessionAggregates.get(sessionId);
+                if (aggregate != null) {
+                    aggregate.rescore(policy, eventLog(sessionId), scoreRuns);
+                    reportCache.invalidate(sessionId);
+                    eventStream.scoreChanged(sessionId);
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while re-scoring sessions", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Re-scoring sessions failed", e.getCause());
+        }
+        return affected.size();
+    }
+
     /**
      * Get session statistics
      */
     public Map<String, Object> getSessionStatistics(String sessionId) {
         InterviewSession session = sessions.get(sessionId);
-        List<DetectionEvent> events = sessionEvents.get(sessionId);
+        SessionAggregate aggregate = sessionAggregates.get(sessionId);
         
         if (session == null) {
             return null;
@@ -165,27 +1100,224 @@ public class ProctoringService {
         stats.put("candidateName", session.getCandidateName());
         stats.put("status", session.getStatus());
         stats.put("startTime", session.getStartTime());
-        stats.put("endTime", session.getEndTime());
-        stats.put("totalEvents", events != null ? events.size() : 0);
-        
-        if (events != null) {
-            long dangerEvents = events.stream()
-                    .filter(e -> "DANGER".equalsIgnoreCase(e.getSeverity()))
-                    .count();
-            long warningEvents = events.stream()
-                    .filter(e -> "WARNING".equalsIgnoreCase(e.getSeverity()))
-                    .count();
-            
-            stats.put("dangerEvents", dangerEvents);
-            stats.put("warningEvents", warningEvents);
-        } else {
-            stats.put("dangerEvents", 0);
-            stats.put("warningEvents", 0);
+        if (session.getEndTime() != null) {
+            stats.put("endTime", session.getEndTime());
         }
+        stats.put("totalEvents", aggregate != null ? aggregate.getTotalEvents() : 0);
+        stats.put("dangerEvents", aggregate != null ? aggregate.getDangerEvents() : 0);
+        stats.put("warningEvents", aggregate != null ? aggregate.getWarningEvents() : 0);
+        stats.put("integrityScore", aggregate != null ? aggregate.getIntegrityScore() : 100);
+        stats.put("scoringPolicy", session.getScoringPolicy());
         
         return stats;
     }
 
+    private void registerSession(InterviewSession session) {
+        String sessionId = session.getSessionId();
+        sessions.put(sessionId, session);
+        sessionEvents.put(sessionId, new SessionEventLog(sessionId));
+        sessionLifecycles.put(sessionId, new SessionLifecycle());
+        ScoringPolicy policy = scoringPolicies.resolve(session.getScoringPolicy());
+        session.setScoringPolicy(policy.getName());
+        sessionAggregates.put(sessionId, new SessionAggregate(policy));
+        sessionIndex.add(session);
+        admittedSessions.add(sessionId);
+        if (sessionTimeoutMinutes > 0) {
+            expiryQueue.schedule(sessionId, System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(sessionTimeoutMinutes));
+        }
+    }
+
+    /**
+     * Bookkeeping shared by every way a session stops being active
+     */
+    private void sessionFinished(InterviewSession session, String previousStatus) {
+        String sessionId = session.getSessionId();
+        sessionIndex.statusChanged(session, previousStatus);
+        releaseAdmission(sessionId);
+        eventJournal.sessionEnded(sessionId, session.getStatus(),
+                SessionEventLog.toEpochMillis(session.getEndTime()), session.getDurationInSeconds());
+        eventStream.sessionEnded(sessionId);
+    }
+
+    /**
+     * A session's event log: the live one while it is hot, otherwise decoded from the cold
+     * tier. Null when the session has no events stored either way.
+     */
+    private SessionEventLog eventLog(String sessionId) {
+        SessionEventLog events = sessionEvents.get(sessionId);
+        return events != null ? events : coldStore.load(sessionId);
+    }
+
+    /**
+     * A session's events for streaming: the live log while it is hot, otherwise its cold
+     * block a chunk at a time, so writing an archived session never decodes it whole
+     */
+    private SessionJsonWriter.EventSource eventSource(String sessionId) {
+        SessionEventLog events = sessionEvents.get(sessionId);
+        if (events != null) {
+            return visitor -> events.forEach(0, events.size(), visitor);
+        }
+        return visitor -> coldStore.forEach(sessionId, visitor);
+    }
+
+    /**
+     * Move the events of a session that has stopped accepting them to the cold tier and
+     * release the live log. Stored before the live log is dropped, so readers always find
+     * one of the two.
+     */
+    private void archiveEvents(String sessionId) {
+        SessionEventLog events = sessionEvents.get(sessionId);
+        if (!coldStore.isEnabled() || events == null) {
+            return;
+        }
+        coldStore.archive(sessionId, events);
+        sessionEvents.remove(sessionId, events);
+        sessionCoalescers.remove(sessionId);
+        if (!sessions.containsKey(sessionId)) {
+            // Deleted while archiving
+            coldStore.remove(sessionId);
+        }
+    }
+
+    private void acquireAdmission() {
+        while (true) {
+            int current = admittedCount.get();
+            if (maxConcurrentSessions > 0 && current >= maxConcurrentSessions) {
+                rejectedSessions.incrementAndGet();
+                throw new SessionLimitExceededException(maxConcurrentSessions);
+            }
+            if (admittedCount.compareAndSet(current, current + 1)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Give back the session's slot; safe to call more than once per session
+     */
+    private void releaseAdmission(String sessionId) {
+        if (admittedSessions.remove(sessionId)) {
+            admittedCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Whether any per-session state is still held for the session
+     */
+    boolean holdsState(String sessionId) {
+        return sessions.containsKey(sessionId) || sessionEvents.containsKey(sessionId)
+                || sessionAggregates.containsKey(sessionId) || sessionCoalescers.containsKey(sessionId)
+                || sessionLifecycles.containsKey(sessionId) || sessionSequences.containsKey(sessionId);
+    }
+
+    /**
+     * The live event log of a session, or null once it has been archived or removed
+     */
+    SessionEventLog liveEvents(String sessionId) {
+        return sessionEvents.get(sessionId);
+    }
+
+    private boolean removeSession(String sessionId) {
+        // Turn away new appends and let those in progress finish first, or their computeIfAbsent
+        // calls would bring back the log and aggregate removed below
+        SessionLifecycle lifecycle = sessionLifecycles.get(sessionId);
+        if (lifecycle != null) {
+            if (lifecycle.seal()) {
+                lifecycle.finish(SessionStatus.TERMINATED);
+            } else {
+                // Ended, or being ended by another thread that may still be waiting on appends
+                lifecycle.drain();
+            }
+        }
+        InterviewSession removedSession = sessions.remove(sessionId);
+        sessionEvents.remove(sessionId);
+        sessionAggregates.remove(sessionId);
+        sessionCoalescers.remove(sessionId);
+        sessionLifecycles.remove(sessionId);
+        sessionSequences.remove(sessionId);
+        coldStore.remove(sessionId);
+        reportCache.invalidate(sessionId);
+        eventStream.sessionRemoved(sessionId);
+        releaseAdmission(sessionId);
+        if (removedSession != null) {
+            sessionIndex.remove(removedSession);
+        }
+        return removedSession != null;
+    }
+
+    /**
+     * Store a single detection as a new event, or fold it into the open run of the same
+     * type and severity when coalescing is on. Returns true when a new event was stored.
+     */
+    private boolean appendOrCoalesce(String sessionId, SessionEventLog events, String eventType, String message,
+                                     String severity, long timestamp) {
+        if (coalescingWindowMs <= 0) {
+            appendEvent(sessionId, events, eventType, message, severity, timestamp);
+            return true;
+        }
+
+        EventCoalescer coalescer = sessionCoalescers.computeIfAbsent(sessionId,
+                k -> new EventCoalescer(coalescingWindowMs));
+        coalescer.lock.lock();
+        try {
+            EventCoalescer.Run run = coalescer.match(eventType, severity, timestamp);
+            if (run != null) {
+                eventJournal.eventExtended(sessionId, run.getIndex(), timestamp, run.getOccurrences());
+                events.extend(run.getIndex(), timestamp, run.getOccurrences());
+                coalescedEvents.incrementAndGet();
+                return false;
+            }
+            events.appendLock.lock();
+            try {
+                long id = eventIdGenerator.nextId();
+                eventJournal.eventAppended(sessionId, id, eventType, message, severity, timestamp);
+                int index = events.append(id, eventType, message, severity, timestamp);
+                coalescer.open(eventType, severity, id, index, timestamp);
+            } finally {
+                events.appendLock.unlock();
+            }
+            return true;
+        } finally {
+            coalescer.lock.unlock();
+        }
+    }
+
+    /**
+     * Take the next ID and append under the log's append lock, so concurrent posts to one
+     * session store and journal their IDs in increasing order
+     */
+    private void appendEvent(String sessionId, SessionEventLog events, String eventType, String message,
+                             String severity, long timestamp) {
+        events.appendLock.lock();
+        try {
+            long id = eventIdGenerator.nextId();
+            eventJournal.eventAppended(sessionId, id, eventType, message, severity, timestamp);
+            events.append(id, eventType, message, severity, timestamp);
+        } finally {
+            events.appendLock.unlock();
+        }
+    }
+
+    /**
+     * Per-event logs are sampled; a thread-local draw keeps the check free of shared writes
+     */
+    private boolean sampleEventLog() {
+        return eventLogSampleRate > 0 && log.isInfoEnabled()
+                && (eventLogSampleRate == 1 || ThreadLocalRandom.current().nextInt(eventLogSampleRate) == 0);
+    }
+
+    private SessionSummary summarize(InterviewSession session) {
+        SessionAggregate aggregate = sessionAggregates.get(session.getSessionId());
+        return new SessionSummary(session,
+                aggregate != null ? aggregate.getTotalEvents() : 0,
+                aggregate != null ? aggregate.getIntegrityScore() : 100);
+    }
+
+    private static boolean matches(InterviewSession session, String status, String candidateName) {
+        return (status == null || status.equalsIgnoreCase(session.getStatus()))
+                && (candidateName == null || candidateName.trim().equalsIgnoreCase(session.getCandidateName()));
+    }
+
     /**
      * Generate a unique session ID
      */
@@ -200,43 +1332,134 @@ public class ProctoringService {
     public Map<String, Object> getSystemStatistics() {
         Map<String, Object> stats = new ConcurrentHashMap<>();
         stats.put("totalSessions", sessions.size());
-        
-        long activeSessions = sessions.values().stream()
-                .filter(s -> "ACTIVE".equals(s.getStatus()))
-                .count();
-        
-        long completedSessions = sessions.values().stream()
-                .filter(s -> "COMPLETED".equals(s.getStatus()))
-                .count();
-        
-        stats.put("activeSessions", activeSessions);
-        stats.put("completedSessions", completedSessions);
+        stats.put("activeSessions", sessionIndex.count("ACTIVE"));
+        stats.put("completedSessions", sessionIndex.count("COMPLETED"));
+        stats.put("terminatedSessions", sessionIndex.count("TERMINATED"));
+        stats.put("maxConcurrentSessions", maxConcurrentSessions);
+        stats.put("timedOutSessions", timedOutSessions.get());
+        stats.put("evictedSessions", evictedSessions.get());
+        stats.put("rejectedSessions", rejectedSessions.get());
+        stats.put("coalescedEvents", coalescedEvents.get());
+        stats.put("reportCacheHits", reportCache.hitCount());
+        stats.put("reportCacheMisses", reportCache.missCount());
+        stats.put("archivedSessions", coldStore.size());
         stats.put("timestamp", LocalDateTime.now());
         
         return stats;
     }
 
+    /**
+     * Scheduled eviction: time out idle active sessions and evict old ended ones,
+     * a bounded batch of each per run so a large backlog never causes a long pause
+     */
+    @Scheduled(fixedDelayString = "${app.proctoring.eviction.interval-ms:1000}")
+    public void runEviction() {
+        long now = System.currentTimeMillis();
+        int timedOut = expireIdleSessions(now);
+        int evicted = evictEndedSessions(now);
+        if (timedOut > 0 || evicted > 0) {
+            log.info("Eviction: timed out {} idle sessions, evicted {} ended sessions", timedOut, evicted);
+        }
+    }
+
     /**
      * Cleanup inactive sessions (for maintenance)
      */
     public int cleanupInactiveSessions() {
-        LocalDateTime cutoffTime = LocalDateTime.now().minusHours(24); // Remove sessions older than 24 hours
+        long now = System.currentTimeMillis();
+        int total = 0;
+        int evicted;
+        do {
+            evicted = evictEndedSessions(now);
+            total += evicted;
+        } while (evicted == evictionBatchSize);
         
+        log.info("Cleaned up {} inactive sessions", total);
+        return total;
+    }
+
+    /**
+     * Terminate up to one batch of active sessions that have been idle for the session timeout
+     */
+    int expireIdleSessions(long nowMillis) {
+        if (sessionTimeoutMinutes <= 0) {
+            return 0;
+        }
+        long timeoutMillis = TimeUnit.MINUTES.toMillis(sessionTimeoutMinutes);
+        int timedOut = 0;
+        for (String sessionId : expiryQueue.pollDue(nowMillis, evictionBatchSize)) {
+            InterviewSession session = sessions.get(sessionId);
+            SessionAggregate aggregate = sessionAggregates.get(sessionId);
+            if (session == null || aggregate == null || !"ACTIVE".equals(session.getStatus())) {
+                continue;
+            }
+            long deadline = aggregate.getLastActivityMillis() + timeoutMillis;
+            if (deadline > nowMillis) {
+                // Active since the entry was scheduled
+                expiryQueue.schedule(sessionId, deadline);
+                continue;
+            }
+
+            SessionLifecycle lifecycle = sessionLifecycles.get(sessionId);
+            if (lifecycle == null || !lifecycle.seal()) {
+                continue;
+            }
+            String previousStatus = session.getStatus();
+            session.terminateSession();
+            lifecycle.finish(SessionStatus.TERMINATED);
+            sessionFinished(session, previousStatus);
+            archiveEvents(sessionId);
+            timedOutSessions.incrementAndGet();
+            timedOut++;
+        }
+        return timedOut;
+    }
+
+    /**
+     * Remove up to one batch of ended sessions, oldest first, that started more than
+     * cleanup-interval-hours ago
+     */
+    int evictEndedSessions(long nowMillis) {
+        SessionKey cutoff = SessionIndex.startedBefore(nowMillis - TimeUnit.HOURS.toMillis(cleanupIntervalHours));
+        // Walk only the ended buckets, so long-running active sessions are never rescanned
+        Iterator<SessionKey> completed = sessionIndex.withStatus(SessionStatus.COMPLETED.name())
+                .headMap(cutoff, false).keySet().iterator();
+        Iterator<SessionKey> terminated = sessionIndex.withStatus(SessionStatus.TERMINATED.name())
+                .headMap(cutoff, false).keySet().iterator();
+        SessionKey nextCompleted = completed.hasNext() ? completed.next() : null;
+        SessionKey nextTerminated = terminated.hasNext() ? terminated.next() : null;
         List<String> sessionsToRemove = new ArrayList<>();
-        for (Map.Entry<String, InterviewSession> entry : sessions.entrySet()) {
-            InterviewSession session = entry.getValue();
-            if (session.getStartTime().isBefore(cutoffTime) && 
-                !"ACTIVE".equals(session.getStatus())) {
-                sessionsToRemove.add(entry.getKey());
+        while (sessionsToRemove.size() < evictionBatchSize && (nextCompleted != null || nextTerminated != null)) {
+            // Oldest of the two heads first
+            if (nextTerminated == null || (nextCompleted != null && nextCompleted.compareTo(nextTerminated) < 0)) {
+                sessionsToRemove.add(nextCompleted.sessionId());
+                nextCompleted = completed.hasNext() ? completed.next() : null;
+            } else {
+                sessionsToRemove.add(nextTerminated.sessionId());
+                nextTerminated = terminated.hasNext() ? terminated.next() : null;
             }
         }
-        
+
+        int evicted = 0;
         for (String sessionId : sessionsToRemove) {
-            sessions.remove(sessionId);
-            sessionEvents.remove(sessionId);
+            if (removeSession(sessionId)) {
+                eventJournal.sessionDeleted(sessionId);
+                evictedSessions.incrementAndGet();
+                evicted++;
+            }
         }
-        
-        System.out.println("Cleaned up " + sessionsToRemove.size() + " inactive sessions");
-        return sessionsToRemove.size();
+        return evicted;
+    }
+
+    public long getTimedOutSessions() {
+        return timedOutSessions.get();
+    }
+
+    public long getEvictedSessions() {
+        return evictedSessions.get();
+    }
+
+    public long getRejectedSessions() {
+        return rejectedSessions.get();
     }
-}
\ No newline at end of file
+}
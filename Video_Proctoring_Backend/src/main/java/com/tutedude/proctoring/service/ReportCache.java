@@ -0,0 +1,95 @@
+package com.tutedude.proctoring.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tutedude.proctoring.model.DetectionEvent;
+import com.tutedude.proctoring.model.ProctoringReport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reports of sessions that have ended, which no longer change until they are re-scored
+ * or deleted.
+ *
+ * Backed by a Caffeine cache with W-TinyLFU eviction, bounded by the heap the cached
+ * reports keep reachable (mostly the event logs behind their event lists) rather than by
+ * entry count, since one long session can outweigh thousands of short ones. Cached
+ * reports are shared between callers and must not be modified.
+ *
+ * Each report is kept with the scoring policy it was scored under, and one whose session
+ * has since moved to another policy is rebuilt on the next read, so a report built while
+ * a policy was being installed never outlives the re-score.
+ */
+@Component
+public class ReportCache {
+
+    // The report itself, apart from its events
+    private static final long REPORT_BYTES = 512L;
+
+    // Null when caching is disabled
+    private final Cache<String, Entry> cache;
+
+    public ReportCache(@Value("${app.proctoring.report-cache.max-size-mb:32}") long maxSizeMb,
+                       ProctoringMetrics metrics) {
+        if (maxSizeMb <= 0) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSizeMb * 1024 * 1024)
+                .weigher((String sessionId, Entry entry) -> retainedBytes(entry.report))
+                .recordStats()
+                .build();
+
+        metrics.gauge("proctoring.reports.cache.size", "Ended-session reports held in the cache",
+                cache, Cache::estimatedSize);
+        metrics.counter("proctoring.reports.cache.hits", "Report requests served from the cache",
+                cache, c -> c.stats().hitCount());
+        metrics.counter("proctoring.reports.cache.misses", "Report requests that had to build the report",
+                cache, c -> c.stats().missCount());
+        metrics.counter("proctoring.reports.cache.evictions", "Reports evicted to stay within the size limit",
+                cache, c -> c.stats().evictionCount());
+    }
+
+    /**
+     * The cached report, building and caching it with {@code loader} on a miss or when it
+     * was scored under another policy than the session's current {@code policy}
+     */
+    public ProctoringReport get(String sessionId, ScoringPolicy policy, Function<String, ProctoringReport> loader) {
+        if (cache == null) {
+            return loader.apply(sessionId);
+        }
+        Entry entry = cache.get(sessionId, id -> new Entry(policy, loader.apply(id)));
+        if (entry.policy != policy) {
+            entry = new Entry(policy, loader.apply(sessionId));
+            cache.put(sessionId, entry);
+        }
+        return entry.report;
+    }
+
+    public void invalidate(String sessionId) {
+        if (cache != null) {
+            cache.invalidate(sessionId);
+        }
+    }
+
+    public long hitCount() {
+        return cache != null ? cache.stats().hitCount() : 0;
+    }
+
+    public long missCount() {
+        return cache != null ? cache.stats().missCount() : 0;
+    }
+
+    private static int retainedBytes(ProctoringReport report) {
+        List<DetectionEvent> events = report.getDetectionEvents();
+        long bytes = REPORT_BYTES + (events != null ? SessionEventLog.estimatedBytes(events) : 0);
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private record Entry(ScoringPolicy policy, ProctoringReport report) {
+    }
+}
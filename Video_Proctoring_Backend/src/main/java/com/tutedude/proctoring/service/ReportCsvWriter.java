@@ -0,0 +1,83 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.EventType;
+import com.tutedude.proctoring.model.ProctoringReport;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Reports as CSV with a header row, one column per known event type plus one for every
+ * other type combined, so columns stay the same whatever the sessions contain.
+ */
+final class ReportCsvWriter implements ReportRowWriter {
+
+    private static final String[] COLUMNS = {
+            "sessionId", "candidateName", "sessionDate", "durationInSeconds", "integrityScore",
+            "overallRating", "scoringPolicy", "totalEvents", "dangerEvents", "warningEvents" };
+    private static final String OTHER_EVENTS = "otherEvents";
+
+    private final Writer writer;
+
+    ReportCsvWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        StringBuilder header = new StringBuilder(String.join(",", COLUMNS));
+        for (int i = 0; i < EventType.count(); i++) {
+            header.append(',').append(EventType.fromOrdinal(i).name());
+        }
+        writer.write(header.append(',').append(OTHER_EVENTS).append('\n').toString());
+    }
+
+    @Override
+    public void write(ProctoringReport report) throws IOException {
+        StringBuilder row = new StringBuilder(160);
+        field(row, report.getSessionId()).append(',');
+        field(row, report.getCandidateName()).append(',');
+        field(row, report.getSessionDate() != null ? report.getSessionDate().toString() : null).append(',');
+        row.append(report.getDurationInSeconds()).append(',');
+        row.append(report.getIntegrityScore()).append(',');
+        field(row, report.getOverallRating()).append(',');
+        field(row, report.getScoringPolicy()).append(',');
+        row.append(report.getTotalEvents()).append(',');
+        row.append(report.getDangerEvents()).append(',');
+        row.append(report.getWarningEvents());
+
+        Map<String, Integer> summary = report.getEventSummary();
+        int other = 0;
+        for (Map.Entry<String, Integer> entry : summary.entrySet()) {
+            if (EventType.fromName(entry.getKey()) == null) {
+                other += entry.getValue();
+            }
+        }
+        for (int i = 0; i < EventType.count(); i++) {
+            row.append(',').append(summary.getOrDefault(EventType.fromOrdinal(i).name(), 0));
+        }
+        writer.write(row.append(',').append(other).append('\n').toString());
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Leave the response stream open for the servlet container to finish
+        writer.flush();
+    }
+
+    private static StringBuilder field(StringBuilder row, String value) {
+        if (value == null) {
+            return row;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return row.append(value);
+        }
+        return row.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
@@ -0,0 +1,330 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.InterviewSession;
+import com.tutedude.proctoring.model.ProctoringReport;
+import com.tutedude.proctoring.model.ReportJob;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bulk report jobs.
+ *
+ * A job picks its sessions once, when it is submitted, then builds their reports in
+ * chunks on a dedicated, bounded ForkJoin pool. Reports come from the running counters,
+ * so a job takes no lock that ingestion uses, and the pool size caps the CPU it can take
+ * from request threads. Results can be downloaded while the job runs: rows go out in
+ * session order as soon as the chunk holding them is done.
+ */
+@Service
+public class ReportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    private static final int CHUNK_SIZE = 64;
+    // Stands in for a session deleted before its report was built
+    private static final ProctoringReport MISSING = new ProctoringReport();
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger activeJobs = new AtomicInteger();
+    private ForkJoinPool pool;
+
+    // Queued and running jobs allowed at once
+    @Value("${app.proctoring.reports.bulk.max-active-jobs:4}")
+    private int maxActiveJobs;
+
+    // Finished jobs and their results are kept this long
+    @Value("${app.proctoring.reports.bulk.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Autowired
+    private ProctoringService proctoringService;
+
+    @Autowired
+    private SessionJsonWriter jsonWriter;
+
+    // Zero or less uses half the CPUs, leaving the rest to request threads
+    @Value("${app.proctoring.reports.bulk.parallelism:0}")
+    void setParallelism(int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        pool = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("bulk-report-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Start a job over the sessions with the given status (any when null) that started in
+     * {@code [from, to]}
+     */
+    public ReportJob submit(String status, LocalDateTime from, LocalDateTime to) {
+        pruneFinishedJobs();
+        int active;
+        do {
+            active = activeJobs.get();
+            if (active >= maxActiveJobs) {
+                throw new IllegalStateException("Too many report jobs in progress (max " + maxActiveJobs + ")");
+            }
+        } while (!activeJobs.compareAndSet(active, active + 1));
+
+        List<String> sessionIds = new ArrayList<>();
+        for (InterviewSession session : proctoringService.findSessions(status, from, to)) {
+            sessionIds.add(session.getSessionId());
+        }
+        Job job = new Job(generateJobId(), status, from, to, sessionIds);
+        jobs.put(job.jobId, job);
+        try {
+            pool.execute(job::run);
+        } catch (RejectedExecutionException e) {
+            job.finish(Job.FAILED, "Report pool is shut down");
+        }
+
+        log.info("Started report job {} over {} sessions", job.jobId, sessionIds.size());
+        return job.toView();
+    }
+
+    /**
+     * Progress of a job, or null when there is no such job
+     */
+    public ReportJob getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        return job != null ? job.toView() : null;
+    }
+
+    /**
+     * Stop a job if it is still running and discard it with its results
+     */
+    public boolean cancel(String jobId) {
+        Job job = jobs.remove(jobId);
+        if (job == null) {
+            return false;
+        }
+        job.finish(Job.CANCELLED, null);
+        return true;
+    }
+
+    /**
+     * The job's reports in session order, newest session first, as NDJSON or CSV. Rows not
+     * built yet are waited for; a job that fails or is cancelled ends the output early.
+     * Returns null when there is no such job.
+     */
+    public StreamingResponseBody streamResults(String jobId, String format) {
+        boolean csv;
+        if (FORMAT_CSV.equalsIgnoreCase(format)) {
+            csv = true;
+        } else if (FORMAT_NDJSON.equalsIgnoreCase(format)) {
+            csv = false;
+        } else {
+            throw new IllegalArgumentException("Unsupported report format: " + format + " (use ndjson or csv)");
+        }
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+        return out -> {
+            try (ReportRowWriter writer = csv ? new ReportCsvWriter(out) : jsonWriter.reportLines(out)) {
+                job.writeResults(writer);
+            }
+        };
+    }
+
+    private void pruneFinishedJobs() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(retentionMinutes);
+        jobs.values().removeIf(job -> job.finishedMillis != 0 && job.finishedMillis < cutoff);
+    }
+
+    private String generateJobId() {
+        return "JOB_" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    private final class Job {
+        static final String QUEUED = "QUEUED";
+        static final String RUNNING = "RUNNING";
+        static final String COMPLETED = "COMPLETED";
+        static final String FAILED = "FAILED";
+        static final String CANCELLED = "CANCELLED";
+
+        private final String jobId;
+        private final String status;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final List<String> sessionIds;
+        // [position in sessionIds] built report, MISSING, or null while pending
+        private final AtomicReferenceArray<ProctoringReport> reports;
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicReference<String> state = new AtomicReference<>(QUEUED);
+        // Downloads wait here for the chunk holding their next row
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition progress = lock.newCondition();
+
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+        private volatile long finishedMillis;
+
+        private Job(String jobId, String status, LocalDateTime from, LocalDateTime to, List<String> sessionIds) {
+            this.jobId = jobId;
+            this.status = status;
+            this.from = from;
+            this.to = to;
+            this.sessionIds = sessionIds;
+            this.reports = new AtomicReferenceArray<>(sessionIds.size());
+        }
+
+        void run() {
+            if (!state.compareAndSet(QUEUED, RUNNING)) {
+                // Cancelled while queued
+                return;
+            }
+            long start = System.currentTimeMillis();
+            try {
+                new Chunk(this, 0, sessionIds.size()).invoke();
+                finish(COMPLETED, null);
+                log.info("Report job {} built {} reports in {} ms", jobId, completed.get(),
+                        System.currentTimeMillis() - start);
+            } catch (RuntimeException e) {
+                log.warn("Report job {} failed", jobId, e);
+                finish(FAILED, e.getMessage());
+            }
+        }
+
+        void buildReports(int fromIndex, int toIndex) {
+            for (int i = fromIndex; i < toIndex; i++) {
+                if (isFinished()) {
+                    return;
+                }
+                ProctoringReport report = proctoringService.summaryReport(sessionIds.get(i));
+                reports.set(i, report != null ? report : MISSING);
+                completed.incrementAndGet();
+            }
+            signal();
+        }
+
+        void finish(String finalState, String failure) {
+            String current = state.get();
+            while (!isFinal(current)) {
+                if (state.compareAndSet(current, finalState)) {
+                    error = failure;
+                    finishedAt = LocalDateTime.now();
+                    finishedMillis = System.currentTimeMillis();
+                    activeJobs.decrementAndGet();
+                    signal();
+                    return;
+                }
+                current = state.get();
+            }
+        }
+
+        void writeResults(ReportRowWriter writer) throws IOException {
+            for (int i = 0; i < sessionIds.size(); i++) {
+                ProctoringReport report = reports.get(i);
+                if (report == null) {
+                    // Send what is ready before waiting for the next chunk
+                    writer.flush();
+                    report = await(i);
+                    if (report == null) {
+                        return;
+                    }
+                }
+                if (report != MISSING) {
+                    writer.write(report);
+                }
+            }
+        }
+
+        private ProctoringReport await(int index) throws IOException {
+            lock.lock();
+            try {
+                while (reports.get(index) == null && !isFinished()) {
+                    progress.await(1, TimeUnit.SECONDS);
+                }
+                // A chunk may finish between the last check and the job ending
+                return reports.get(index);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for report job " + jobId);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void signal() {
+            lock.lock();
+            try {
+                progress.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isFinished() {
+            return isFinal(state.get());
+        }
+
+        private boolean isFinal(String value) {
+            return COMPLETED.equals(value) || FAILED.equals(value) || CANCELLED.equals(value);
+        }
+
+        ReportJob toView() {
+            return new ReportJob(jobId, state.get(), status, from, to, sessionIds.size(), completed.get(),
+                    createdAt, finishedAt, error);
+        }
+    }
+
+    /**
+     * Splits a job's sessions until each piece is at most one chunk
+     */
+    private static final class Chunk extends RecursiveAction {
+        private final Job job;
+        private final int from;
+        private final int to;
+
+        private Chunk(Job job, int from, int to) {
+            this.job = job;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                job.buildReports(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Chunk(job, from, middle), new Chunk(job, middle, to));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.ProctoringReport;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes reports, without their event lists, one row at a time
+ */
+interface ReportRowWriter extends Closeable {
+
+    void write(ProctoringReport report) throws IOException;
+
+    /**
+     * Push everything written so far to the client
+     */
+    void flush() throws IOException;
+}
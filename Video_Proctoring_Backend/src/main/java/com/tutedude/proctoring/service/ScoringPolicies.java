@@ -0,0 +1,83 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.config.ScoringProperties;
+import com.tutedude.proctoring.model.ScoringPolicyDefinition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Compiled scoring policies by name.
+ *
+ * The whole set is one immutable map behind an {@link AtomicReference}: a lookup is a
+ * volatile read, and replacing a policy compiles it first and then swaps in a new map,
+ * so readers see either the old or the new policy and never a half-built one.
+ */
+@Component
+public class ScoringPolicies {
+
+    private final String defaultPolicy;
+    private final AtomicReference<Map<String, ScoringPolicy>> policies;
+
+    @Autowired
+    public ScoringPolicies(ScoringProperties properties) {
+        this.defaultPolicy = properties.getDefaultPolicy();
+        Map<String, ScoringPolicy> compiled = new LinkedHashMap<>();
+        properties.getPolicies().forEach((name, definition) -> compiled.put(name, ScoringPolicy.compile(name, definition)));
+        // An undefined default policy uses the built-in weights
+        compiled.computeIfAbsent(defaultPolicy, name -> ScoringPolicy.compile(name, new ScoringPolicyDefinition()));
+        this.policies = new AtomicReference<>(Collections.unmodifiableMap(compiled));
+    }
+
+    /**
+     * The named policy, or the default one for a null name
+     */
+    public ScoringPolicy resolve(String name) {
+        ScoringPolicy policy = policies.get().get(name != null ? name : defaultPolicy);
+        if (policy == null) {
+            throw new IllegalArgumentException("Unknown scoring policy: " + name);
+        }
+        return policy;
+    }
+
+    /**
+     * The named policy, or null when there is none
+     */
+    public ScoringPolicy find(String name) {
+        return policies.get().get(name);
+    }
+
+    public String getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    /**
+     * Compile a definition and atomically install it under {@code name}, replacing any
+     * policy of that name
+     */
+    public ScoringPolicy put(String name, ScoringPolicyDefinition definition) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Scoring policy name cannot be null or empty");
+        }
+        ScoringPolicy policy = ScoringPolicy.compile(name, definition);
+        policies.updateAndGet(current -> {
+            Map<String, ScoringPolicy> next = new LinkedHashMap<>(current);
+            next.put(name, policy);
+            return Collections.unmodifiableMap(next);
+        });
+        return policy;
+    }
+
+    /**
+     * Definitions of every policy, with defaults filled in
+     */
+    public Map<String, ScoringPolicyDefinition> definitions() {
+        Map<String, ScoringPolicyDefinition> definitions = new LinkedHashMap<>();
+        policies.get().forEach((name, policy) -> definitions.put(name, policy.getDefinition()));
+        return definitions;
+    }
+}
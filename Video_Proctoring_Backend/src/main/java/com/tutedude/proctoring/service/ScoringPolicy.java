@@ -0,0 +1,209 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.EventType;
+import com.tutedude.proctoring.model.ScoringPolicyDefinition;
+import com.tutedude.proctoring.model.Severity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * An integrity scoring policy compiled into flat lookup tables.
+ *
+ * Every event falls into one cell, indexed by event type ordinal and severity ordinal
+ * with a trailing {@code OTHER} slot for values outside the enums. The deduction of a
+ * cell is its severity weight plus its type weight, precomputed at compile time, so
+ * scoring is a single pass over a few dozen per-cell counts with no string handling,
+ * whatever the number of events. Instances are immutable and safe to share.
+ */
+public final class ScoringPolicy {
+
+    static final String OTHER = "OTHER";
+    static final int TYPE_SLOTS = EventType.count() + 1;
+    static final int SEVERITY_SLOTS = Severity.values().length + 1;
+    static final int CELLS = TYPE_SLOTS * SEVERITY_SLOTS;
+
+    private static final ScoringPolicy DEFAULTS = compile("default", ScoringPolicyDefinition.defaults());
+
+    private final String name;
+    private final ScoringPolicyDefinition definition;
+    // [cell] points deducted per event
+    private final int[] deductions;
+    // [type slot] most points a type may deduct in total
+    private final int[] typeCaps;
+    // Zero when events never lose weight
+    private final long halfLifeMillis;
+    // Descending minimum scores and their ratings
+    private final int[] ratingThresholds;
+    private final String[] ratingNames;
+
+    private ScoringPolicy(String name, ScoringPolicyDefinition definition, int[] deductions, int[] typeCaps,
+                          long halfLifeMillis, int[] ratingThresholds, String[] ratingNames) {
+        this.name = name;
+        this.definition = definition;
+        this.deductions = deductions;
+        this.typeCaps = typeCaps;
+        this.halfLifeMillis = halfLifeMillis;
+        this.ratingThresholds = ratingThresholds;
+        this.ratingNames = ratingNames;
+    }
+
+    /**
+     * The built-in policy, matching the weights reports have always used
+     */
+    public static ScoringPolicy defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Compile a definition; fields it leaves null take the default policy's values
+     */
+    public static ScoringPolicy compile(String name, ScoringPolicyDefinition source) {
+        ScoringPolicyDefinition defaults = ScoringPolicyDefinition.defaults();
+        ScoringPolicyDefinition definition = new ScoringPolicyDefinition(
+                orDefault(source.getSeverityWeights(), defaults.getSeverityWeights()),
+                orDefault(source.getTypeWeights(), defaults.getTypeWeights()),
+                orDefault(source.getTypeCaps(), defaults.getTypeCaps()),
+                source.getDecayHalfLifeSeconds() != null ? source.getDecayHalfLifeSeconds() : 0L,
+                orDefault(source.getRatings(), defaults.getRatings()));
+
+        int[] severityWeights = new int[SEVERITY_SLOTS];
+        definition.getSeverityWeights().forEach((key, weight) ->
+                severityWeights[severitySlot(name, key)] = nonNegative(name, key, weight));
+        int[] typeWeights = new int[TYPE_SLOTS];
+        definition.getTypeWeights().forEach((key, weight) ->
+                typeWeights[typeSlot(name, key)] = nonNegative(name, key, weight));
+        int[] typeCaps = new int[TYPE_SLOTS];
+        Arrays.fill(typeCaps, Integer.MAX_VALUE);
+        definition.getTypeCaps().forEach((key, cap) ->
+                typeCaps[typeSlot(name, key)] = nonNegative(name, key, cap));
+
+        int[] deductions = new int[CELLS];
+        for (int type = 0; type < TYPE_SLOTS; type++) {
+            for (int severity = 0; severity < SEVERITY_SLOTS; severity++) {
+                deductions[type * SEVERITY_SLOTS + severity] = typeWeights[type] + severityWeights[severity];
+            }
+        }
+
+        if (definition.getDecayHalfLifeSeconds() < 0) {
+            throw new IllegalArgumentException("Scoring policy " + name + ": decay half-life cannot be negative");
+        }
+
+        List<Map.Entry<String, Integer>> ratings = new ArrayList<>(definition.getRatings().entrySet());
+        ratings.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        if (ratings.isEmpty() || ratings.get(ratings.size() - 1).getValue() > 0) {
+            throw new IllegalArgumentException("Scoring policy " + name + ": ratings must include one for a score of 0");
+        }
+        int[] thresholds = new int[ratings.size()];
+        String[] names = new String[ratings.size()];
+        for (int i = 0; i < ratings.size(); i++) {
+            thresholds[i] = ratings.get(i).getValue();
+            names[i] = ratings.get(i).getKey();
+        }
+
+        return new ScoringPolicy(name, definition, deductions, typeCaps,
+                definition.getDecayHalfLifeSeconds() * 1000, thresholds, names);
+    }
+
+    /**
+     * Table cell of an event; null type or severity means one outside the enums
+     */
+    static int cell(EventType type, Severity severity) {
+        return (type != null ? type.ordinal() : TYPE_SLOTS - 1) * SEVERITY_SLOTS
+                + (severity != null ? severity.ordinal() : SEVERITY_SLOTS - 1);
+    }
+
+    /**
+     * Score from plain per-cell event counts
+     */
+    int score(AtomicIntegerArray counts) {
+        long deducted = 0;
+        for (int type = 0; type < TYPE_SLOTS; type++) {
+            long row = 0;
+            for (int cell = type * SEVERITY_SLOTS, end = cell + SEVERITY_SLOTS; cell < end; cell++) {
+                row += (long) counts.get(cell) * deductions[cell];
+            }
+            deducted += Math.min(row, typeCaps[type]);
+        }
+        return (int) Math.max(0, 100 - deducted);
+    }
+
+    /**
+     * Score from per-cell event weights that have already been decayed
+     */
+    int score(double[] weights) {
+        double deducted = 0;
+        for (int type = 0; type < TYPE_SLOTS; type++) {
+            double row = 0;
+            for (int cell = type * SEVERITY_SLOTS, end = cell + SEVERITY_SLOTS; cell < end; cell++) {
+                row += weights[cell] * deductions[cell];
+            }
+            deducted += Math.min(row, typeCaps[type]);
+        }
+        return (int) Math.max(0, Math.round(100 - deducted));
+    }
+
+    public String rating(int score) {
+        for (int i = 0; i < ratingThresholds.length; i++) {
+            if (score >= ratingThresholds[i]) {
+                return ratingNames[i];
+            }
+        }
+        return ratingNames[ratingNames.length - 1];
+    }
+
+    public boolean decays() {
+        return halfLifeMillis > 0;
+    }
+
+    long getHalfLifeMillis() {
+        return halfLifeMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The definition this policy was compiled from, with defaults filled in
+     */
+    public ScoringPolicyDefinition getDefinition() {
+        return definition;
+    }
+
+    private static int severitySlot(String policy, String key) {
+        if (OTHER.equals(key)) {
+            return SEVERITY_SLOTS - 1;
+        }
+        Severity severity = Severity.fromName(key);
+        if (severity == null) {
+            throw new IllegalArgumentException("Scoring policy " + policy + ": unknown severity " + key);
+        }
+        return severity.ordinal();
+    }
+
+    private static int typeSlot(String policy, String key) {
+        if (OTHER.equals(key)) {
+            return TYPE_SLOTS - 1;
+        }
+        EventType type = EventType.fromName(key);
+        if (type == null) {
+            throw new IllegalArgumentException("Scoring policy " + policy + ": unknown event type " + key);
+        }
+        return type.ordinal();
+    }
+
+    private static int nonNegative(String policy, String key, Integer value) {
+        if (value == null || value < 0) {
+            throw new IllegalArgumentException("Scoring policy " + policy + ": " + key + " must be zero or more");
+        }
+        return value;
+    }
+
+    private static <T> T orDefault(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+}
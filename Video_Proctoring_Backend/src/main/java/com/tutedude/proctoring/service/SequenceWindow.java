@@ -0,0 +1,90 @@
+package com.tutedude.proctoring.service;
+
+import java.util.Arrays;
+
+/**
+ * Client sequence numbers a session has accepted, for dropping retried events.
+ *
+ * Keeps the highest sequence seen and a bitmap of the {@code size} sequences at and
+ * below it, so memory per session is fixed however long it runs. A sequence above the
+ * highest slides the window up; one inside the window is accepted once and reported as a
+ * duplicate after that; one that has fallen below the window can no longer be told apart
+ * from a duplicate and is reported as stale.
+ */
+final class SequenceWindow {
+
+    enum Outcome { ACCEPTED, DUPLICATE, STALE }
+
+    private final int size;
+    // Bit (sequence % size) is set when that sequence was accepted
+    private final long[] seen;
+    private long highest = -1;
+
+    SequenceWindow(int size) {
+        if (size <= 0 || size % Long.SIZE != 0) {
+            throw new IllegalArgumentException("Dedup window must be a positive multiple of 64: " + size);
+        }
+        this.size = size;
+        this.seen = new long[size / Long.SIZE];
+    }
+
+    synchronized Outcome accept(long sequence) {
+        if (sequence < 0) {
+            throw new IllegalArgumentException("Sequence cannot be negative: " + sequence);
+        }
+        if (sequence > highest) {
+            if (sequence - highest >= size) {
+                Arrays.fill(seen, 0);
+            } else {
+                // Bits of the sequences the window slides over now stand for new ones
+                for (long skipped = highest + 1; skipped < sequence; skipped++) {
+                    clear(skipped);
+                }
+            }
+            highest = sequence;
+            set(sequence);
+            return Outcome.ACCEPTED;
+        }
+        if (highest - sequence >= size) {
+            return Outcome.STALE;
+        }
+        if (isSet(sequence)) {
+            return Outcome.DUPLICATE;
+        }
+        set(sequence);
+        return Outcome.ACCEPTED;
+    }
+
+    /**
+     * Forget an accepted sequence whose event could not be stored, so its retry is accepted;
+     * nothing happens once it has fallen below the window
+     */
+    synchronized void release(long sequence) {
+        if (sequence >= 0 && sequence <= highest && highest - sequence < size) {
+            clear(sequence);
+        }
+    }
+
+    synchronized long highest() {
+        return highest;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private boolean isSet(long sequence) {
+        int bit = (int) (sequence % size);
+        return (seen[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private void set(long sequence) {
+        int bit = (int) (sequence % size);
+        seen[bit >>> 6] |= 1L << bit;
+    }
+
+    private void clear(long sequence) {
+        int bit = (int) (sequence % size);
+        seen[bit >>> 6] &= ~(1L << bit);
+    }
+}
@@ -0,0 +1,251 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.EventType;
+import com.tutedude.proctoring.model.ProctoringReport;
+import com.tutedude.proctoring.model.SessionSnapshot;
+import com.tutedude.proctoring.model.Severity;
+import com.tutedude.proctoring.model.TimelineBucket;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Running per-session counters, updated in O(1) as each event is ingested so
+ * reports never have to walk the event log.
+ *
+ * Events are also counted per {@link ScoringPolicy} cell rather than as a running
+ * deduction, so the score is derived from the counts under whichever policy the session
+ * currently uses and switching policies costs nothing for non-decaying ones.
+ */
+public class SessionAggregate {
+
+    private final AtomicInteger totalEvents = new AtomicInteger();
+    private final AtomicInteger dangerEvents = new AtomicInteger();
+    private final AtomicInteger warningEvents = new AtomicInteger();
+    // [scoring cell] events by type and severity
+    private final AtomicIntegerArray cellCounts = new AtomicIntegerArray(ScoringPolicy.CELLS);
+    private volatile Scoring scoring;
+    private volatile long lastActivityMillis = System.currentTimeMillis();
+
+    // Held shared by ingestion from storing an event until it is recorded here, and exclusively
+    // by rescore, so the log a re-score walks holds exactly the events recorded so far
+    final ReentrantReadWriteLock recordLock = new ReentrantReadWriteLock();
+
+    // Known event types are counted by ordinal; anything else by its exact name
+    private final AtomicIntegerArray typeCounts = new AtomicIntegerArray(EventType.count());
+    private final Map<String, AtomicInteger> otherTypeCounts = new ConcurrentHashMap<>();
+
+    // Timelines by event time: 10-second buckets over the last hour, 1-minute buckets over the last 4 hours
+    private final TimelineRollup tenSecondTimeline = new TimelineRollup(10_000, 360);
+    private final TimelineRollup oneMinuteTimeline = new TimelineRollup(60_000, 240);
+
+    public SessionAggregate() {
+        this(ScoringPolicy.defaults());
+    }
+
+    public SessionAggregate(ScoringPolicy policy) {
+        this.scoring = new Scoring(policy, policy.decays() ? new DecayedWeights(policy.getHalfLifeMillis()) : null);
+    }
+
+    /**
+     * Record one ingested event that happened at {@code timestampMillis}
+     */
+    public void record(String eventType, String severity, long timestampMillis) {
+        Severity level = Severity.fromName(severity);
+        if (level == Severity.DANGER) {
+            dangerEvents.incrementAndGet();
+        } else if (level == Severity.WARNING) {
+            warningEvents.incrementAndGet();
+        }
+
+        EventType type = EventType.fromName(eventType);
+        if (type != null) {
+            typeCounts.incrementAndGet(type.ordinal());
+        } else if (eventType != null) {
+            otherTypeCounts.computeIfAbsent(eventType, k -> new AtomicInteger()).incrementAndGet();
+        }
+
+        tenSecondTimeline.record(timestampMillis, type, level);
+        oneMinuteTimeline.record(timestampMillis, type, level);
+        int cell = ScoringPolicy.cell(type, level);
+        cellCounts.incrementAndGet(cell);
+        DecayedWeights decayed = scoring.decayed;
+        if (decayed != null) {
+            decayed.add(cell, timestampMillis, 1);
+        }
+        totalEvents.incrementAndGet();
+        lastActivityMillis = System.currentTimeMillis();
+    }
+
+    public int getTotalEvents() {
+        return totalEvents.get();
+    }
+
+    public int getDangerEvents() {
+        return dangerEvents.get();
+    }
+
+    public int getWarningEvents() {
+        return warningEvents.get();
+    }
+
+    /**
+     * Count the session as active now without recording an event
+     */
+    public void touch() {
+        lastActivityMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * When the session was created, last recorded an event or was last touched, for idle timeouts
+     */
+    public long getLastActivityMillis() {
+        return lastActivityMillis;
+    }
+
+    public int getIntegrityScore() {
+        return score(scoring);
+    }
+
+    private int score(Scoring current) {
+        return current.decayed != null
+                ? current.policy.score(current.decayed.atLatest())
+                : current.policy.score(cellCounts);
+    }
+
+    public ScoringPolicy getScoringPolicy() {
+        return scoring.policy;
+    }
+
+    /**
+     * Switch the session to {@code policy}. A decaying policy needs event times, so its
+     * weights are rebuilt aside from {@code events}, counting coalesced runs once when
+     * {@code countRuns} is set, and swapped in once complete. Ingestion waits on
+     * {@link #recordLock} meanwhile, so no event is weighted twice or missed.
+     */
+    public void rescore(ScoringPolicy policy, SessionEventLog events, boolean countRuns) {
+        if (!policy.decays()) {
+            scoring = new Scoring(policy, null);
+            return;
+        }
+        recordLock.writeLock().lock();
+        try {
+            DecayedWeights decayed = new DecayedWeights(policy.getHalfLifeMillis());
+            if (events != null) {
+                events.forEach(0, events.size(), (id, eventType, message, severity, timestampMillis, endMillis,
+                                                  occurrences) -> {
+                    int cell = ScoringPolicy.cell(EventType.fromName(eventType), Severity.fromName(severity));
+                    decayed.add(cell, timestampMillis, 1);
+                    if (!countRuns && occurrences > 1) {
+                        decayed.add(cell, endMillis, occurrences - 1);
+                    }
+                });
+            }
+            scoring = new Scoring(policy, decayed);
+        } finally {
+            recordLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Event counts keyed by event type, in the same shape as the report summary
+     */
+    public Map<String, Integer> getEventSummary() {
+        Map<String, Integer> summary = new HashMap<>();
+        for (int i = 0; i < typeCounts.length(); i++) {
+            int count = typeCounts.get(i);
+            if (count > 0) {
+                summary.put(EventType.fromOrdinal(i).name(), count);
+            }
+        }
+        otherTypeCounts.forEach((type, count) -> summary.put(type, count.get()));
+        return summary;
+    }
+
+    /**
+     * Non-empty timeline buckets starting in {@code [fromMillis, toMillis)}, oldest first,
+     * at 10-second or 1-minute resolution
+     */
+    public List<TimelineBucket> getTimeline(boolean fineGrained, long fromMillis, long toMillis) {
+        return (fineGrained ? tenSecondTimeline : oneMinuteTimeline).buckets(fromMillis, toMillis);
+    }
+
+    /**
+     * Build a report for the session from the running counters
+     */
+    public ProctoringReport toReport(SessionSnapshot session) {
+        // One read, so the policy name, score and rating agree even during a re-score
+        Scoring current = scoring;
+        int score = score(current);
+        return new ProctoringReport(session, getEventSummary(), getTotalEvents(), getDangerEvents(), getWarningEvents(),
+                current.policy.getName(), score, current.policy.rating(score));
+    }
+
+    /**
+     * A policy and the decayed weights it scores from, swapped as one
+     */
+    private static final class Scoring {
+        private final ScoringPolicy policy;
+        private final DecayedWeights decayed;
+
+        private Scoring(ScoringPolicy policy, DecayedWeights decayed) {
+            this.policy = policy;
+            this.decayed = decayed;
+        }
+    }
+
+    /**
+     * Per-cell event weights that halve every half-life before the latest event. Sums are
+     * kept relative to an anchor time that moves forward as events arrive, so they stay in
+     * double range however long the session runs.
+     */
+    private static final class DecayedWeights {
+        // Rebase once the newest event is this many half-lives past the anchor
+        private static final double REBASE_HALVINGS = 64;
+
+        private final double halfLifeMillis;
+        private final double[] weights = new double[ScoringPolicy.CELLS];
+        private long anchorMillis = Long.MIN_VALUE;
+        private long latestMillis = Long.MIN_VALUE;
+
+        private DecayedWeights(long halfLifeMillis) {
+            this.halfLifeMillis = halfLifeMillis;
+        }
+
+        synchronized void add(int cell, long timestampMillis, int count) {
+            if (anchorMillis == Long.MIN_VALUE) {
+                anchorMillis = timestampMillis;
+            }
+            double halvings = (timestampMillis - anchorMillis) / halfLifeMillis;
+            if (halvings > REBASE_HALVINGS) {
+                double scale = Math.pow(2, -halvings);
+                for (int i = 0; i < weights.length; i++) {
+                    weights[i] *= scale;
+                }
+                anchorMillis = timestampMillis;
+                halvings = 0;
+            }
+            weights[cell] += count * Math.pow(2, halvings);
+            latestMillis = Math.max(latestMillis, timestampMillis);
+        }
+
+        /**
+         * Weights as seen from the latest event
+         */
+        synchronized double[] atLatest() {
+            double[] copy = weights.clone();
+            if (latestMillis != Long.MIN_VALUE) {
+                double scale = Math.pow(2, (anchorMillis - latestMillis) / halfLifeMillis);
+                for (int i = 0; i < copy.length; i++) {
+                    copy[i] *= scale;
+                }
+            }
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.DetectionEvent;
+import com.tutedude.proctoring.model.EventType;
+import com.tutedude.proctoring.model.Severity;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only, lock-free, columnar event log for a single session.
+ *
+ * Events are stored column by column in segments that are never moved or copied once
+ * allocated: ids and epoch-millis timestamps as {@code long}s, and event
+ * type, severity and message as dictionary codes. Known event types and severities
+ * encode to their enum ordinal, so the common case needs no per-session dictionary
+ * entry. The session id is stored once for the whole log. No segment exists until the
+ * first event; the first is 16 slots and each next one doubles up to 1024, so the
+ * first 1024 events fill segments of 16, 16, 32, ... 512 slots and every later one
+ * 1024. A session with a few events stays a few hundred bytes.
+ *
+ * Writers claim a slot with a single atomic increment, fill it and then help advance
+ * the published size over filled slots, so it always covers a gap-free prefix without
+ * any writer waiting on another. Readers take a snapshot by reading the published size
+ * once; the returned list decodes {@link DetectionEvent} views on access and never
+ * copies the log.
+ *
+ * Callers that assign event IDs hold {@link #appendLock} from taking the IDs through the
+ * append and its journal record, so IDs increase with position in the log and the
+ * journal replays events in log order. The log itself never takes the lock.
+ */
+public class SessionEventLog {
+
+    private static final int SEGMENT_SHIFT = 10;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+    // The first segment has 1 << FIRST_SHIFT slots, the same as the second
+    private static final int FIRST_SHIFT = 4;
+    // Segments below SEGMENT_SIZE: 16, 16, 32, 64, 128, 256, 512 slots
+    private static final int SMALL_SEGMENTS = SEGMENT_SHIFT - FIRST_SHIFT + 1;
+
+    // Stored for a missing id or timestamp
+    static final long NULL_LONG = Long.MIN_VALUE;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    // A materialized DetectionEvent with its timestamp, strings shared with the dictionaries
+    private static final long EVENT_OBJECT_BYTES = 96L;
+
+    private static final StringDictionary.Seed EVENT_TYPES = new StringDictionary.Seed(
+            Arrays.stream(EventType.values()).map(Enum::name).toArray(String[]::new));
+    private static final StringDictionary.Seed SEVERITIES = new StringDictionary.Seed(
+            Arrays.stream(Severity.values()).map(Enum::name).toArray(String[]::new));
+
+    /**
+     * Receives the columns of one event, so readers can consume the log without
+     * materializing {@link DetectionEvent}s. Missing ids and timestamps are {@code Long.MIN_VALUE};
+     * the end time of a single occurrence is its timestamp.
+     */
+    @FunctionalInterface
+    public interface EventVisitor<E extends Exception> {
+        void visit(long id, String eventType, String message, String severity, long timestampMillis,
+                   long endMillis, int occurrences) throws E;
+    }
+
+    final ReentrantLock appendLock = new ReentrantLock();
+
+    private final String sessionId;
+    private final StringDictionary eventTypes = new StringDictionary(EVENT_TYPES);
+    private final StringDictionary severities = new StringDictionary(SEVERITIES);
+    private final StringDictionary messages = new StringDictionary();
+
+    private final AtomicReference<Segment[]> segments = new AtomicReference<>(new Segment[0]);
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final AtomicInteger published = new AtomicInteger();
+
+    public SessionEventLog(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Append a single event without materializing a {@link DetectionEvent}, and return its position
+     */
+    public int append(long id, String eventType, String message, String severity, long timestampMillis) {
+        int index = claimed.getAndIncrement();
+        write(index, id, eventType, message, severity, timestampMillis);
+        advancePublished();
+        return index;
+    }
+
+    /**
+     * Append a single event and return its position in the log
+     */
+    public int append(DetectionEvent event) {
+        int index = claimed.getAndIncrement();
+        write(index, event);
+        advancePublished();
+        return index;
+    }
+
+    /**
+     * Append a batch of events as one contiguous range
+     */
+    public int appendAll(List<DetectionEvent> events) {
+        int count = events.size();
+        int start = claimed.getAndAdd(count);
+        for (int i = 0; i < count; i++) {
+            write(start + i, events.get(i));
+        }
+        advancePublished();
+        return start;
+    }
+
+    /**
+     * Record that the published event at {@code index} now covers {@code occurrences}
+     * repeats, the last one at {@code endMillis}. Callers serialize updates to an event.
+     */
+    public void extend(int index, long endMillis, int occurrences) {
+        if (index < 0 || index >= published.get()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + published.get());
+        }
+        Segment segment = segments.get()[segmentOf(index)];
+        int slot = slotOf(index);
+        Runs runs = segment.runs();
+        runs.ends[slot] = endMillis;
+        // Volatile write; publishes the end time to readers that see the new count
+        runs.occurrences.set(slot, occurrences);
+    }
+
+    /**
+     * Occurrences covered by the published event at {@code index}
+     */
+    public int occurrences(int index) {
+        Runs runs = segments.get()[segmentOf(index)].runs;
+        return runs != null ? Math.max(1, runs.occurrences.get(slotOf(index))) : 1;
+    }
+
+    /**
+     * Number of events visible to readers
+     */
+    public int size() {
+        return published.get();
+    }
+
+    /**
+     * Read-only view of every event published so far
+     */
+    public List<DetectionEvent> snapshot() {
+        // Read the size first: every segment below it was installed before it was published
+        int size = published.get();
+        return new Snapshot(segments.get(), size);
+    }
+
+    /**
+     * Visit the events in {@code [from, to)} in order; {@code to} must not exceed {@link #size()}
+     */
+    public <E extends Exception> void forEach(int from, int to, EventVisitor<E> visitor) throws E {
+        if (from < 0 || to > published.get() || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") of " + published.get());
+        }
+        Segment[] directory = segments.get();
+        for (int index = from; index < to; index++) {
+            Segment segment = directory[segmentOf(index)];
+            int slot = slotOf(index);
+            long timestamp = segment.timestamps[slot];
+            Runs runs = segment.runs;
+            int occurrences = runs != null ? runs.occurrences.get(slot) : 0;
+            visitor.visit(segment.ids[slot],
+                    eventTypes.decode(segment.types.get(slot) - 2),
+                    messages.decode(segment.messages[slot]),
+                    severities.decode(segment.severities[slot]),
+                    timestamp,
+                    occurrences > 1 ? runs.ends[slot] : timestamp,
+                    Math.max(1, occurrences));
+        }
+    }
+
+    /**
+     * Approximate heap used by the columns and dictionaries, for capacity planning
+     */
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (Segment segment : segments.get()) {
+            bytes += segment.capacity() * Segment.SLOT_BYTES
+                    + (segment.runs != null ? segment.capacity() * Runs.SLOT_BYTES : 0);
+        }
+        return bytes + (eventTypes.size() + severities.size() + messages.size()) * 64L;
+    }
+
+    /**
+     * Whether {@code events} is a {@link #snapshot()} of this log, and so keeps it reachable
+     */
+    boolean backs(List<DetectionEvent> events) {
+        return events instanceof SessionEventLog.Snapshot snapshot && snapshot.owner() == this;
+    }
+
+    /**
+     * Approximate heap kept reachable by a list of events: the whole log behind a
+     * {@link #snapshot()}, otherwise the event objects themselves
+     */
+    static long estimatedBytes(List<DetectionEvent> events) {
+        if (events instanceof SessionEventLog.Snapshot snapshot) {
+            return snapshot.owner().estimatedBytes();
+        }
+        return events.size() * EVENT_OBJECT_BYTES;
+    }
+
+    private void write(int index, DetectionEvent event) {
+        LocalDateTime timestamp = event.getTimestamp();
+        if (event.getOccurrences() > 1) {
+            // Written before the type column publishes the slot
+            Runs runs = segmentFor(index).runs();
+            runs.ends[slotOf(index)] = event.getEndTimestamp() != null
+                    ? toEpochMillis(event.getEndTimestamp()) : NULL_LONG;
+            runs.occurrences.set(slotOf(index), event.getOccurrences());
+        }
+        write(index,
+                event.getId() != null ? event.getId() : NULL_LONG,
+                event.getEventType(),
+                event.getMessage(),
+                event.getSeverity(),
+                timestamp != null ? toEpochMillis(timestamp) : NULL_LONG);
+    }
+
+    private void write(int index, long id, String eventType, String message, String severity, long timestampMillis) {
+        Segment segment = segmentFor(index);
+        int slot = slotOf(index);
+        segment.ids[slot] = id;
+        segment.timestamps[slot] = timestampMillis;
+        segment.severities[slot] = severities.encode(severity);
+        segment.messages[slot] = messages.encode(message);
+        // The type column doubles as the fill marker (code + 2, so 0 means empty and a
+        // null type is 1); its volatile write publishes the plain writes above to anyone
+        // who sees the slot filled
+        segment.types.set(slot, eventTypes.encode(eventType) + 2);
+    }
+
+    /**
+     * Move the published size over every filled slot. Any writer may advance it, so a
+     * writer that is descheduled between claiming and filling its slot only delays
+     * visibility of later slots until it fills its own, and never blocks other writers.
+     * A writer that stops at an empty predecessor is covered by that predecessor, which
+     * sees our filled slot when it advances (slot writes and reads are volatile).
+     */
+    private void advancePublished() {
+        while (true) {
+            int current = published.get();
+            if (current >= claimed.get()) {
+                return;
+            }
+            Segment[] directory = segments.get();
+            int segment = segmentOf(current);
+            if (segment >= directory.length || directory[segment].types.get(slotOf(current)) == 0) {
+                return;
+            }
+            published.compareAndSet(current, current + 1);
+        }
+    }
+
+    private Segment segmentFor(int index) {
+        int segment = segmentOf(index);
+        while (true) {
+            Segment[] current = segments.get();
+            if (segment < current.length) {
+                return current[segment];
+            }
+
+            // Grow the directory; existing segments are shared, so concurrent writers
+            // holding an older directory still write into the same segment objects.
+            Segment[] grown = Arrays.copyOf(current, segment + 1);
+            for (int i = current.length; i < grown.length; i++) {
+                grown[i] = new Segment(capacityOf(i));
+            }
+            segments.compareAndSet(current, grown);
+        }
+    }
+
+    private DetectionEvent decode(Segment[] directory, int index) {
+        Segment segment = directory[segmentOf(index)];
+        int slot = slotOf(index);
+
+        DetectionEvent event = new DetectionEvent();
+        long id = segment.ids[slot];
+        long timestamp = segment.timestamps[slot];
+        event.setId(id != NULL_LONG ? id : null);
+        event.setEventType(eventTypes.decode(segment.types.get(slot) - 2));
+        event.setMessage(messages.decode(segment.messages[slot]));
+        event.setSeverity(severities.decode(segment.severities[slot]));
+        LocalDateTime time = timestamp != NULL_LONG ? toLocalDateTime(timestamp) : null;
+        event.setTimestamp(time);
+        event.setSessionId(sessionId);
+        Runs runs = segment.runs;
+        int occurrences = runs != null ? runs.occurrences.get(slot) : 0;
+        if (occurrences > 1) {
+            long end = runs.ends[slot];
+            event.setEndTimestamp(end != NULL_LONG ? toLocalDateTime(end) : null);
+            event.setOccurrences(occurrences);
+        } else {
+            event.setEndTimestamp(time);
+        }
+        return event;
+    }
+
+    private static int segmentOf(int index) {
+        if (index >= SEGMENT_SIZE) {
+            return SMALL_SEGMENTS - 1 + (index >>> SEGMENT_SHIFT);
+        }
+        // 0 for the first 16 slots, then one segment per power of two
+        return Math.max(0, 31 - Integer.numberOfLeadingZeros(index) - FIRST_SHIFT + 1);
+    }
+
+    private static int slotOf(int index) {
+        if (index >= SEGMENT_SIZE) {
+            return index & SEGMENT_MASK;
+        }
+        return index < (1 << FIRST_SHIFT) ? index : index - Integer.highestOneBit(index);
+    }
+
+    private static int capacityOf(int segment) {
+        if (segment >= SMALL_SEGMENTS) {
+            return SEGMENT_SIZE;
+        }
+        return segment == 0 ? 1 << FIRST_SHIFT : 1 << (FIRST_SHIFT + segment - 1);
+    }
+
+    static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZONE);
+    }
+
+    private static final class Segment {
+        // 8 (id) + 8 (timestamp) + 4 (type) + 4 (severity) + 4 (message) bytes per slot
+        private static final long SLOT_BYTES = 28L;
+
+        private final long[] ids;
+        private final long[] timestamps;
+        private final AtomicIntegerArray types;
+        private final int[] severities;
+        private final int[] messages;
+        private volatile Runs runs;
+
+        private Segment(int capacity) {
+            ids = new long[capacity];
+            timestamps = new long[capacity];
+            types = new AtomicIntegerArray(capacity);
+            severities = new int[capacity];
+            messages = new int[capacity];
+        }
+
+        private int capacity() {
+            return ids.length;
+        }
+
+        private Runs runs() {
+            Runs current = runs;
+            if (current == null) {
+                synchronized (this) {
+                    current = runs;
+                    if (current == null) {
+                        current = new Runs(capacity());
+                        runs = current;
+                    }
+                }
+            }
+            return current;
+        }
+    }
+
+    /**
+     * End time and occurrence count of coalesced runs; 0 occurrences means a single event
+     */
+    private static final class Runs {
+        private static final long SLOT_BYTES = 12L;
+
+        private final long[] ends;
+        private final AtomicIntegerArray occurrences;
+
+        private Runs(int capacity) {
+            ends = new long[capacity];
+            occurrences = new AtomicIntegerArray(capacity);
+        }
+    }
+
+    private final class Snapshot extends AbstractList<DetectionEvent> implements RandomAccess {
+        private final Segment[] directory;
+        private final int size;
+
+        private Snapshot(Segment[] directory, int size) {
+            this.directory = directory;
+            this.size = size;
+        }
+
+        @Override
+        public DetectionEvent get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return decode(directory, index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        private SessionEventLog owner() {
+            return SessionEventLog.this;
+        }
+    }
+}
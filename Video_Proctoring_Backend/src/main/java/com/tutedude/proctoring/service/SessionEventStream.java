@@ -0,0 +1,307 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.config.ExecutionMode;
+import com.tutedude.proctoring.model.DetectionEvent;
+import com.tutedude.proctoring.model.InterviewSession;
+import com.tutedude.proctoring.model.ScoreUpdate;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes new detection events and score changes of a session to Server-Sent Events subscribers.
+ *
+ * Subscribers do not get their own copy of the events. Each one keeps a cursor into the
+ * session's {@link SessionEventLog}, and ingestion only signals that the log has grown;
+ * a dispatcher thread then sends everything between the cursor and the end of the log as
+ * one {@code events} message, followed by a {@code score} message when the score changed.
+ * Many appends that land while a subscriber is being written to collapse into a single
+ * delivery.
+ *
+ * A subscriber never has more than {@code buffer-size} events pending. When a slow
+ * consumer falls further behind, the oldest pending events are skipped and a {@code gap}
+ * message tells the client which index the stream resumes at, so it can re-read the
+ * missing range with a regular GET. Ingestion never waits on subscribers.
+ *
+ * Writes to a client block until its socket accepts them, so every subscriber's delivery
+ * runs on its own dispatcher thread: the pool starts threads as deliveries arrive rather
+ * than queueing them behind a stalled write. A subscriber whose write has not finished
+ * within {@code send-timeout-ms} is closed with an error, which drops the connection and
+ * gives its thread back.
+ */
+@Component
+public class SessionEventStream {
+
+    private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final long sendTimeoutMs;
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService watchdog;
+
+    public SessionEventStream(@Value("${app.proctoring.stream.buffer-size:1000}") int bufferSize,
+                              @Value("${app.proctoring.stream.timeout-ms:1800000}") long timeoutMs,
+                              @Value("${app.proctoring.stream.dispatch-threads:256}") int dispatchThreads,
+                              @Value("${app.proctoring.stream.send-timeout-ms:10000}") long sendTimeoutMs,
+                              ExecutionMode executionMode) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Stream buffer size must be positive: " + bufferSize);
+        }
+        if (dispatchThreads < 1) {
+            throw new IllegalArgumentException("Stream dispatch threads must be positive: " + dispatchThreads);
+        }
+        if (sendTimeoutMs < 1) {
+            throw new IllegalArgumentException("Stream send timeout must be positive: " + sendTimeoutMs);
+        }
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        // In virtual mode each delivery gets its own thread; in platform mode only dispatchThreads
+        // stalled writes at once can make other deliveries wait
+        this.dispatcher = executionMode.newElasticExecutor("session-stream-", dispatchThreads);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-stream-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, sendTimeoutMs / 2);
+        watchdog.scheduleWithFixedDelay(this::closeStalledSubscribers, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open a stream of the session's events starting at {@code fromIndex}
+     */
+    public SseEmitter subscribe(InterviewSession session, SessionEventLog log, SessionAggregate aggregate,
+                                int fromIndex) {
+        return register(session, log, aggregate, new SseEmitter(timeoutMs), fromIndex);
+    }
+
+    SseEmitter register(InterviewSession session, SessionEventLog log, SessionAggregate aggregate,
+                        SseEmitter emitter, int fromIndex) {
+        String sessionId = session.getSessionId();
+        Subscriber subscriber = new Subscriber(session, log, aggregate, emitter, fromIndex);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        subscribers.compute(sessionId, (key, list) -> {
+            List<Subscriber> current = list != null ? list : new CopyOnWriteArrayList<>();
+            current.add(subscriber);
+            return current;
+        });
+        // Sends the initial score, plus any backlog requested by the client
+        subscriber.signal();
+        return emitter;
+    }
+
+    /**
+     * Notify subscribers that new events were published to the session's log
+     */
+    public void eventsAppended(String sessionId) {
+        List<Subscriber> list = subscribers.get(sessionId);
+        if (list != null) {
+            for (Subscriber subscriber : list) {
+                subscriber.signal();
+            }
+        }
+    }
+
+    /**
+     * Deliver the remaining events of an ended session, then close its streams
+     */
+    public void sessionEnded(String sessionId) {
+        eventsAppended(sessionId);
+    }
+
+    /**
+     * Send the session's score again after it was re-scored under a new policy
+     */
+    public void scoreChanged(String sessionId) {
+        eventsAppended(sessionId);
+    }
+
+    /**
+     * Close the streams of a removed session without delivering anything more
+     */
+    public void sessionRemoved(String sessionId) {
+        List<Subscriber> list = subscribers.remove(sessionId);
+        if (list != null) {
+            for (Subscriber subscriber : list) {
+                subscriber.complete();
+            }
+        }
+    }
+
+    public int getSubscriberCount(String sessionId) {
+        List<Subscriber> list = subscribers.get(sessionId);
+        return list != null ? list.size() : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (String sessionId : subscribers.keySet()) {
+            sessionRemoved(sessionId);
+        }
+        watchdog.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
+    private void closeStalledSubscribers() {
+        long now = System.nanoTime();
+        for (List<Subscriber> list : subscribers.values()) {
+            for (Subscriber subscriber : list) {
+                long started = subscriber.sendStarted;
+                if (started != 0 && now - started > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs)) {
+                    subscriber.fail(new IOException("Stream client did not read for " + sendTimeoutMs + " ms"));
+                }
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.session.getSessionId(), (key, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private final class Subscriber implements Runnable {
+        private final InterviewSession session;
+        private final SessionEventLog log;
+        private final SessionAggregate aggregate;
+        private final SseEmitter emitter;
+        // Number of signals not yet handled; only the thread that moves it off zero schedules a run
+        private final AtomicInteger pending = new AtomicInteger();
+
+        // Only touched by the single dispatcher run in progress
+        private int cursor;
+        private int lastTotal = -1;
+        private int lastScore = -1;
+
+        private volatile boolean closed;
+        // System.nanoTime() when the write in progress began, 0 between writes
+        private volatile long sendStarted;
+
+        private Subscriber(InterviewSession session, SessionEventLog log, SessionAggregate aggregate,
+                           SseEmitter emitter, int fromIndex) {
+            this.session = session;
+            this.log = log;
+            this.aggregate = aggregate;
+            this.emitter = emitter;
+            this.cursor = fromIndex;
+        }
+
+        void signal() {
+            if (!closed && pending.getAndIncrement() == 0) {
+                try {
+                    dispatcher.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    close();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int signals = pending.get();
+            while (!closed) {
+                try {
+                    deliver();
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away or the emitter already completed
+                    close();
+                    return;
+                }
+                signals = pending.addAndGet(-signals);
+                if (signals == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void deliver() throws IOException {
+            // Read the status first: once it is no longer active, the log below is final
+            boolean ended = !"ACTIVE".equals(session.getStatus());
+            List<DetectionEvent> events = log.snapshot();
+            int size = events.size();
+
+            if (size - cursor > bufferSize) {
+                int resumeIndex = size - bufferSize;
+                Map<String, Object> gap = new LinkedHashMap<>();
+                gap.put("skipped", resumeIndex - cursor);
+                gap.put("resumeIndex", resumeIndex);
+                send(SseEmitter.event().name("gap").data(gap));
+                cursor = resumeIndex;
+            }
+
+            if (cursor < size) {
+                Map<String, Object> batch = new LinkedHashMap<>();
+                batch.put("fromIndex", cursor);
+                batch.put("events", events.subList(cursor, size));
+                send(SseEmitter.event()
+                        .id(Integer.toString(size - 1))
+                        .name("events")
+                        .data(batch));
+                cursor = size;
+            }
+
+            int total = aggregate.getTotalEvents();
+            int score = aggregate.getIntegrityScore();
+            if (total != lastTotal || score != lastScore) {
+                send(SseEmitter.event().name("score").data(new ScoreUpdate(
+                        session.getSessionId(), total, aggregate.getDangerEvents(), aggregate.getWarningEvents(),
+                        score, lastScore < 0 ? 0 : score - lastScore)));
+                lastTotal = total;
+                lastScore = score;
+            }
+
+            if (ended) {
+                send(SseEmitter.event().name("end").data(session.getStatus()));
+                complete();
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendStarted = Math.max(1, System.nanoTime());
+            try {
+                emitter.send(event);
+            } finally {
+                sendStarted = 0;
+            }
+        }
+
+        void fail(Throwable error) {
+            if (!closed) {
+                close();
+                emitter.completeWithError(error);
+            }
+        }
+
+        void complete() {
+            if (!closed) {
+                close();
+                emitter.complete();
+            }
+        }
+
+        void close() {
+            closed = true;
+            remove(this);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tutedude.proctoring.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Idle-timeout deadlines of active sessions, ordered by deadline.
+ *
+ * Deadlines are not moved on every event. A session has one entry, and when it comes
+ * due the caller compares it with the session's last activity: an idle session is
+ * expired, a busy one is scheduled again at its last activity plus the timeout. A busy
+ * session therefore costs one O(log n) re-insert per timeout period instead of one per
+ * event, and entries of sessions that ended some other way are dropped when they come due.
+ */
+class SessionExpiryQueue {
+
+    private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>();
+
+    void schedule(String sessionId, long deadlineMillis) {
+        entries.add(new Entry(deadlineMillis, sessionId));
+    }
+
+    /**
+     * Remove and return up to {@code max} sessions whose deadline is not after {@code nowMillis}
+     */
+    List<String> pollDue(long nowMillis, int max) {
+        List<String> due = new ArrayList<>();
+        while (due.size() < max) {
+            Entry first = entries.pollFirst();
+            if (first == null) {
+                break;
+            }
+            if (first.deadlineMillis > nowMillis) {
+                entries.add(first);
+                break;
+            }
+            due.add(first.sessionId);
+        }
+        return due;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private record Entry(long deadlineMillis, String sessionId) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int byDeadline = Long.compare(deadlineMillis, other.deadlineMillis);
+            return byDeadline != 0 ? byDeadline : sessionId.compareTo(other.sessionId);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.InterviewSession;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Secondary indexes over the session store: all sessions by start time, and the same
+ * ordering per status and per candidate name, plus a counter per status.
+ *
+ * Every index is a sorted map keyed by {@link SessionKey}, so counts are O(1) and a
+ * filtered or time-bounded walk costs O(log n + k) whichever index it starts from.
+ * Callers must report every lifecycle transition: {@link #add} on start,
+ * {@link #statusChanged} after the status field changes, {@link #remove} on delete.
+ * Status moves and removal of the same session lock the session object, so a move
+ * never puts back a session that was removed in between.
+ */
+class SessionIndex {
+
+    private static final NavigableMap<SessionKey, InterviewSession> EMPTY = Collections.emptyNavigableMap();
+
+    private final ConcurrentNavigableMap<SessionKey, InterviewSession> byStart = new ConcurrentSkipListMap<>();
+    private final Map<String, StatusBucket> byStatus = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentNavigableMap<SessionKey, InterviewSession>> byCandidate = new ConcurrentHashMap<>();
+
+    void add(InterviewSession session) {
+        SessionKey key = SessionKey.of(session);
+        byStart.put(key, session);
+        statusBucket(session.getStatus()).add(key, session);
+        byCandidate.compute(candidateKey(session.getCandidateName()), (name, sessions) -> {
+            ConcurrentNavigableMap<SessionKey, InterviewSession> current =
+                    sessions != null ? sessions : new ConcurrentSkipListMap<>();
+            current.put(key, session);
+            return current;
+        });
+    }
+
+    void statusChanged(InterviewSession session, String previousStatus) {
+        if (previousStatus == null || previousStatus.equals(session.getStatus())) {
+            return;
+        }
+        SessionKey key = SessionKey.of(session);
+        synchronized (session) {
+            if (!byStart.containsKey(key)) {
+                // Removed concurrently
+                return;
+            }
+            statusBucket(session.getStatus()).add(key, session);
+            statusBucket(previousStatus).remove(key);
+        }
+    }
+
+    void remove(InterviewSession session) {
+        SessionKey key = SessionKey.of(session);
+        synchronized (session) {
+            byStart.remove(key);
+            for (StatusBucket bucket : byStatus.values()) {
+                bucket.remove(key);
+            }
+        }
+        byCandidate.computeIfPresent(candidateKey(session.getCandidateName()), (name, sessions) -> {
+            sessions.remove(key);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    /**
+     * Number of sessions currently in the given status
+     */
+    int count(String status) {
+        StatusBucket bucket = byStatus.get(statusKey(status));
+        return bucket != null ? bucket.size.get() : 0;
+    }
+
+    int size() {
+        return byStart.size();
+    }
+
+    NavigableMap<SessionKey, InterviewSession> all() {
+        return byStart;
+    }
+
+    NavigableMap<SessionKey, InterviewSession> withStatus(String status) {
+        StatusBucket bucket = byStatus.get(statusKey(status));
+        return bucket != null ? bucket.sessions : EMPTY;
+    }
+
+    /**
+     * Sessions of a candidate, matched on the trimmed name regardless of case
+     */
+    NavigableMap<SessionKey, InterviewSession> forCandidate(String candidateName) {
+        NavigableMap<SessionKey, InterviewSession> sessions = byCandidate.get(candidateKey(candidateName));
+        return sessions != null ? sessions : EMPTY;
+    }
+
+    /**
+     * Key range of sessions that started before the given time
+     */
+    static SessionKey startedBefore(long epochMillis) {
+        return new SessionKey(epochMillis, SessionKey.MIN_ID);
+    }
+
+    private StatusBucket statusBucket(String status) {
+        return byStatus.computeIfAbsent(statusKey(status), k -> new StatusBucket());
+    }
+
+    private static String statusKey(String status) {
+        return status.toUpperCase(Locale.ROOT);
+    }
+
+    private static String candidateKey(String candidateName) {
+        return candidateName == null ? "" : candidateName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class StatusBucket {
+        private final ConcurrentNavigableMap<SessionKey, InterviewSession> sessions = new ConcurrentSkipListMap<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        void add(SessionKey key, InterviewSession session) {
+            if (sessions.put(key, session) == null) {
+                size.incrementAndGet();
+            }
+        }
+
+        void remove(SessionKey key) {
+            if (sessions.remove(key) != null) {
+                size.decrementAndGet();
+            }
+        }
+    }
+}
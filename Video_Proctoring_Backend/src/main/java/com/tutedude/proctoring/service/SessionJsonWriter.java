@@ -0,0 +1,177 @@
+package com.tutedude.proctoring.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.tutedude.proctoring.model.InterviewSession;
+import com.tutedude.proctoring.model.ProctoringReport;
+import com.tutedude.proctoring.model.SessionSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes reports and session dumps straight from the event logs to an output stream.
+ *
+ * Events go from the log's columns into a {@link JsonGenerator} one at a time, so a
+ * request holds no more than the generator's buffer however long the session is; an
+ * archived session's events are decoded from the cold tier one chunk at a time. The
+ * documents have the same fields as the {@link ProctoringReport} and
+ * {@link InterviewSession} JSON, with the event array written last.
+ */
+@Component
+public class SessionJsonWriter {
+
+    /**
+     * A session's events, visited in the order they were recorded
+     */
+    @FunctionalInterface
+    public interface EventSource {
+        void forEach(SessionEventLog.EventVisitor<IOException> visitor) throws IOException;
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Write the session's report as one JSON object
+     */
+    public void writeReport(OutputStream out, InterviewSession session, EventSource events,
+                            SessionAggregate aggregate) throws IOException {
+        // Built from the running counters; its event list is never read
+        ProctoringReport report = aggregate.toReport(new SessionSnapshot(session, List.of()));
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.writeStartObject();
+            writeReportFields(generator, report);
+            writeEvents(generator, new Timestamps(), session.getSessionId(), events);
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Reports without their event lists, as newline-delimited JSON
+     */
+    ReportRowWriter reportLines(OutputStream out) throws IOException {
+        JsonGenerator generator = createGenerator(out);
+        generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+        return new ReportRowWriter() {
+            @Override
+            public void write(ProctoringReport report) throws IOException {
+                generator.writeStartObject();
+                writeReportFields(generator, report);
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+
+            @Override
+            public void flush() throws IOException {
+                generator.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                generator.close();
+            }
+        };
+    }
+
+    /**
+     * Write each session, with its events, as one line of newline-delimited JSON
+     */
+    public void writeSessions(OutputStream out, Iterable<InterviewSession> sessions,
+                              Function<String, EventSource> eventSources) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+            Timestamps timestamps = new Timestamps();
+            for (InterviewSession session : sessions) {
+                generator.writeStartObject();
+                generator.writeStringField("sessionId", session.getSessionId());
+                generator.writeStringField("candidateName", session.getCandidateName());
+                generator.writeObjectField("startTime", session.getStartTime());
+                generator.writeObjectField("endTime", session.getEndTime());
+                generator.writeStringField("status", session.getStatus());
+                generator.writeNumberField("durationInSeconds", session.getDurationInSeconds());
+                generator.writeStringField("scoringPolicy", session.getScoringPolicy());
+                writeEvents(generator, timestamps, session.getSessionId(), eventSources.apply(session.getSessionId()));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private void writeReportFields(JsonGenerator generator, ProctoringReport report) throws IOException {
+        generator.writeStringField("sessionId", report.getSessionId());
+        generator.writeStringField("candidateName", report.getCandidateName());
+        generator.writeObjectField("sessionDate", report.getSessionDate());
+        generator.writeNumberField("durationInSeconds", report.getDurationInSeconds());
+        generator.writeNumberField("integrityScore", report.getIntegrityScore());
+        generator.writeStringField("overallRating", report.getOverallRating());
+        generator.writeStringField("scoringPolicy", report.getScoringPolicy());
+        generator.writeObjectField("eventSummary", report.getEventSummary());
+        generator.writeNumberField("totalEvents", report.getTotalEvents());
+        generator.writeNumberField("dangerEvents", report.getDangerEvents());
+        generator.writeNumberField("warningEvents", report.getWarningEvents());
+    }
+
+    private void writeEvents(JsonGenerator generator, Timestamps timestamps, String sessionId,
+                             EventSource events) throws IOException {
+        generator.writeArrayFieldStart("detectionEvents");
+        if (events != null) {
+            events.forEach((id, eventType, message, severity, timestampMillis, endMillis, occurrences) -> {
+                generator.writeStartObject();
+                if (id != SessionEventLog.NULL_LONG) {
+                    generator.writeNumberField("id", id);
+                } else {
+                    generator.writeNullField("id");
+                }
+                generator.writeStringField("eventType", eventType);
+                generator.writeStringField("message", message);
+                generator.writeStringField("severity", severity);
+                generator.writeFieldName("timestamp");
+                timestamps.write(generator, timestampMillis);
+                generator.writeStringField("sessionId", sessionId);
+                generator.writeFieldName("endTimestamp");
+                timestamps.write(generator, endMillis);
+                generator.writeNumberField("occurrences", occurrences);
+                generator.writeEndObject();
+            });
+        }
+        generator.writeEndArray();
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        // Leave the response stream open for the servlet container to finish
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    /**
+     * The application's LocalDateTime serializer, resolved once per document; going
+     * through writeObject would set up a serializer provider for every event
+     */
+    private final class Timestamps {
+        private final SerializerProvider provider = objectMapper.getSerializerProviderInstance();
+        private final JsonSerializer<Object> serializer;
+
+        private Timestamps() throws IOException {
+            serializer = provider.findValueSerializer(LocalDateTime.class);
+        }
+
+        void write(JsonGenerator generator, long timestampMillis) throws IOException {
+            if (timestampMillis == SessionEventLog.NULL_LONG) {
+                generator.writeNull();
+            } else {
+                serializer.serialize(SessionEventLog.toLocalDateTime(timestampMillis), generator, provider);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.InterviewSession;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a session in start-time order; the session ID breaks ties.
+ * Encodes to the opaque cursor used for keyset pagination.
+ */
+record SessionKey(long startMillis, String sessionId) implements Comparable<SessionKey> {
+
+    static final String MIN_ID = "";
+    static final String MAX_ID = "\uffff";
+
+    static SessionKey of(InterviewSession session) {
+        return new SessionKey(SessionEventLog.toEpochMillis(session.getStartTime()), session.getSessionId());
+    }
+
+    @Override
+    public int compareTo(SessionKey other) {
+        int byTime = Long.compare(startMillis, other.startMillis);
+        return byTime != 0 ? byTime : sessionId.compareTo(other.sessionId);
+    }
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((startMillis + ":" + sessionId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SessionKey decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(':');
+            return new SessionKey(Long.parseLong(value.substring(0, separator)), value.substring(separator + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
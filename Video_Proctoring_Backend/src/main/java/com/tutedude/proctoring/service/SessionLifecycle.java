@@ -0,0 +1,112 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.SessionStatus;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lifecycle of one session as a single atomic word: the {@link SessionStatus} in the top
+ * bits and the number of appends in progress below them.
+ *
+ * An append enters only while the session is ACTIVE and leaves once its events are
+ * stored, journaled and counted. Ending a session moves it to ENDING with one CAS, which
+ * turns away every later append, then waits for the appends already inside to leave, so
+ * whatever is read from the session after {@link #seal} returns is final. No lock is
+ * taken: an append costs two atomic updates on a word only that session's writers touch.
+ */
+final class SessionLifecycle {
+
+    private static final int STATE_SHIFT = 28;
+    private static final int IN_FLIGHT_MASK = (1 << STATE_SHIFT) - 1;
+    private static final SessionStatus[] STATES = SessionStatus.values();
+
+    // Busy-wait this many times for in-flight appends, then yield, then park
+    private static final int SPINS = 100;
+    private static final int YIELDS = 100;
+    private static final long PARK_NANOS = 10_000;
+
+    private final AtomicInteger word;
+
+    SessionLifecycle() {
+        this.word = new AtomicInteger(pack(SessionStatus.ACTIVE));
+    }
+
+    SessionStatus status() {
+        return STATES[word.get() >>> STATE_SHIFT];
+    }
+
+    /**
+     * Register an append; false when the session no longer accepts events. Every
+     * successful call must be paired with {@link #exit}.
+     */
+    boolean tryEnter() {
+        int current = word.get();
+        while (current >>> STATE_SHIFT == SessionStatus.ACTIVE.ordinal()) {
+            if (word.compareAndSet(current, current + 1)) {
+                return true;
+            }
+            current = word.get();
+        }
+        return false;
+    }
+
+    void exit() {
+        word.decrementAndGet();
+    }
+
+    /**
+     * Move an active session to ENDING and wait until no append is in progress. False,
+     * without waiting, when the session was not active; only the caller that got true may
+     * {@link #finish} it.
+     */
+    boolean seal() {
+        int current = word.get();
+        while (true) {
+            if (current >>> STATE_SHIFT != SessionStatus.ACTIVE.ordinal()) {
+                return false;
+            }
+            if (word.compareAndSet(current, pack(SessionStatus.ENDING) | (current & IN_FLIGHT_MASK))) {
+                break;
+            }
+            current = word.get();
+        }
+        drain();
+        return true;
+    }
+
+    /**
+     * Wait until no append is in progress. Only useful once the session has left ACTIVE,
+     * as nothing stops new appends before that.
+     */
+    void drain() {
+        for (int attempt = 0; (word.get() & IN_FLIGHT_MASK) != 0; attempt++) {
+            if (attempt < SPINS) {
+                Thread.onSpinWait();
+            } else if (attempt < SPINS + YIELDS) {
+                Thread.yield();
+            } else {
+                // An append may be waiting on a journal fsync
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Set the final state of a sealed session, or of a session being replayed
+     */
+    void finish(SessionStatus status) {
+        if (!status.isFinal()) {
+            throw new IllegalArgumentException("Not a final session status: " + status);
+        }
+        word.set(pack(status));
+    }
+
+    int inFlight() {
+        return word.get() & IN_FLIGHT_MASK;
+    }
+
+    private static int pack(SessionStatus status) {
+        return status.ordinal() << STATE_SHIFT;
+    }
+}
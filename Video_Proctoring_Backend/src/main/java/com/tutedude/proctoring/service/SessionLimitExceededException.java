@@ -0,0 +1,11 @@
+package com.tutedude.proctoring.service;
+
+/**
+ * Thrown when starting a session would exceed {@code app.proctoring.max-concurrent-sessions}
+ */
+public class SessionLimitExceededException extends IllegalStateException {
+
+    public SessionLimitExceededException(int maxConcurrentSessions) {
+        super("Maximum number of concurrent sessions reached: " + maxConcurrentSessions);
+    }
+}
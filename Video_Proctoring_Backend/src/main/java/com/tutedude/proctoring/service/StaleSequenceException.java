@@ -0,0 +1,13 @@
+package com.tutedude.proctoring.service;
+
+/**
+ * Thrown when an event's sequence number has fallen below the session's dedup window,
+ * so it can no longer be told whether the event was already stored
+ */
+public class StaleSequenceException extends IllegalArgumentException {
+
+    public StaleSequenceException(String sessionId, long sequence, long highest, int window) {
+        super("Sequence " + sequence + " of session " + sessionId + " is older than the last " + window
+                + " (highest accepted: " + highest + ")");
+    }
+}
@@ -0,0 +1,104 @@
+package com.tutedude.proctoring.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only string dictionary used to store repeated strings as int codes.
+ *
+ * A dictionary may be seeded with a shared, fixed list of well-known values (for
+ * example the {@code EventType} names), which then always encode to their seed
+ * index without any per-dictionary state. Other values get codes after the seed.
+ */
+class StringDictionary {
+
+    static final int NULL_CODE = -1;
+
+    private final Seed seed;
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[0];
+    private int size;
+
+    StringDictionary() {
+        this(Seed.EMPTY);
+    }
+
+    StringDictionary(Seed seed) {
+        this.seed = seed;
+    }
+
+    int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = seed.codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        return add(value);
+    }
+
+    String decode(int code) {
+        if (code == NULL_CODE) {
+            return null;
+        }
+        if (code < seed.values.length) {
+            return seed.values[code];
+        }
+        return values[code - seed.values.length];
+    }
+
+    /**
+     * Number of values added on top of the seed
+     */
+    int size() {
+        return codes.size();
+    }
+
+    private synchronized int add(String value) {
+        Integer existing = codes.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        String[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, Math.max(4, current.length * 2));
+        }
+        current[size] = value;
+        // Publish the array before the code so any decoder that holds the code sees the value
+        values = current;
+        int code = seed.values.length + size++;
+        codes.put(value, code);
+        return code;
+    }
+
+    /**
+     * Shared, immutable set of values with fixed codes
+     */
+    static final class Seed {
+        static final Seed EMPTY = new Seed(new String[0]);
+
+        private final String[] values;
+        private final Map<String, Integer> codes;
+
+        Seed(String[] values) {
+            this.values = values.clone();
+            Map<String, Integer> codes = new HashMap<>();
+            for (int i = 0; i < values.length; i++) {
+                codes.put(values[i], i);
+            }
+            this.codes = Collections.unmodifiableMap(codes);
+        }
+
+        int size() {
+            return values.length;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.EventType;
+import com.tutedude.proctoring.model.Severity;
+import com.tutedude.proctoring.model.TimelineBucket;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Event counts per fixed-width time bucket over a sliding window, for one session.
+ *
+ * Buckets live in a ring of {@code capacity} slots indexed by bucket number modulo the
+ * capacity. A slot is only ever replaced by a bucket for a later period, with a single
+ * compare-and-set, so recording is lock-free and an event older than the window is
+ * dropped instead of landing in a newer bucket. Queries walk the ring once: their cost
+ * depends on the number of buckets, never on the number of events.
+ */
+final class TimelineRollup {
+
+    // Counters per bucket: one per known event type, one for any other type, one per severity
+    private static final int OTHER_TYPE = EventType.count();
+    private static final int SEVERITY_BASE = OTHER_TYPE + 1;
+    private static final int COUNTERS = SEVERITY_BASE + Severity.values().length;
+    private static final String OTHER = "OTHER";
+
+    private final long widthMillis;
+    private final AtomicReferenceArray<Bucket> ring;
+
+    TimelineRollup(long widthMillis, int capacity) {
+        if (widthMillis < 1 || capacity < 1) {
+            throw new IllegalArgumentException("Invalid timeline of " + capacity + " x " + widthMillis + " ms");
+        }
+        this.widthMillis = widthMillis;
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+
+    long getWidthMillis() {
+        return widthMillis;
+    }
+
+    void record(long timestampMillis, EventType type, Severity severity) {
+        long number = Math.floorDiv(timestampMillis, widthMillis);
+        int slot = (int) Math.floorMod(number, (long) ring.length());
+        Bucket bucket = ring.get(slot);
+        while (bucket == null || bucket.number < number) {
+            Bucket fresh = new Bucket(number);
+            if (ring.compareAndSet(slot, bucket, fresh)) {
+                bucket = fresh;
+                break;
+            }
+            bucket = ring.get(slot);
+        }
+        if (bucket.number != number) {
+            // Older than the window
+            return;
+        }
+        bucket.counts.incrementAndGet(type != null ? type.ordinal() : OTHER_TYPE);
+        if (severity != null) {
+            bucket.counts.incrementAndGet(SEVERITY_BASE + severity.ordinal());
+        }
+    }
+
+    /**
+     * Non-empty buckets starting in {@code [fromMillis, toMillis)}, oldest first
+     */
+    List<TimelineBucket> buckets(long fromMillis, long toMillis) {
+        int capacity = ring.length();
+        long newest = Long.MIN_VALUE;
+        for (int i = 0; i < capacity; i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null && bucket.number > newest) {
+                newest = bucket.number;
+            }
+        }
+        if (newest == Long.MIN_VALUE) {
+            return List.of();
+        }
+
+        long first = Math.max(newest - capacity + 1, Math.floorDiv(fromMillis, widthMillis)
+                + (Math.floorMod(fromMillis, widthMillis) == 0 ? 0 : 1));
+        long last = Math.min(newest, Math.floorDiv(toMillis - 1, widthMillis));
+        List<TimelineBucket> result = new ArrayList<>();
+        for (long number = first; number <= last; number++) {
+            Bucket bucket = ring.get((int) Math.floorMod(number, (long) capacity));
+            if (bucket != null && bucket.number == number) {
+                TimelineBucket snapshot = bucket.snapshot(widthMillis);
+                if (snapshot.getTotalEvents() > 0) {
+                    result.add(snapshot);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static final class Bucket {
+        private final long number;
+        private final AtomicIntegerArray counts = new AtomicIntegerArray(COUNTERS);
+
+        private Bucket(long number) {
+            this.number = number;
+        }
+
+        private TimelineBucket snapshot(long widthMillis) {
+            Map<String, Integer> eventCounts = new LinkedHashMap<>();
+            int total = 0;
+            for (int i = 0; i <= OTHER_TYPE; i++) {
+                int count = counts.get(i);
+                if (count > 0) {
+                    eventCounts.put(i < OTHER_TYPE ? EventType.fromOrdinal(i).name() : OTHER, count);
+                    total += count;
+                }
+            }
+            return new TimelineBucket(SessionEventLog.toLocalDateTime(number * widthMillis), total,
+                    counts.get(SEVERITY_BASE + Severity.DANGER.ordinal()),
+                    counts.get(SEVERITY_BASE + Severity.WARNING.ordinal()),
+                    eventCounts);
+        }
+    }
+}
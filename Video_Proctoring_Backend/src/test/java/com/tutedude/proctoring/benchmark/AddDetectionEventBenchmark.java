@@ -0,0 +1,89 @@
+package com.tutedude.proctoring.benchmark;
+
+import com.tutedude.proctoring.service.ProctoringService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ProctoringService.addDetectionEvent} throughput with 1, 8 and 32 threads,
+ * each thread feeding its own session as separate candidates' clients would.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AddDetectionEventBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Service {
+		ConfigurableApplicationContext context;
+		ProctoringService proctoringService;
+
+		@Setup(Level.Trial)
+		public void start() {
+			context = BenchmarkContext.start();
+			proctoringService = context.getBean(ProctoringService.class);
+		}
+
+		@TearDown(Level.Trial)
+		public void stop() {
+			context.close();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Session {
+		String sessionId;
+		int next;
+
+		// A fresh session per iteration keeps the heap from growing across the run
+		@Setup(Level.Iteration)
+		public void start(Service service) {
+			sessionId = service.proctoringService.startSession("Benchmark Candidate");
+		}
+
+		@TearDown(Level.Iteration)
+		public void delete(Service service) {
+			service.proctoringService.deleteSession(sessionId);
+		}
+	}
+
+	@Benchmark
+	@Threads(1)
+	public void addDetectionEvent1Thread(Service service, Session session) {
+		add(service, session);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public void addDetectionEvent8Threads(Service service, Session session) {
+		add(service, session);
+	}
+
+	@Benchmark
+	@Threads(32)
+	public void addDetectionEvent32Threads(Service service, Session session) {
+		add(service, session);
+	}
+
+	private static void add(Service service, Session session) {
+		int i = session.next++;
+		service.proctoringService.addDetectionEvent(session.sessionId,
+				BenchmarkContext.sampleType(i), BenchmarkContext.sampleMessage(i), BenchmarkContext.sampleSeverity(i));
+	}
+}
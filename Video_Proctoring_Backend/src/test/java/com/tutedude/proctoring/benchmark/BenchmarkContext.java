@@ -0,0 +1,67 @@
+package com.tutedude.proctoring.benchmark;
+
+import com.tutedude.proctoring.VideoProctoringBackendApplication;
+import com.tutedude.proctoring.model.DetectionEvent;
+import com.tutedude.proctoring.service.ProctoringService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application context for benchmarks: no web server, no journal, no admission limit,
+ * no per-event logging and no scheduled eviction, so only the measured path runs.
+ */
+final class BenchmarkContext {
+
+	private static final String[][] SAMPLES = {
+			{ "LOOKING_AWAY", "Candidate looking away from screen", "WARNING" },
+			{ "NO_FACE", "No face detected", "DANGER" },
+			{ "PHONE_DETECTED", "Mobile phone detected in frame", "DANGER" },
+			{ "NOTES_DETECTED", "Notes detected", "WARNING" },
+	};
+
+	private BenchmarkContext() {
+	}
+
+	static ConfigurableApplicationContext start() {
+		return new SpringApplicationBuilder(VideoProctoringBackendApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--app.proctoring.journal.enabled=false",
+						"--app.proctoring.max-concurrent-sessions=0",
+						"--app.proctoring.logging.event-sample-rate=0",
+						"--app.proctoring.eviction.interval-ms=3600000",
+						"--logging.level.root=WARN",
+						"--logging.level.com.tutedude.proctoring=WARN");
+	}
+
+	static String sampleType(int i) {
+		return SAMPLES[i & 3][0];
+	}
+
+	static String sampleMessage(int i) {
+		return SAMPLES[i & 3][1];
+	}
+
+	static String sampleSeverity(int i) {
+		return SAMPLES[i & 3][2];
+	}
+
+	/**
+	 * Start a session holding {@code events} events, added in batches
+	 */
+	static String sessionWithEvents(ProctoringService service, String candidateName, int events) {
+		String sessionId = service.startSession(candidateName);
+		List<DetectionEvent> batch = new ArrayList<>(10_000);
+		for (int i = 0; i < events; i++) {
+			batch.add(new DetectionEvent(sampleType(i), sampleMessage(i), sampleSeverity(i), sessionId));
+			if (batch.size() == 10_000 || i == events - 1) {
+				service.addDetectionEvents(sessionId, batch);
+				batch.clear();
+			}
+		}
+		return sessionId;
+	}
+}
@@ -0,0 +1,45 @@
+package com.tutedude.proctoring.benchmark;
+
+import com.tutedude.proctoring.service.EventIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventIdGeneratorBenchmark {
+
+	private final EventIdGenerator generator = new EventIdGenerator(1);
+
+	@Benchmark
+	@Threads(1)
+	public long nextIdSingleThread() {
+		return generator.nextId();
+	}
+
+	@Benchmark
+	@Threads(32)
+	public long nextId32Threads() {
+		return generator.nextId();
+	}
+
+	@Benchmark
+	@Threads(32)
+	public long currentTimeMillis32Threads() {
+		// The previous ID scheme, for reference
+		return System.currentTimeMillis();
+	}
+}
@@ -0,0 +1,75 @@
+package com.tutedude.proctoring.benchmark;
+
+import com.tutedude.proctoring.model.ProctoringReport;
+import com.tutedude.proctoring.model.SessionSnapshot;
+import com.tutedude.proctoring.service.FullRecompute;
+import com.tutedude.proctoring.service.ProctoringService;
+import com.tutedude.proctoring.service.ScoringPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report cost versus the number of events in the session: the service's aggregated
+ * report against a full recompute over the event list, and a repeat report of an ended
+ * session served from the report cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class GenerateReportBenchmark {
+
+	@Param({ "100", "10000", "1000000" })
+	int eventCount;
+
+	ConfigurableApplicationContext context;
+	ProctoringService proctoringService;
+	String sessionId;
+	String endedSessionId;
+
+	@Setup(Level.Trial)
+	public void start() {
+		context = BenchmarkContext.start();
+		proctoringService = context.getBean(ProctoringService.class);
+		sessionId = BenchmarkContext.sessionWithEvents(proctoringService, "Report Candidate", eventCount);
+		endedSessionId = BenchmarkContext.sessionWithEvents(proctoringService, "Ended Candidate", eventCount);
+		proctoringService.endSession(endedSessionId);
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+
+	@Benchmark
+	public ProctoringReport generateReport() {
+		return proctoringService.generateReport(sessionId);
+	}
+
+	@Benchmark
+	public ProctoringReport generateEndedReport() {
+		return proctoringService.generateReport(endedSessionId);
+	}
+
+	@Benchmark
+	public ProctoringReport recomputeFromEvents() {
+		SessionSnapshot session = proctoringService.getSession(sessionId);
+		return FullRecompute.report(ScoringPolicy.defaults(), session);
+	}
+}
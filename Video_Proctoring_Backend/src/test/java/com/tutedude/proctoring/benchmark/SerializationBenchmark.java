@@ -0,0 +1,68 @@
+package com.tutedude.proctoring.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tutedude.proctoring.model.ProctoringReport;
+import com.tutedude.proctoring.model.SessionSnapshot;
+import com.tutedude.proctoring.service.ProctoringService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a session and its report with the application's ObjectMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SerializationBenchmark {
+
+	@Param({ "100", "10000" })
+	int eventCount;
+
+	ConfigurableApplicationContext context;
+	ObjectMapper objectMapper;
+	SessionSnapshot session;
+	ProctoringReport report;
+
+	@Setup(Level.Trial)
+	public void start() {
+		context = BenchmarkContext.start();
+		objectMapper = context.getBean(ObjectMapper.class);
+		ProctoringService proctoringService = context.getBean(ProctoringService.class);
+		String sessionId = BenchmarkContext.sessionWithEvents(proctoringService, "Serialization Candidate", eventCount);
+		session = proctoringService.getSession(sessionId);
+		report = proctoringService.generateReport(sessionId);
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+
+	@Benchmark
+	public byte[] serializeSession() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(session);
+	}
+
+	@Benchmark
+	public byte[] serializeReport() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(report);
+	}
+}
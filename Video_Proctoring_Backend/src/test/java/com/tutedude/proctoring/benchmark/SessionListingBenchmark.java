@@ -0,0 +1,66 @@
+package com.tutedude.proctoring.benchmark;
+
+import com.tutedude.proctoring.model.CursorPage;
+import com.tutedude.proctoring.model.SessionSnapshot;
+import com.tutedude.proctoring.model.SessionSummary;
+import com.tutedude.proctoring.service.ProctoringService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code getAllSessions} cost versus the number of stored sessions, next to one
+ * page of the paginated listing. Every session holds 10 events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SessionListingBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	int sessionCount;
+
+	ConfigurableApplicationContext context;
+	ProctoringService proctoringService;
+
+	@Setup(Level.Trial)
+	public void start() {
+		context = BenchmarkContext.start();
+		proctoringService = context.getBean(ProctoringService.class);
+		for (int i = 0; i < sessionCount; i++) {
+			BenchmarkContext.sessionWithEvents(proctoringService, "Candidate " + i, 10);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<SessionSnapshot> getAllSessions() {
+		return proctoringService.getAllSessions();
+	}
+
+	@Benchmark
+	public CursorPage<SessionSummary> listSessionsFirstPage() {
+		return proctoringService.listSessions(null, null, null, null, null, 50);
+	}
+}
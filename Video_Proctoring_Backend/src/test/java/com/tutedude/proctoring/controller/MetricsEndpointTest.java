@@ -0,0 +1,52 @@
+package com.tutedude.proctoring.controller;
+
+import com.tutedude.proctoring.service.ProctoringService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ProctoringService proctoringService;
+
+	@Test
+	void prometheusEndpointExposesProctoringMeters() throws Exception {
+		String sessionId = proctoringService.startSession("Metrics Candidate");
+		proctoringService.addDetectionEvent(sessionId, "NO_FACE", "No face detected", "DANGER");
+		proctoringService.addDetectionEvent(sessionId, "custom_signal", "Custom", "low");
+		proctoringService.generateReport(sessionId);
+		proctoringService.endSession(sessionId);
+
+		String body = mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(body).contains(
+				"proctoring_session_start_seconds_count",
+				"proctoring_session_end_seconds_count",
+				"proctoring_report_generate_seconds_count",
+				"proctoring_event_add_seconds_bucket",
+				"proctoring_sessions_active",
+				"proctoring_events_buffered",
+				"proctoring_events_store_bytes",
+				"proctoring_sessions_rejected_total",
+				"proctoring_reports_cache_hits_total",
+				"proctoring_reports_cache_misses_total");
+		assertThat(body).containsPattern("proctoring_events_total\\{[^}]*severity=\"DANGER\",type=\"NO_FACE\"[^}]*} 1\\.0");
+		assertThat(body).containsPattern("proctoring_events_total\\{[^}]*severity=\"OTHER\",type=\"OTHER\"[^}]*} 1\\.0");
+	}
+}
@@ -0,0 +1,389 @@
+package com.tutedude.proctoring.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tutedude.proctoring.service.ProctoringService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.proctoring.stream.buffer-size=2")
+@AutoConfigureMockMvc
+class ProctoringControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ProctoringService proctoringService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void batchEndpointAcceptsJsonArrayAndReportsPerItemResults() throws Exception {
+		String sessionId = proctoringService.startSession("Batch Candidate");
+
+		mockMvc.perform(post("/api/proctoring/sessions/{sessionId}/events/batch", sessionId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("""
+								[
+								  {"eventType": "NO_FACE", "message": "No face detected", "severity": "DANGER"},
+								  {"message": "Missing type", "severity": "WARNING"},
+								  {"eventType": "LOOKING_AWAY", "message": "Looking away", "severity": "WARNING"}
+								]
+								"""))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.accepted").value(2))
+				.andExpect(jsonPath("$.rejected").value(1))
+				.andExpect(jsonPath("$.results[0].status").value("ACCEPTED"))
+				.andExpect(jsonPath("$.results[1].status").value("REJECTED"))
+				.andExpect(jsonPath("$.results[2].index").value(2));
+
+		assertThat(proctoringService.getSession(sessionId).getDetectionEvents()).hasSize(2);
+	}
+
+	@Test
+	void retriedEventIsAcknowledgedWithoutBeingStoredAgain() throws Exception {
+		String sessionId = proctoringService.startSession("Retry Candidate");
+		String event = """
+				{"eventType": "PHONE_DETECTED", "message": "Phone detected", "severity": "DANGER", "sequence": 42}
+				""";
+
+		mockMvc.perform(post("/api/proctoring/sessions/{sessionId}/events", sessionId)
+						.contentType(MediaType.APPLICATION_JSON).content(event))
+				.andExpect(status().isOk())
+				.andExpect(content().string("Event recorded"));
+		mockMvc.perform(post("/api/proctoring/sessions/{sessionId}/events", sessionId)
+						.contentType(MediaType.APPLICATION_JSON).content(event))
+				.andExpect(status().isOk())
+				.andExpect(content().string("Duplicate event ignored"));
+		mockMvc.perform(post("/api/proctoring/sessions/{sessionId}/events/batch", sessionId)
+						.contentType(MediaType.APPLICATION_JSON).content("[" + event + "]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.accepted").value(0))
+				.andExpect(jsonPath("$.duplicates").value(1))
+				.andExpect(jsonPath("$.results[0].status").value("DUPLICATE"));
+		proctoringService.addDetectionEvent(sessionId, "NO_FACE", "No face detected", "DANGER", 10_000L);
+		mockMvc.perform(post("/api/proctoring/sessions/{sessionId}/events", sessionId)
+						.contentType(MediaType.APPLICATION_JSON).content(event))
+				.andExpect(status().isConflict());
+
+		mockMvc.perform(get("/api/proctoring/sessions/{sessionId}", sessionId))
+				.andExpect(jsonPath("$.detectionEvents.length()").value(2))
+				.andExpect(jsonPath("$.detectionEvents[0].sequence").doesNotExist());
+	}
+
+	@Test
+	void batchEndpointAcceptsNdjson() throws Exception {
+		String sessionId = proctoringService.startSession("Ndjson Candidate");
+
+		mockMvc.perform(post("/api/proctoring/sessions/{sessionId}/events/batch", sessionId)
+						.contentType("application/x-ndjson")
+						.content("""
+								{"eventType": "PHONE_DETECTED", "message": "Phone detected", "severity": "DANGER"}
+								{"eventType": "MULTIPLE_FACES", "message": "Two faces", "severity": "DANGER"}
+								"""))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.accepted").value(2))
+				.andExpect(jsonPath("$.rejected").value(0));
+
+		assertThat(proctoringService.generateReport(sessionId).getDangerEvents()).isEqualTo(2);
+	}
+
+	@Test
+	void streamPushesNewEventsScoreChangesAndEnd() throws Exception {
+		String sessionId = proctoringService.startSession("Stream Candidate");
+		for (int i = 0; i < 3; i++) {
+			proctoringService.addDetectionEvent(sessionId, "LOOKING_AWAY", "Backlog " + i, "WARNING");
+		}
+
+		// Ask for the whole backlog; with a buffer of 2 the oldest event is skipped
+		MvcResult result = mockMvc.perform(get("/api/proctoring/sessions/{sessionId}/stream", sessionId)
+						.param("from", "0")
+						.accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		// Delivery is asynchronous; let the backlog and first score go out before the live event
+		awaitContent(result, "event:score");
+
+		proctoringService.addDetectionEvent(sessionId, "PHONE_DETECTED", "Live event", "DANGER");
+		proctoringService.endSession(sessionId);
+
+		String body = awaitContent(result, "event:end");
+		assertThat(body).contains("event:gap", "\"skipped\":1", "\"resumeIndex\":1");
+		assertThat(body).contains("Backlog 1", "Backlog 2", "Live event").doesNotContain("Backlog 0");
+		assertThat(body).contains("event:score", "\"integrityScore\":67", "\"scoreChange\":-18");
+		assertThat(body).contains("id:3");
+	}
+
+	@Test
+	void heartbeatAnswersByLifecycleState() throws Exception {
+		String sessionId = proctoringService.startSession("Heartbeat Candidate");
+		mockMvc.perform(post("/api/proctoring/sessions/{sessionId}/heartbeat", sessionId))
+				.andExpect(status().isNoContent());
+
+		proctoringService.endSession(sessionId);
+		mockMvc.perform(post("/api/proctoring/sessions/{sessionId}/heartbeat", sessionId))
+				.andExpect(status().isConflict());
+		mockMvc.perform(post("/api/proctoring/sessions/{sessionId}/heartbeat", "SESSION_MISSING"))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void streamOfUnknownSessionIsNotFound() throws Exception {
+		mockMvc.perform(get("/api/proctoring/sessions/{sessionId}/stream", "SESSION_MISSING")
+						.accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void sessionListingPagesThroughFilteredSummariesWithoutEvents() throws Exception {
+		List<String> created = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			String sessionId = proctoringService.startSession("Paging Candidate");
+			proctoringService.addDetectionEvent(sessionId, "NO_FACE", "No face detected", "DANGER");
+			created.add(sessionId);
+		}
+
+		List<String> listed = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			JsonNode page = getJson("/api/proctoring/sessions?candidate=paging candidate&limit=2"
+					+ (cursor != null ? "&cursor=" + cursor : ""));
+			for (JsonNode item : page.get("items")) {
+				assertThat(item.has("detectionEvents")).isFalse();
+				assertThat(item.get("totalEvents").asInt()).isEqualTo(1);
+				listed.add(item.get("sessionId").asText());
+			}
+			cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(3);
+		// Sessions started in the same millisecond are ordered by ID, so only check coverage
+		assertThat(listed).containsExactlyInAnyOrderElementsOf(created);
+
+		proctoringService.endSession(created.get(2));
+		JsonNode completed = getJson("/api/proctoring/sessions?candidate=Paging Candidate&status=completed");
+		assertThat(completed.get("items")).hasSize(1);
+		assertThat(completed.get("items").get(0).get("sessionId").asText()).isEqualTo(created.get(2));
+
+		mockMvc.perform(get("/api/proctoring/sessions").param("cursor", "not-a-cursor"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void eventListingPagesInRecordedOrder() throws Exception {
+		String sessionId = proctoringService.startSession("Event Paging Candidate");
+		for (int i = 0; i < 5; i++) {
+			proctoringService.addDetectionEvent(sessionId, "LOOKING_AWAY", "Event " + i, "WARNING");
+		}
+
+		JsonNode first = getJson("/api/proctoring/sessions/" + sessionId + "/events?limit=3");
+		assertThat(first.get("items")).extracting(item -> item.get("message").asText())
+				.containsExactly("Event 0", "Event 1", "Event 2");
+		assertThat(first.get("nextCursor").asText()).isEqualTo("3");
+
+		JsonNode second = getJson("/api/proctoring/sessions/" + sessionId + "/events?limit=3&cursor=3");
+		assertThat(second.get("items")).extracting(item -> item.get("message").asText())
+				.containsExactly("Event 3", "Event 4");
+		assertThat(second.get("nextCursor").isNull()).isTrue();
+	}
+
+	@Test
+	void streamedReportMatchesRegularReport() throws Exception {
+		String sessionId = proctoringService.startSession("Report Stream Candidate");
+		proctoringService.addDetectionEvent(sessionId, "PHONE_DETECTED", "Phone \"detected\"", "DANGER");
+		proctoringService.addDetectionEvent(sessionId, "CUSTOM_CHECK", "Custom check", "INFO");
+		// Enough to span more than one cold chunk
+		for (int i = 0; i < 1_100; i++) {
+			proctoringService.addDetectionEvent(sessionId, "LOOKING_AWAY", "Looking away " + i, "WARNING");
+		}
+		proctoringService.endSession(sessionId);
+
+		// Streamed first, so the archived events are read chunk by chunk rather than from a decoded log
+		JsonNode streamed = objectMapper.readTree(getStreamed("/api/proctoring/sessions/" + sessionId + "/report/stream"));
+		JsonNode regular = getJson("/api/proctoring/sessions/" + sessionId + "/report");
+		assertThat(streamed).isEqualTo(regular);
+		assertThat(streamed.get("detectionEvents")).hasSize(1_102);
+
+		mockMvc.perform(get("/api/proctoring/sessions/{sessionId}/report/stream", "SESSION_MISSING"))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void exportWritesOneSessionPerLine() throws Exception {
+		String first = proctoringService.startSession("Export Candidate");
+		String second = proctoringService.startSession("Export Candidate");
+		for (int i = 0; i < 3; i++) {
+			proctoringService.addDetectionEvent(second, "NO_FACE", "Export " + i, "DANGER");
+		}
+		proctoringService.endSession(second);
+
+		String[] lines = getStreamed("/api/proctoring/sessions/export?status=COMPLETED").split("\n");
+		List<String> exported = new ArrayList<>();
+		for (String line : lines) {
+			JsonNode session = objectMapper.readTree(line);
+			assertThat(session.get("status").asText()).isEqualTo("COMPLETED");
+			exported.add(session.get("sessionId").asText());
+			if (session.get("sessionId").asText().equals(second)) {
+				assertThat(session.get("detectionEvents")).extracting(event -> event.get("message").asText())
+						.containsExactly("Export 0", "Export 1", "Export 2");
+			}
+		}
+		assertThat(exported).contains(second).doesNotContain(first);
+	}
+
+	@Test
+	void timelineBucketsEventsByTime() throws Exception {
+		String sessionId = proctoringService.startSession("Timeline Candidate");
+		proctoringService.addDetectionEvent(sessionId, "LOOKING_AWAY", "Looking away", "WARNING");
+		proctoringService.addDetectionEvent(sessionId, "LOOKING_AWAY", "Looking away", "WARNING");
+		proctoringService.addDetectionEvent(sessionId, "NO_FACE", "No face detected", "DANGER");
+
+		JsonNode timeline = getJson("/api/proctoring/sessions/" + sessionId + "/timeline?resolution=10s");
+		assertThat(timeline.get("bucketSeconds").asInt()).isEqualTo(10);
+		int total = 0;
+		int lookingAway = 0;
+		for (JsonNode bucket : timeline.get("buckets")) {
+			total += bucket.get("totalEvents").asInt();
+			lookingAway += bucket.get("eventCounts").path("LOOKING_AWAY").asInt();
+		}
+		assertThat(total).isEqualTo(3);
+		assertThat(lookingAway).isEqualTo(2);
+
+		assertThat(getJson("/api/proctoring/sessions/" + sessionId + "/timeline").get("resolution").asText())
+				.isEqualTo("1m");
+		mockMvc.perform(get("/api/proctoring/sessions/{sessionId}/timeline", sessionId).param("resolution", "5m"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/proctoring/sessions/{sessionId}/timeline", "SESSION_MISSING"))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void scoringPolicyUpdateRescoresItsSessions() throws Exception {
+		mockMvc.perform(put("/api/proctoring/scoring/policies/{name}", "lenient")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("""
+								{"severityWeights": {"DANGER": 2, "WARNING": 1}, "typeWeights": {}}
+								"""))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.rescoredSessions").value(0));
+
+		String body = mockMvc.perform(post("/api/proctoring/sessions/start")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"candidateName\": \"Policy Candidate\", \"scoringPolicy\": \"lenient\"}"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		String sessionId = objectMapper.readTree(body).get("sessionId").asText();
+		proctoringService.addDetectionEvent(sessionId, "PHONE_DETECTED", "Phone detected", "DANGER");
+		proctoringService.addDetectionEvent(sessionId, "LOOKING_AWAY", "Looking away", "WARNING");
+
+		JsonNode report = getJson("/api/proctoring/sessions/" + sessionId + "/report");
+		assertThat(report.get("scoringPolicy").asText()).isEqualTo("lenient");
+		assertThat(report.get("integrityScore").asInt()).isEqualTo(97);
+
+		mockMvc.perform(put("/api/proctoring/scoring/policies/{name}", "lenient")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("""
+								{"severityWeights": {"DANGER": 40, "WARNING": 1}, "typeWeights": {},
+								 "ratings": {"Pass": 50, "Fail": 0}}
+								"""))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.rescoredSessions").value(1));
+		report = getJson("/api/proctoring/sessions/" + sessionId + "/report");
+		assertThat(report.get("integrityScore").asInt()).isEqualTo(59);
+		assertThat(report.get("overallRating").asText()).isEqualTo("Pass");
+		assertThat(getJson("/api/proctoring/scoring/policies").get("lenient").get("severityWeights").get("DANGER").asInt())
+				.isEqualTo(40);
+
+		mockMvc.perform(put("/api/proctoring/scoring/policies/{name}", "broken")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"typeWeights\": {\"NOT_A_TYPE\": 5}}"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/api/proctoring/sessions/start")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"candidateName\": \"Policy Candidate\", \"scoringPolicy\": \"broken\"}"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void bulkReportJobExportsCsv() throws Exception {
+		String from = LocalDateTime.now().toString();
+		String first = proctoringService.startSession("Bulk Candidate");
+		// Sessions started in the same millisecond are ordered by id, not by start
+		Thread.sleep(5);
+		String second = proctoringService.startSession("Bulk Candidate");
+		proctoringService.addDetectionEvent(second, "PHONE_DETECTED", "Phone detected", "DANGER");
+		proctoringService.endSession(first);
+		proctoringService.endSession(second);
+
+		String body = mockMvc.perform(post("/api/proctoring/reports/jobs").param("status", "COMPLETED").param("from", from))
+				.andExpect(status().isAccepted())
+				.andExpect(jsonPath("$.totalSessions").value(2))
+				.andReturn().getResponse().getContentAsString();
+		String jobId = objectMapper.readTree(body).get("jobId").asText();
+
+		String[] lines = getStreamed("/api/proctoring/reports/jobs/" + jobId + "/results?format=csv").split("\n");
+		assertThat(lines).hasSize(3);
+		assertThat(lines[1]).startsWith(second + ",Bulk Candidate,");
+		assertThat(lines[2]).startsWith(first + ",Bulk Candidate,");
+		assertThat(getJson("/api/proctoring/reports/jobs/" + jobId).get("state").asText()).isEqualTo("COMPLETED");
+
+		mockMvc.perform(get("/api/proctoring/reports/jobs/{jobId}/results", jobId).param("format", "xml"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(delete("/api/proctoring/reports/jobs/{jobId}", jobId))
+				.andExpect(status().isNoContent());
+		mockMvc.perform(get("/api/proctoring/reports/jobs/{jobId}", jobId))
+				.andExpect(status().isNotFound());
+	}
+
+	private String getStreamed(String url) throws Exception {
+		MvcResult result = mockMvc.perform(get(url))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+	}
+
+	private JsonNode getJson(String url) throws Exception {
+		String body = mockMvc.perform(get(url))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private static String awaitContent(MvcResult result, String expected) throws Exception {
+		long deadline = System.currentTimeMillis() + 5000;
+		String body = result.getResponse().getContentAsString();
+		while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+			body = result.getResponse().getContentAsString();
+		}
+		assertThat(body).contains(expected);
+		return body;
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.tutedude.proctoring.load;
+
+import com.tutedude.proctoring.VideoProctoringBackendApplication;
+import com.tutedude.proctoring.service.ProctoringService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Event ingestion throughput and tail latency on the synchronous path versus the ring
+ * buffer, first in memory, then with the journal forcing every acknowledged event to disk
+ * (fsync per append for sync, wait-for-durable for async). Acknowledgement latency is
+ * measured; async throughput includes draining the queue.
+ * Run with: mvn test -Dtest=AsyncIngestionLoadTest -DloadTest=true
+ */
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+class AsyncIngestionLoadTest {
+
+	private static final int SESSIONS = 64;
+	private static final int THREADS = 16;
+	private static final int REQUESTS_PER_THREAD = 20_000;
+	private static final int DURABLE_REQUESTS_PER_THREAD = 500;
+
+	@TempDir
+	Path journalDirectory;
+
+	@Test
+	void syncVersusAsyncIngestion() throws Exception {
+		measure("sync", REQUESTS_PER_THREAD, "--app.proctoring.ingestion.mode=sync");
+		measure("async", REQUESTS_PER_THREAD, "--app.proctoring.ingestion.mode=async");
+
+		measure("sync fsync", DURABLE_REQUESTS_PER_THREAD, "--app.proctoring.ingestion.mode=sync",
+				"--app.proctoring.journal.enabled=true",
+				"--app.proctoring.journal.directory=" + journalDirectory.resolve("sync"),
+				"--app.proctoring.journal.fsync-interval-ms=0");
+		measure("async durable", DURABLE_REQUESTS_PER_THREAD, "--app.proctoring.ingestion.mode=async",
+				"--app.proctoring.ingestion.wait-for-durable=true",
+				"--app.proctoring.journal.enabled=true",
+				"--app.proctoring.journal.directory=" + journalDirectory.resolve("async"),
+				"--app.proctoring.journal.fsync-interval-ms=60000");
+	}
+
+	private void measure(String name, int requestsPerThread, String... properties) throws Exception {
+		String[] args = new String[properties.length + 1];
+		args[0] = "--app.proctoring.max-concurrent-sessions=0";
+		System.arraycopy(properties, 0, args, 1, properties.length);
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(VideoProctoringBackendApplication.class)
+				.web(WebApplicationType.NONE)
+				.run(args)) {
+			ProctoringService service = context.getBean(ProctoringService.class);
+			String[] sessionIds = new String[SESSIONS];
+			for (int s = 0; s < SESSIONS; s++) {
+				sessionIds[s] = service.startSession("Load " + s);
+			}
+			LoadTestSupport.Request ingest = (thread, iteration) ->
+					service.addDetectionEvent(sessionIds[(thread + iteration) % SESSIONS], "LOOKING_AWAY", "Looking away", "WARNING");
+			LoadTestSupport.run(name + " warmup", THREADS, requestsPerThread / 4, ingest);
+
+			long begin = System.nanoTime();
+			LoadTestSupport.Result result = LoadTestSupport.run(name, THREADS, requestsPerThread, ingest);
+			long stored = 0;
+			for (String sessionId : sessionIds) {
+				// Ending waits for queued events, so this includes draining the rings
+				stored += service.endSession(sessionId).getEventWatermark();
+			}
+			double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+			System.out.printf("%s: %,.0f events/sec stored end to end%n", name, stored / seconds);
+
+			assertThat(result.requests()).isEqualTo((long) THREADS * requestsPerThread);
+			assertThat(stored).isEqualTo((long) THREADS * (requestsPerThread + requestsPerThread / 4));
+		}
+	}
+}
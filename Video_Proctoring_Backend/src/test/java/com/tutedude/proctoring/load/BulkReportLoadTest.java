@@ -0,0 +1,81 @@
+package com.tutedude.proctoring.load;
+
+import com.tutedude.proctoring.model.ReportJob;
+import com.tutedude.proctoring.service.ProctoringService;
+import com.tutedude.proctoring.service.ReportJobService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.OutputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Time to produce every session's report one request at a time versus as a bulk job, and
+ * event ingestion latency while a bulk job runs compared with an idle backend.
+ * Run with: mvn test -Dtest=BulkReportLoadTest -DloadTest=true
+ */
+@SpringBootTest(properties = "app.proctoring.max-concurrent-sessions=0")
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+class BulkReportLoadTest {
+
+	private static final int SESSIONS = 5_000;
+	private static final int EVENTS_PER_SESSION = 200;
+	private static final int INGEST_THREADS = 8;
+	private static final int INGEST_REQUESTS = 5_000;
+
+	@Autowired
+	private ProctoringService proctoringService;
+
+	@Autowired
+	private ReportJobService reportJobService;
+
+	@Test
+	void bulkJobLeavesIngestionLatencyAlone() throws Exception {
+		String[] types = { "LOOKING_AWAY", "NO_FACE", "PHONE_DETECTED", "MULTIPLE_FACES" };
+		for (int i = 0; i < SESSIONS; i++) {
+			String sessionId = proctoringService.startSession("Bulk " + i);
+			for (int k = 0; k < EVENTS_PER_SESSION; k++) {
+				proctoringService.addDetectionEvent(sessionId, types[k % types.length], "Event " + k, k % 3 == 0 ? "DANGER" : "WARNING");
+			}
+		}
+		List<String> live = List.of(proctoringService.startSession("Live A"), proctoringService.startSession("Live B"));
+
+		long begin = System.nanoTime();
+		proctoringService.findSessions(null, null, null)
+				.forEach(session -> proctoringService.generateReport(session.getSessionId()));
+		double sequentialMillis = (System.nanoTime() - begin) / 1_000_000.0;
+
+		begin = System.nanoTime();
+		ReportJob job = reportJobService.submit(null, null, null);
+		reportJobService.streamResults(job.getJobId(), "csv").writeTo(OutputStream.nullOutputStream());
+		double bulkMillis = (System.nanoTime() - begin) / 1_000_000.0;
+		System.out.printf("%,d sessions: one by one %,.0f ms, bulk job %,.0f ms%n", SESSIONS, sequentialMillis, bulkMillis);
+
+		LoadTestSupport.Request ingest = (thread, iteration) ->
+				proctoringService.addDetectionEvent(live.get(thread % live.size()), "LOOKING_AWAY", "Looking away", "WARNING");
+		LoadTestSupport.run("ingest idle", INGEST_THREADS, INGEST_REQUESTS, ingest);
+
+		// Keep jobs running for the whole measurement
+		Thread jobs = new Thread(() -> {
+			while (!Thread.currentThread().isInterrupted()) {
+				ReportJob running = reportJobService.submit(null, null, null);
+				try {
+					reportJobService.streamResults(running.getJobId(), "ndjson").writeTo(OutputStream.nullOutputStream());
+				} catch (Exception e) {
+					return;
+				}
+				reportJobService.cancel(running.getJobId());
+			}
+		});
+		jobs.start();
+		LoadTestSupport.Result busy = LoadTestSupport.run("ingest during bulk job", INGEST_THREADS, INGEST_REQUESTS, ingest);
+		jobs.interrupt();
+		jobs.join();
+
+		assertThat(busy.requests()).isEqualTo(INGEST_THREADS * INGEST_REQUESTS);
+	}
+}
@@ -0,0 +1,103 @@
+package com.tutedude.proctoring.load;
+
+import com.tutedude.proctoring.VideoProctoringBackendApplication;
+import com.tutedude.proctoring.service.ColdSessionStore;
+import com.tutedude.proctoring.service.ProctoringMetrics;
+import com.tutedude.proctoring.service.ProctoringService;
+import com.tutedude.proctoring.service.SessionEventLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jol.info.GraphLayout;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Memory held by 10k ended sessions with their events hot versus archived in the cold
+ * tier, and the latency of reading archived sessions back (each read decodes a block).
+ * Run with: mvn test -Dtest=ColdTierFootprintTest -DloadTest=true
+ */
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+class ColdTierFootprintTest {
+
+	private static final int SESSIONS = 10_000;
+	private static final int EVENTS_PER_SESSION = 100;
+	private static final String[][] SAMPLES = {
+			{ "LOOKING_AWAY", "Candidate looking away from screen", "WARNING" },
+			{ "NO_FACE", "No face detected", "DANGER" },
+			{ "PHONE_DETECTED", "Mobile phone detected in frame", "DANGER" },
+			{ "MULTIPLE_FACES", "Multiple faces detected", "DANGER" },
+			{ "NOTES_DETECTED", "Notes detected on desk", "WARNING" },
+	};
+
+	@Test
+	void tenThousandArchivedSessionsFootprint() {
+		ColdSessionStore store = new ColdSessionStore(true, "memory", "data/cold", 0, 0,
+				new ProctoringMetrics(new SimpleMeterRegistry()));
+		List<SessionEventLog> logs = new ArrayList<>();
+		Random random = new Random(42);
+		long id = 1_700_000_000_000L;
+		for (int s = 0; s < SESSIONS; s++) {
+			String sessionId = "SESSION_" + s;
+			SessionEventLog log = new SessionEventLog(sessionId);
+			long timestamp = 1_700_000_000_000L + s * 3_600_000L;
+			for (int i = 0; i < EVENTS_PER_SESSION; i++) {
+				String[] sample = SAMPLES[random.nextInt(SAMPLES.length)];
+				// Ids interleave with other sessions' events; detections arrive seconds apart
+				id += 1 + random.nextInt(SESSIONS);
+				timestamp += 500 + random.nextInt(10_000);
+				log.append(id, sample[0], sample[1], sample[2], timestamp);
+			}
+			logs.add(log);
+			store.archive(sessionId, log);
+		}
+
+		long hotBytes = GraphLayout.parseInstance(logs).totalSize();
+		long coldBytes = store.storedBytes();
+		int events = SESSIONS * EVENTS_PER_SESSION;
+		System.out.printf("Hot SessionEventLogs: %,d bytes (%.1f B/event)%n", hotBytes, (double) hotBytes / events);
+		System.out.printf("Cold blocks:          %,d bytes (%.1f B/event), %.0fx smaller%n",
+				coldBytes, (double) coldBytes / events, (double) hotBytes / coldBytes);
+
+		assertThat(coldBytes).isLessThan(hotBytes / 5);
+	}
+
+	@Test
+	void archivedSessionReadLatency() throws Exception {
+		for (String storage : new String[] { "hot", "memory", "disk" }) {
+			// Report caching is off so every report is rebuilt from the events
+			try (ConfigurableApplicationContext context = new SpringApplicationBuilder(VideoProctoringBackendApplication.class)
+					.web(WebApplicationType.NONE)
+					.run("--app.proctoring.max-concurrent-sessions=0",
+							"--app.proctoring.report-cache.max-size-mb=0",
+							"--app.proctoring.cold-tier.enabled=" + !"hot".equals(storage),
+							"--app.proctoring.cold-tier.storage=" + ("hot".equals(storage) ? "memory" : storage),
+							"--app.proctoring.cold-tier.directory=target/cold-tier-load")) {
+				ProctoringService service = context.getBean(ProctoringService.class);
+				String[] sessionIds = new String[SESSIONS];
+				for (int s = 0; s < SESSIONS; s++) {
+					sessionIds[s] = service.startSession("Candidate " + s);
+					for (int i = 0; i < EVENTS_PER_SESSION; i++) {
+						String[] sample = SAMPLES[i % SAMPLES.length];
+						service.addDetectionEvent(sessionIds[s], sample[0], sample[1], sample[2]);
+					}
+					service.endSession(sessionIds[s]);
+				}
+
+				LoadTestSupport.run("getSession (" + storage + ")", 1, SESSIONS,
+						(thread, i) -> service.getSession(sessionIds[i]));
+				LoadTestSupport.Result reports = LoadTestSupport.run("generateReport (" + storage + ")", 1, SESSIONS,
+						(thread, i) -> service.generateReport(sessionIds[i]));
+				assertThat(reports.requests()).isEqualTo(SESSIONS);
+				assertThat(service.getSession(sessionIds[0]).getDetectionEvents()).hasSize(EVENTS_PER_SESSION);
+			}
+		}
+	}
+}
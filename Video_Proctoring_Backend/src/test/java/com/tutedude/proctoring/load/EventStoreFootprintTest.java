@@ -0,0 +1,95 @@
+package com.tutedude.proctoring.load;
+
+import com.tutedude.proctoring.model.DetectionEvent;
+import com.tutedude.proctoring.service.SessionEventLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures retained heap for one session holding 1M events, and for 10k sessions of
+ * 100 events each, comparing the old list of DetectionEvent objects with the columnar
+ * SessionEventLog.
+ * Run with: mvn test -Dtest=EventStoreFootprintTest -DloadTest=true
+ */
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+class EventStoreFootprintTest {
+
+	private static final int EVENTS = 1_000_000;
+	private static final String SESSION_ID = "SESSION_1A2B3C4D_1234";
+	private static final String[][] SAMPLES = {
+			{ "LOOKING_AWAY", "Candidate looking away from screen", "WARNING" },
+			{ "NO_FACE", "No face detected", "DANGER" },
+			{ "PHONE_DETECTED", "Mobile phone detected in frame", "DANGER" },
+			{ "MULTIPLE_FACES", "Multiple faces detected", "DANGER" },
+			{ "NOTES_DETECTED", "Notes detected on desk", "WARNING" },
+	};
+
+	@Test
+	void oneMillionEventsFootprint() {
+		List<DetectionEvent> objects = new ArrayList<>();
+		SessionEventLog columns = new SessionEventLog(SESSION_ID);
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < EVENTS; i++) {
+			String[] sample = SAMPLES[i % SAMPLES.length];
+			// Fresh strings per event, as Jackson produces them for each request body
+			DetectionEvent event = new DetectionEvent(new String(sample[0]), new String(sample[1]),
+					new String(sample[2]), SESSION_ID);
+			event.setId(start + i);
+			event.setTimestamp(LocalDateTime.now());
+			objects.add(event);
+			columns.append(event);
+		}
+
+		long objectBytes = GraphLayout.parseInstance(objects).totalSize();
+		long columnBytes = GraphLayout.parseInstance(columns).totalSize();
+		System.out.printf("List<DetectionEvent>: %,d bytes (%.1f B/event)%n", objectBytes, (double) objectBytes / EVENTS);
+		System.out.printf("SessionEventLog:      %,d bytes (%.1f B/event)%n", columnBytes, (double) columnBytes / EVENTS);
+		System.out.printf("SessionEventLog.estimatedBytes(): %,d%n", columns.estimatedBytes());
+
+		assertThat(columnBytes).isLessThan(objectBytes / 4);
+	}
+
+	@Test
+	void tenThousandSmallSessionsFootprint() {
+		int sessions = 10_000;
+		int eventsPerSession = 100;
+		List<List<DetectionEvent>> objects = new ArrayList<>();
+		List<SessionEventLog> columns = new ArrayList<>();
+		long id = System.currentTimeMillis();
+		for (int s = 0; s < sessions; s++) {
+			String sessionId = "SESSION_" + s;
+			List<DetectionEvent> sessionObjects = new ArrayList<>();
+			SessionEventLog sessionColumns = new SessionEventLog(sessionId);
+			for (int i = 0; i < eventsPerSession; i++) {
+				String[] sample = SAMPLES[i % SAMPLES.length];
+				DetectionEvent event = new DetectionEvent(new String(sample[0]), new String(sample[1]),
+						new String(sample[2]), sessionId);
+				event.setId(id++);
+				event.setTimestamp(LocalDateTime.now());
+				sessionObjects.add(event);
+				sessionColumns.append(event);
+			}
+			objects.add(sessionObjects);
+			columns.add(sessionColumns);
+		}
+
+		int events = sessions * eventsPerSession;
+		long objectBytes = GraphLayout.parseInstance(objects).totalSize();
+		long columnBytes = GraphLayout.parseInstance(columns).totalSize();
+		System.out.printf("10k x List<DetectionEvent>: %,d bytes (%.1f B/event, %,d B/session)%n",
+				objectBytes, (double) objectBytes / events, objectBytes / sessions);
+		System.out.printf("10k x SessionEventLog:      %,d bytes (%.1f B/event, %,d B/session)%n",
+				columnBytes, (double) columnBytes / events, columnBytes / sessions);
+		System.out.printf("Empty SessionEventLog:      %,d bytes (with the shared seed dictionaries)%n",
+				GraphLayout.parseInstance(new SessionEventLog(SESSION_ID)).totalSize());
+
+		assertThat(columnBytes).isLessThan(objectBytes / 2);
+	}
+}
@@ -0,0 +1,129 @@
+package com.tutedude.proctoring.load;
+
+import com.tutedude.proctoring.VideoProctoringBackendApplication;
+import com.tutedude.proctoring.config.ExecutionMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent candidate sessions over real HTTP with platform versus virtual request threads.
+ * Each client starts a session, posts events and ends it; a level counts as sustained when
+ * no request fails and p99 stays under {@link #P99_BUDGET_MS}. Client and server share the
+ * machine, so absolute numbers are pessimistic; compare the two modes. The virtual run needs the
+ * tests to run on Java 21+ (e.g. JAVA_HOME pointing at a 21 JDK); on 17 it is reported as
+ * unavailable.
+ * Run with: mvn test -Dtest=ExecutionModeLoadTest -DloadTest=true
+ */
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+class ExecutionModeLoadTest {
+
+	private static final int WARMUP_SESSIONS = 400;
+	private static final int[] CONCURRENT_SESSIONS = { 100, 400, 1_600 };
+	private static final int EVENTS_PER_SESSION = 20;
+	private static final long P99_BUDGET_MS = 2_000;
+
+	private static final Pattern SESSION_ID = Pattern.compile("\"sessionId\"\\s*:\\s*\"([^\"]+)\"");
+	private static final String EVENT =
+			"{\"eventType\":\"LOOKING_AWAY\",\"message\":\"Candidate looking away\",\"severity\":\"WARNING\"}";
+
+	@TempDir
+	Path journalDirectory;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	void platformVersusVirtualRequestThreads() throws Exception {
+		int platform = maxSustained("platform");
+		int virtual = maxSustained("virtual");
+		System.out.printf("max sustained concurrent sessions: platform=%d virtual=%s%n",
+				platform, virtual < 0 ? "unavailable (needs Java 21+)" : Integer.toString(virtual));
+	}
+
+	/**
+	 * Highest level sustained in the given mode, or -1 when the mode is not available on this JVM
+	 */
+	private int maxSustained(String mode) throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(VideoProctoringBackendApplication.class)
+				.run("--server.port=0",
+						"--app.proctoring.execution-mode=" + mode,
+						"--app.proctoring.max-concurrent-sessions=0",
+						"--app.proctoring.journal.enabled=true",
+						"--app.proctoring.journal.directory=" + journalDirectory.resolve(mode))) {
+			if (!mode.equalsIgnoreCase(context.getBean(ExecutionMode.class).name())) {
+				return -1;
+			}
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			assertThat(runSessions(port, mode + " warmup", WARMUP_SESSIONS).failures()).isZero();
+			int sustained = 0;
+			for (int sessions : CONCURRENT_SESSIONS) {
+				Level level = runSessions(port, mode + " x" + sessions, sessions);
+				boolean ok = level.failures() == 0 && level.result().p99Nanos() / 1_000_000 < P99_BUDGET_MS;
+				System.out.printf("  %s: %d sessions, failures=%d -> %s%n",
+						mode, sessions, level.failures(), ok ? "sustained" : "not sustained");
+				if (!ok) {
+					break;
+				}
+				sustained = sessions;
+			}
+			return sustained;
+		}
+	}
+
+	private Level runSessions(int port, String name, int sessions) throws Exception {
+		AtomicInteger failures = new AtomicInteger();
+		String[] sessionIds = new String[sessions];
+		LoadTestSupport.Result result = LoadTestSupport.run(name, sessions, EVENTS_PER_SESSION + 2, (client, i) -> {
+			try {
+				if (i == 0) {
+					sessionIds[client] = startSession(port, client);
+				} else if (i <= EVENTS_PER_SESSION) {
+					post(port, "/sessions/" + sessionIds[client] + "/events", EVENT);
+				} else {
+					post(port, "/sessions/" + sessionIds[client] + "/end", "");
+				}
+			} catch (Exception e) {
+				failures.incrementAndGet();
+			}
+		});
+		return new Level(result, failures.get());
+	}
+
+	private record Level(LoadTestSupport.Result result, int failures) {
+	}
+
+	private String startSession(int port, int client) throws Exception {
+		String body = post(port, "/sessions/start", "{\"candidateName\":\"Load Candidate " + client + "\"}");
+		Matcher matcher = SESSION_ID.matcher(body);
+		if (!matcher.find()) {
+			throw new IllegalStateException("No session id in " + body);
+		}
+		return matcher.group(1);
+	}
+
+	private String post(int port, String path, String body) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/proctoring" + path))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+		HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException("Unexpected status " + response.statusCode() + " for " + path);
+		}
+		return response.body();
+	}
+}
@@ -0,0 +1,78 @@
+package com.tutedude.proctoring.load;
+
+import com.tutedude.proctoring.service.ProctoringService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the single-event and batch ingestion paths over real HTTP.
+ * Run with: mvn test -Dtest=IngestionLoadTest -DloadTest=true
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+class IngestionLoadTest {
+
+	private static final int THREADS = 32;
+	private static final int EVENTS_PER_THREAD = 2_000;
+	private static final int BATCH_SIZE = 50;
+
+	private static final String EVENT =
+			"{\"eventType\":\"LOOKING_AWAY\",\"message\":\"Candidate looking away\",\"severity\":\"WARNING\"}";
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private ProctoringService proctoringService;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	void singleEventVersusBatchIngestion() throws Exception {
+		String[] sessions = startSessions();
+		LoadTestSupport.Result single = LoadTestSupport.run("single-event POST", THREADS, EVENTS_PER_THREAD,
+				(thread, i) -> post(sessions[thread], "/events", EVENT, "application/json"));
+
+		String batch = "[" + String.join(",", java.util.Collections.nCopies(BATCH_SIZE, EVENT)) + "]";
+		String[] batchSessions = startSessions();
+		LoadTestSupport.Result batched = LoadTestSupport.run("batch POST (" + BATCH_SIZE + "/request)", THREADS,
+				EVENTS_PER_THREAD / BATCH_SIZE,
+				(thread, i) -> post(batchSessions[thread], "/events/batch", batch, "application/json"));
+
+		System.out.printf("events/s single=%.0f batch=%.0f%n",
+				single.requestsPerSecond(), batched.requestsPerSecond() * BATCH_SIZE);
+		for (int t = 0; t < THREADS; t++) {
+			assertThat(proctoringService.getSession(batchSessions[t]).getDetectionEvents()).hasSize(EVENTS_PER_THREAD);
+		}
+	}
+
+	private String[] startSessions() {
+		String[] sessions = new String[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			sessions[t] = proctoringService.startSession("Load Candidate " + t);
+		}
+		return sessions;
+	}
+
+	private void post(String sessionId, String path, String body, String contentType) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(
+						URI.create("http://localhost:" + port + "/api/proctoring/sessions/" + sessionId + path))
+				.header("Content-Type", contentType)
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+		HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException("Unexpected status " + response.statusCode() + " for " + path);
+		}
+	}
+}
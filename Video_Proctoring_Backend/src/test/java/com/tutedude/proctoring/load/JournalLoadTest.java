@@ -0,0 +1,106 @@
+package com.tutedude.proctoring.load;
+
+import com.tutedude.proctoring.service.EventJournal;
+import com.tutedude.proctoring.service.SessionAggregate;
+import com.tutedude.proctoring.service.SessionEventLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sustained journal append rate and recovery time for 10M events.
+ * Run with: mvn test -Dtest=JournalLoadTest -DloadTest=true
+ */
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+class JournalLoadTest {
+
+	private static final int SESSIONS = 1_000;
+	private static final int EVENTS = 10_000_000;
+	private static final String[][] SAMPLES = {
+			{ "LOOKING_AWAY", "Candidate looking away from screen", "WARNING" },
+			{ "NO_FACE", "No face detected", "DANGER" },
+			{ "PHONE_DETECTED", "Mobile phone detected in frame", "DANGER" },
+			{ "MULTIPLE_FACES", "Multiple faces detected", "DANGER" },
+	};
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void appendAndRecoverTenMillionEvents() {
+		EventJournal journal = new EventJournal(true, directory.toString(), 64, 100);
+		journal.replay(new Recovery());
+
+		long begin = System.nanoTime();
+		for (int s = 0; s < SESSIONS; s++) {
+			journal.sessionStarted("SESSION_" + s, "Candidate " + s, System.currentTimeMillis());
+		}
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < EVENTS; i++) {
+			String[] sample = SAMPLES[i & 3];
+			journal.eventAppended("SESSION_" + (i % SESSIONS), i, sample[0], sample[1], sample[2], now + i);
+		}
+		journal.flush();
+		long appendNanos = System.nanoTime() - begin;
+		journal.close();
+		System.out.printf("Appended %,d events in %,d ms: %,.0f appends/sec (group commit every 100 ms)%n",
+				EVENTS, appendNanos / 1_000_000, EVENTS / (appendNanos / 1_000_000_000.0));
+
+		Recovery recovery = new Recovery();
+		begin = System.nanoTime();
+		long records = new EventJournal(true, directory.toString(), 64, 100).replay(recovery);
+		long recoveryNanos = System.nanoTime() - begin;
+		System.out.printf("Recovered %,d records into %,d sessions in %,d ms%n",
+				records, recovery.logs.size(), recoveryNanos / 1_000_000);
+
+		assertThat(records).isEqualTo(SESSIONS + EVENTS);
+		assertThat(recovery.logs.values().stream().mapToInt(SessionEventLog::size).sum()).isEqualTo(EVENTS);
+	}
+
+	private static final class Recovery implements EventJournal.ReplayHandler {
+		private final Map<String, SessionEventLog> logs = new HashMap<>();
+		private final Map<String, SessionAggregate> aggregates = new HashMap<>();
+
+		@Override
+		public void sessionStarted(String sessionId, String candidateName, long startMillis) {
+			logs.put(sessionId, new SessionEventLog(sessionId));
+			aggregates.put(sessionId, new SessionAggregate());
+		}
+
+		@Override
+		public void eventAppended(String sessionId, long id, String eventType, String message, String severity,
+								  long timestampMillis) {
+			logs.get(sessionId).append(id, eventType, message, severity, timestampMillis);
+			aggregates.get(sessionId).record(eventType, severity, timestampMillis);
+		}
+
+		@Override
+		public void eventExtended(String sessionId, int index, long endMillis, int occurrences) {
+			logs.get(sessionId).extend(index, endMillis, occurrences);
+		}
+
+		@Override
+		public void sessionPolicyAssigned(String sessionId, String policyName) {
+		}
+
+		@Override
+		public void sequencesAccepted(String sessionId, long[] sequences) {
+		}
+
+		@Override
+		public void sessionEnded(String sessionId, String status, long endMillis, int durationInSeconds) {
+		}
+
+		@Override
+		public void sessionDeleted(String sessionId) {
+			logs.remove(sessionId);
+			aggregates.remove(sessionId);
+		}
+	}
+}
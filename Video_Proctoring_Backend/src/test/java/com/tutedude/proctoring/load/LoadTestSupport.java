@@ -0,0 +1,79 @@
+package com.tutedude.proctoring.load;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Minimal closed-loop load generator shared by the on-demand load tests.
+ * Load tests only run with -DloadTest=true so the regular build stays fast.
+ */
+final class LoadTestSupport {
+
+	private LoadTestSupport() {
+	}
+
+	interface Request {
+		void execute(int thread, int iteration) throws Exception;
+	}
+
+	static Result run(String name, int threads, int requestsPerThread, Request request) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<long[]>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int thread = t;
+			Callable<long[]> worker = () -> {
+				long[] latencies = new long[requestsPerThread];
+				start.await();
+				for (int i = 0; i < requestsPerThread; i++) {
+					long begin = System.nanoTime();
+					request.execute(thread, i);
+					latencies[i] = System.nanoTime() - begin;
+				}
+				return latencies;
+			};
+			futures.add(executor.submit(worker));
+		}
+
+		long begin = System.nanoTime();
+		start.countDown();
+		long[] all = new long[threads * requestsPerThread];
+		int offset = 0;
+		for (Future<long[]> future : futures) {
+			long[] latencies = future.get();
+			System.arraycopy(latencies, 0, all, offset, latencies.length);
+			offset += latencies.length;
+		}
+		long elapsed = System.nanoTime() - begin;
+		executor.shutdown();
+
+		Arrays.sort(all);
+		Result result = new Result(name, all.length, elapsed, percentile(all, 0.50), percentile(all, 0.99));
+		System.out.println(result);
+		return result;
+	}
+
+	private static long percentile(long[] sorted, double percentile) {
+		int index = (int) Math.ceil(percentile * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+	}
+
+	record Result(String name, int requests, long elapsedNanos, long p50Nanos, long p99Nanos) {
+
+		double requestsPerSecond() {
+			return requests / (elapsedNanos / 1_000_000_000.0);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%-28s requests=%d req/s=%.0f p50=%.2fms p99=%.2fms",
+					name, requests, requestsPerSecond(), p50Nanos / 1_000_000.0, p99Nanos / 1_000_000.0);
+		}
+	}
+}
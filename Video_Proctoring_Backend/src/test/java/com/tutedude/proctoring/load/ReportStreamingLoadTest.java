@@ -0,0 +1,114 @@
+package com.tutedude.proctoring.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tutedude.proctoring.model.DetectionEvent;
+import com.tutedude.proctoring.service.ProctoringService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Heap held while writing a report, built then serialized versus streamed from the event log,
+ * as the session grows. Heap is sampled after a GC halfway through the output.
+ * Run with: mvn test -Dtest=ReportStreamingLoadTest -DloadTest=true
+ */
+@SpringBootTest(properties = "app.proctoring.max-concurrent-sessions=0")
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+class ReportStreamingLoadTest {
+
+	private static final int[] EVENT_COUNTS = { 10_000, 100_000, 1_000_000 };
+
+	@Autowired
+	private ProctoringService proctoringService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void streamedReportHoldsConstantMemory() throws Exception {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		for (int eventCount : EVENT_COUNTS) {
+			String sessionId = sessionWithEvents(eventCount);
+
+			HeapProbe regular = new HeapProbe();
+			long allocated = threads.getCurrentThreadAllocatedBytes();
+			long begin = System.nanoTime();
+			objectMapper.writeValue(regular, proctoringService.generateReport(sessionId));
+			double regularMillis = (System.nanoTime() - begin) / 1_000_000.0;
+			long regularAllocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+
+			HeapProbe streamed = new HeapProbe();
+			allocated = threads.getCurrentThreadAllocatedBytes();
+			begin = System.nanoTime();
+			proctoringService.streamReport(sessionId).writeTo(streamed);
+			double streamedMillis = (System.nanoTime() - begin) / 1_000_000.0;
+			long streamedAllocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+
+			System.out.printf("%,d events (%,d bytes): regular %,.0f ms, %,d B allocated, %,d KB held; "
+							+ "streamed %,.0f ms, %,d B allocated, %,d KB held%n",
+					eventCount, streamed.count, regularMillis, regularAllocated / eventCount, regular.held() / 1024,
+					streamedMillis, streamedAllocated / eventCount, streamed.held() / 1024);
+			assertThat(streamed.count).isEqualTo(regular.count);
+			proctoringService.deleteSession(sessionId);
+		}
+	}
+
+	private String sessionWithEvents(int eventCount) {
+		String sessionId = proctoringService.startSession("Report Candidate");
+		List<DetectionEvent> batch = new ArrayList<>();
+		for (int i = 0; i < eventCount; i++) {
+			batch.add(new DetectionEvent("LOOKING_AWAY", "Looking away " + (i % 100), "WARNING", sessionId));
+			if (batch.size() == 10_000) {
+				proctoringService.addDetectionEvents(sessionId, batch);
+				batch.clear();
+			}
+		}
+		proctoringService.addDetectionEvents(sessionId, batch);
+		return sessionId;
+	}
+
+	/**
+	 * Counts output bytes and, once past the first megabyte, samples the heap still in use
+	 * after a GC relative to the heap in use when the probe was created
+	 */
+	private static final class HeapProbe extends OutputStream {
+		private final long baseline;
+		private long count;
+		private long sampled = -1;
+
+		private HeapProbe() {
+			baseline = usedAfterGc();
+		}
+
+		@Override
+		public void write(int b) {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+			if (sampled < 0 && count > 1 << 20) {
+				sampled = usedAfterGc();
+			}
+		}
+
+		long held() {
+			return sampled < 0 ? 0 : Math.max(0, sampled - baseline);
+		}
+
+		private static long usedAfterGc() {
+			System.gc();
+			Runtime runtime = Runtime.getRuntime();
+			return runtime.totalMemory() - runtime.freeMemory();
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package com.tutedude.proctoring.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tutedude.proctoring.model.CursorPage;
+import com.tutedude.proctoring.model.SessionSummary;
+import com.tutedude.proctoring.service.ProctoringService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.OutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Response size and latency of one page of sessions versus the full listing, as the store grows.
+ * Run with: mvn test -Dtest=SessionListingLoadTest -DloadTest=true
+ */
+@SpringBootTest(properties = "app.proctoring.max-concurrent-sessions=0")
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+class SessionListingLoadTest {
+
+	private static final int[] STORE_SIZES = { 1_000, 5_000, 20_000 };
+	private static final int EVENTS_PER_SESSION = 20;
+	private static final int ROUNDS = 200;
+
+	@Autowired
+	private ProctoringService proctoringService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void pageLatencyStaysFlatAsStoreGrows() throws Exception {
+		int sessions = 0;
+		for (int target : STORE_SIZES) {
+			for (; sessions < target; sessions++) {
+				String sessionId = proctoringService.startSession("Candidate " + (sessions % 1_000));
+				for (int e = 0; e < EVENTS_PER_SESSION; e++) {
+					proctoringService.addDetectionEvent(sessionId, "LOOKING_AWAY", "Looking away", "WARNING");
+				}
+			}
+
+			// Warm up, then time the first page and a deep page reached through a cursor
+			CursorPage<SessionSummary> first = null;
+			for (int i = 0; i < ROUNDS; i++) {
+				first = proctoringService.listSessions(null, null, null, null, null, 50);
+			}
+			long begin = System.nanoTime();
+			int pageBytes = 0;
+			for (int i = 0; i < ROUNDS; i++) {
+				pageBytes = objectMapper.writeValueAsBytes(
+						proctoringService.listSessions(null, null, null, null, first.getNextCursor(), 50)).length;
+			}
+			double pageMicros = (System.nanoTime() - begin) / 1_000.0 / ROUNDS;
+
+			begin = System.nanoTime();
+			CountingOutputStream full = new CountingOutputStream();
+			objectMapper.writeValue(full, proctoringService.getAllSessions());
+			long fullBytes = full.count;
+			double fullMillis = (System.nanoTime() - begin) / 1_000_000.0;
+
+			System.out.printf("%,d sessions: page of 50 %,.0f us / %,d bytes; full listing %,.0f ms / %,d bytes%n",
+					target, pageMicros, pageBytes, fullMillis, fullBytes);
+			assertThat(first.getItems()).hasSize(50);
+		}
+	}
+
+	/**
+	 * Counts serialized bytes without keeping them, so the full listing fits in the heap
+	 */
+	private static final class CountingOutputStream extends OutputStream {
+		private long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+}
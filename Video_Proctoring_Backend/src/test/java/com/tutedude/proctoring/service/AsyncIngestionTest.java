@@ -0,0 +1,143 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.VideoProctoringBackendApplication;
+import com.tutedude.proctoring.model.DetectionEvent;
+import com.tutedude.proctoring.model.SessionSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncIngestionTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void queuedEventsAreStoredInOrderBeforeTheSessionEnds() throws Exception {
+		int sessions = 6;
+		int eventsPerSession = 2_000;
+		// A tiny ring keeps producers waiting on the writers for most of the run
+		try (ConfigurableApplicationContext context = start("--app.proctoring.ingestion.shards=2",
+				"--app.proctoring.ingestion.ring-size=8")) {
+			ProctoringService service = context.getBean(ProctoringService.class);
+			assertThat(service.acknowledgesBeforeStored()).isTrue();
+
+			List<String> sessionIds = new ArrayList<>();
+			for (int s = 0; s < sessions; s++) {
+				sessionIds.add(service.startSession("Async " + s));
+			}
+			ExecutorService producers = Executors.newFixedThreadPool(sessions);
+			List<Future<?>> done = new ArrayList<>();
+			for (String sessionId : sessionIds) {
+				done.add(producers.submit(() -> {
+					for (int i = 0; i < eventsPerSession; i++) {
+						service.addDetectionEvent(sessionId, "LOOKING_AWAY", "Event " + i, "WARNING");
+					}
+				}));
+			}
+			for (Future<?> future : done) {
+				future.get();
+			}
+			producers.shutdown();
+
+			for (String sessionId : sessionIds) {
+				// Ending waits for the session's queued events
+				List<DetectionEvent> events = service.endSession(sessionId).getDetectionEvents();
+				assertThat(events).hasSize(eventsPerSession);
+				for (int i = 0; i < eventsPerSession; i++) {
+					assertThat(events.get(i).getMessage()).isEqualTo("Event " + i);
+				}
+				assertThat(service.generateReport(sessionId).getTotalEvents()).isEqualTo(eventsPerSession);
+			}
+		}
+	}
+
+	@Test
+	void retriesAndInvalidEventsAreTurnedAwayBeforeTheyAreQueued() {
+		try (ConfigurableApplicationContext context = start()) {
+			ProctoringService service = context.getBean(ProctoringService.class);
+			String sessionId = service.startSession("Rejected");
+
+			assertThat(service.addDetectionEvent(sessionId, "NO_FACE", "First", "DANGER", 1L)).isTrue();
+			assertThat(service.addDetectionEvent(sessionId, "NO_FACE", "Retry", "DANGER", 1L)).isFalse();
+
+			assertThatThrownBy(() -> service.addDetectionEvent(sessionId, " ", "Blank", "WARNING"))
+					.isInstanceOf(IllegalArgumentException.class);
+			assertThatThrownBy(() -> service.addDetectionEvent("SESSION_MISSING", "NO_FACE", "Missing", "DANGER"))
+					.isInstanceOf(IllegalArgumentException.class);
+			assertThat(service.endSession(sessionId).getDetectionEvents()).extracting("message").containsExactly("First");
+			assertThatThrownBy(() -> service.addDetectionEvent(sessionId, "NO_FACE", "Late", "DANGER"))
+					.isInstanceOf(IllegalStateException.class);
+		}
+	}
+
+	@Test
+	void durableAcknowledgementMeansStoredAndJournaled() {
+		String sessionId;
+		try (ConfigurableApplicationContext context = start("--app.proctoring.ingestion.wait-for-durable=true",
+				"--app.proctoring.journal.enabled=true",
+				"--app.proctoring.journal.directory=" + directory,
+				"--app.proctoring.journal.fsync-interval-ms=60000")) {
+			ProctoringService service = context.getBean(ProctoringService.class);
+			assertThat(service.acknowledgesBeforeStored()).isFalse();
+			sessionId = service.startSession("Durable");
+			for (int i = 0; i < 100; i++) {
+				service.addDetectionEvent(sessionId, "NO_FACE", "Event " + i, "DANGER");
+				assertThat(service.getSession(sessionId).getEventWatermark()).isEqualTo(i + 1);
+			}
+		}
+
+		try (ConfigurableApplicationContext context = start("--app.proctoring.journal.enabled=true",
+				"--app.proctoring.journal.directory=" + directory)) {
+			SessionSnapshot recovered = context.getBean(ProctoringService.class).getSession(sessionId);
+			assertThat(recovered.getDetectionEvents()).extracting("message").startsWith("Event 0", "Event 1");
+			assertThat(recovered.getEventWatermark()).isEqualTo(100);
+		}
+	}
+
+	@Test
+	void failedWriteIsReportedToTheWaitingProducer() {
+		try (ConfigurableApplicationContext context = start(ProctoringServiceTest.FailingJournalConfiguration.class,
+				"--app.proctoring.ingestion.wait-for-durable=true")) {
+			ProctoringService service = context.getBean(ProctoringService.class);
+			ProctoringServiceTest.FailingJournal journal = context.getBean(ProctoringServiceTest.FailingJournal.class);
+			String sessionId = service.startSession("Failed Write");
+
+			journal.failNextWrite();
+			assertThatThrownBy(() -> service.addDetectionEvent(sessionId, "NO_FACE", "Lost", "DANGER", 3L))
+					.isInstanceOf(EventNotStoredException.class);
+			assertThat(service.getSession(sessionId).getDetectionEvents()).isEmpty();
+
+			// Not stored, so the retry is accepted rather than ignored as a duplicate
+			assertThat(service.addDetectionEvent(sessionId, "NO_FACE", "Retried", "DANGER", 3L)).isTrue();
+			assertThat(service.endSession(sessionId).getDetectionEvents()).extracting("message")
+					.containsExactly("Retried");
+		}
+	}
+
+	private ConfigurableApplicationContext start(String... properties) {
+		return start(VideoProctoringBackendApplication.class, properties);
+	}
+
+	private ConfigurableApplicationContext start(Class<?> configuration, String... properties) {
+		String[] args = new String[properties.length + 2];
+		args[0] = "--app.proctoring.ingestion.mode=async";
+		args[1] = "--app.proctoring.max-concurrent-sessions=0";
+		System.arraycopy(properties, 0, args, 2, properties.length);
+		return new SpringApplicationBuilder(VideoProctoringBackendApplication.class, configuration)
+				.web(WebApplicationType.NONE)
+				.run(args);
+	}
+}
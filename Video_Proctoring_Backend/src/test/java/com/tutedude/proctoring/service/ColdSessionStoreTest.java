@@ -0,0 +1,144 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.DetectionEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColdSessionStoreTest {
+
+	private static final String SESSION_ID = "SESSION_C01D0001_1";
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void blockRoundTripsEveryColumn() {
+		SessionEventLog log = new SessionEventLog(SESSION_ID);
+		long start = 1_700_000_000_000L;
+		for (int i = 0; i < 3_000; i++) {
+			log.append(500 + i, i % 7 == 0 ? "CUSTOM_CHECK" : "LOOKING_AWAY", "Looking away " + (i % 3),
+					i % 2 == 0 ? "WARNING" : "DANGER", start + i * 1_250L);
+		}
+		log.append(SessionEventLog.NULL_LONG, null, null, null, SessionEventLog.NULL_LONG);
+		log.extend(10, start + 60_000, 4);
+
+		byte[] block = ColdBlockCodec.encode(log);
+		SessionEventLog decoded = ColdBlockCodec.decode(SESSION_ID, ByteBuffer.wrap(block));
+
+		assertEqual(decoded.snapshot(), log.snapshot());
+		assertThat(decoded.occurrences(10)).isEqualTo(4);
+		// Repeated strings and steady deltas: a few bytes per event before any per-log overhead
+		assertThat(block.length).isLessThan(3_001 * 4);
+		assertThat(ColdBlockCodec.decode(SESSION_ID, ByteBuffer.wrap(ColdBlockCodec.encode(new SessionEventLog(SESSION_ID))))
+				.size()).isZero();
+	}
+
+	@Test
+	void pagesSpanningChunksDecodeTheSameEvents() {
+		SessionEventLog log = new SessionEventLog(SESSION_ID);
+		for (int i = 0; i < 2_500; i++) {
+			log.append(100 + i, "NO_FACE", "No face " + (i % 5), "DANGER", 1_700_000_000_000L + i * 1_000L);
+		}
+		log.extend(1_030, 1_700_000_000_000L + 1_100_000L, 3);
+		ByteBuffer block = ByteBuffer.wrap(ColdBlockCodec.encode(log));
+
+		assertThat(ColdBlockCodec.count(block)).isEqualTo(2_500);
+		assertEqual(ColdBlockCodec.decode(SESSION_ID, block, 1_000, 1_050), log.snapshot().subList(1_000, 1_050));
+		assertEqual(ColdBlockCodec.decode(SESSION_ID, block, 2_040, 2_500), log.snapshot().subList(2_040, 2_500));
+		assertThat(ColdBlockCodec.decode(SESSION_ID, block, 2_500, 2_500)).isEmpty();
+	}
+
+	@Test
+	void archivedEventsAreVisitedChunkByChunk() {
+		ColdSessionStore store = new ColdSessionStore(true, "memory", directory.toString(), 0, 0,
+				new ProctoringMetrics(new SimpleMeterRegistry()));
+		SessionEventLog log = new SessionEventLog(SESSION_ID);
+		for (int i = 0; i < 2_100; i++) {
+			log.append(100 + i, "NO_FACE", "No face " + (i % 5), "DANGER", 1_700_000_000_000L + i * 1_000L);
+		}
+		store.archive(SESSION_ID, log);
+
+		List<Long> ids = new ArrayList<>();
+		store.forEach(SESSION_ID, (id, eventType, message, severity, timestampMillis, endMillis, occurrences) -> ids.add(id));
+		assertThat(ids).hasSize(2_100);
+		assertThat(ids.get(0)).isEqualTo(100);
+		assertThat(ids.get(2_099)).isEqualTo(2_199);
+
+		ids.clear();
+		store.forEach("SESSION_MISSING", (id, eventType, message, severity, timestampMillis, endMillis, occurrences) -> ids.add(id));
+		assertThat(ids).isEmpty();
+	}
+
+	@Test
+	void decodedSessionsAreSharedUntilReplaced() {
+		ColdSessionStore store = new ColdSessionStore(true, "memory", directory.toString(), 60_000, 16,
+				new ProctoringMetrics(new SimpleMeterRegistry()));
+		SessionEventLog log = new SessionEventLog(SESSION_ID);
+		log.append(1, "NO_FACE", "No face detected", "DANGER", 1_000L);
+		store.archive(SESSION_ID, log);
+
+		SessionEventLog loaded = store.load(SESSION_ID);
+		assertThat(store.load(SESSION_ID)).isSameAs(loaded);
+
+		log.append(2, "PHONE_DETECTED", "Mobile phone detected in frame", "DANGER", 2_000L);
+		store.archive(SESSION_ID, log);
+		assertThat(store.count(SESSION_ID)).isEqualTo(2);
+		assertEqual(store.events(SESSION_ID, 1, 2), log.snapshot().subList(1, 2));
+		assertThat(store.load(SESSION_ID).size()).isEqualTo(2);
+
+		store.remove(SESSION_ID);
+		assertThat(store.load(SESSION_ID)).isNull();
+		assertThat(store.count(SESSION_ID)).isEqualTo(-1);
+	}
+
+	@Test
+	void diskBlocksAreReadBackAndDeleted() throws Exception {
+		// The tier is ephemeral: blocks from an earlier run are dropped and rebuilt by replay
+		Files.writeString(directory.resolve("SESSION_STALE_1.cold"), "left over from an earlier run");
+		ColdSessionStore store = new ColdSessionStore(true, "disk", directory.toString(), 0, 0,
+				new ProctoringMetrics(new SimpleMeterRegistry()));
+		assertThat(directory.resolve("SESSION_STALE_1.cold")).doesNotExist();
+
+		SessionEventLog log = new SessionEventLog(SESSION_ID);
+		log.append(1, "NO_FACE", "No face detected", "DANGER", 1_000L);
+		store.archive(SESSION_ID, log);
+
+		assertThat(store.size()).isEqualTo(1);
+		assertThat(store.storedBytes()).isEqualTo(Files.size(directory.resolve(SESSION_ID + ".cold")));
+		assertEqual(store.load(SESSION_ID).snapshot(), log.snapshot());
+		assertEqual(store.events(SESSION_ID, 0, 1), log.snapshot());
+
+		store.remove(SESSION_ID);
+		assertThat(store.load(SESSION_ID)).isNull();
+		assertThat(store.storedBytes()).isZero();
+		assertThat(directory.resolve(SESSION_ID + ".cold")).doesNotExist();
+	}
+
+	@Test
+	void disabledStoreKeepsNothing() {
+		ColdSessionStore store = new ColdSessionStore(false, "memory", directory.toString(), 0, 0,
+				new ProctoringMetrics(new SimpleMeterRegistry()));
+		SessionEventLog log = new SessionEventLog(SESSION_ID);
+		log.append(1, "NO_FACE", "No face detected", "DANGER", 1_000L);
+		store.archive(SESSION_ID, log);
+
+		assertThat(store.load(SESSION_ID)).isNull();
+		assertThat(store.size()).isZero();
+	}
+
+	private static void assertEqual(List<DetectionEvent> actual, List<DetectionEvent> expected) {
+		assertThat(actual).hasSameSizeAs(expected);
+		for (int i = 0; i < expected.size(); i++) {
+			assertThat(actual.get(i)).usingRecursiveComparison().isEqualTo(expected.get(i));
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.DetectionEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventCoalescerTest {
+
+	private final EventCoalescer coalescer = new EventCoalescer(1_000L);
+
+	@Test
+	void repeatsWithinTheWindowExtendTheOpenRun() {
+		assertThat(coalescer.match("NO_FACE", "DANGER", 0L)).isNull();
+		coalescer.open("NO_FACE", "DANGER", 7L, 0, 0L);
+
+		EventCoalescer.Run run = coalescer.match("NO_FACE", "DANGER", 900L);
+		assertThat(run).isNotNull();
+		assertThat(run.getEventId()).isEqualTo(7L);
+		assertThat(run.getIndex()).isZero();
+		// The window is measured from the last occurrence, not from the start of the run
+		assertThat(coalescer.match("NO_FACE", "DANGER", 1_800L)).isSameAs(run);
+		assertThat(run.getOccurrences()).isEqualTo(3);
+		assertThat(run.getLastMillis()).isEqualTo(1_800L);
+
+		assertThat(coalescer.match("NO_FACE", "DANGER", 2_801L)).isNull();
+	}
+
+	@Test
+	void typeAndSeverityBothKeyTheRun() {
+		coalescer.open("NO_FACE", "DANGER", 1L, 0, 0L);
+		assertThat(coalescer.match("NO_FACE", "WARNING", 10L)).isNull();
+		assertThat(coalescer.match("PHONE_DETECTED", "DANGER", 10L)).isNull();
+		assertThat(coalescer.match("NO_FACE", "DANGER", 10L)).isNotNull();
+	}
+
+	@Test
+	void pendingEventsCarryRepeatsUntilStored() {
+		DetectionEvent event = new DetectionEvent("LOOKING_AWAY", "Looking away", "WARNING", "S1");
+		event.setId(3L);
+		EventCoalescer.Run run = coalescer.openPending(event, 100L);
+		assertThat(run.getIndex()).isEqualTo(-1);
+
+		coalescer.match("LOOKING_AWAY", "WARNING", 200L);
+		coalescer.match("LOOKING_AWAY", "WARNING", 300L);
+		assertThat(event.getOccurrences()).isEqualTo(3);
+		assertThat(event.getEndTimestamp()).isEqualTo(SessionEventLog.toLocalDateTime(300L));
+
+		run.stored(5);
+		coalescer.match("LOOKING_AWAY", "WARNING", 400L);
+		assertThat(run.getIndex()).isEqualTo(5);
+		assertThat(run.getOccurrences()).isEqualTo(4);
+		assertThat(event.getOccurrences()).isEqualTo(3);
+	}
+
+	@Test
+	void staleRunsArePrunedOnceManyAreOpen() {
+		for (int i = 0; i < 100; i++) {
+			coalescer.open("custom_" + i, "low", i, i, i * 10_000L);
+		}
+		// Only runs still within the window of the newest one survive pruning
+		assertThat(coalescer.match("custom_0", "low", 0L)).isNull();
+		assertThat(coalescer.match("custom_99", "low", 990_500L)).isNotNull();
+	}
+}
@@ -0,0 +1,98 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.VideoProctoringBackendApplication;
+import com.tutedude.proctoring.model.DetectionEvent;
+import com.tutedude.proctoring.model.EventIngestionResult;
+import com.tutedude.proctoring.model.ProctoringReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventCoalescingTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void repeatsAreStoredAsOneEventAndScoredPerOccurrence() {
+		String sessionId;
+		ProctoringReport reportBefore;
+		try (ConfigurableApplicationContext context = start("occurrences")) {
+			ProctoringService service = context.getBean(ProctoringService.class);
+			sessionId = service.startSession("Candidate");
+			for (int i = 0; i < 5; i++) {
+				service.addDetectionEvent(sessionId, "LOOKING_AWAY", "Looking away", "WARNING");
+			}
+			service.addDetectionEvent(sessionId, "NO_FACE", "No face detected", "DANGER");
+			service.addDetectionEvent(sessionId, "LOOKING_AWAY", "Looking away", "WARNING");
+
+			List<DetectionEvent> events = service.getSession(sessionId).getDetectionEvents();
+			assertThat(events).extracting("eventType").containsExactly("LOOKING_AWAY", "NO_FACE");
+			assertThat(events.get(0).getOccurrences()).isEqualTo(6);
+			assertThat(events.get(0).getEndTimestamp()).isAfterOrEqualTo(events.get(0).getTimestamp());
+			assertThat(events.get(1).getOccurrences()).isEqualTo(1);
+			assertThat(events.get(1).getEndTimestamp()).isEqualTo(events.get(1).getTimestamp());
+
+			reportBefore = service.generateReport(sessionId);
+			assertThat(reportBefore.getTotalEvents()).isEqualTo(7);
+			assertThat(reportBefore.getIntegrityScore()).isEqualTo(100 - 6 * 5 - 22);
+			ProctoringReport recomputed = FullRecompute.report(ScoringPolicy.defaults(), service.getSession(sessionId));
+			assertThat(recomputed.getTotalEvents()).isEqualTo(reportBefore.getTotalEvents());
+			assertThat(recomputed.getIntegrityScore()).isEqualTo(reportBefore.getIntegrityScore());
+			assertThat(service.getSystemStatistics()).containsEntry("coalescedEvents", 5L);
+		}
+
+		// Extensions are journaled, so a restart restores the runs and the score
+		try (ConfigurableApplicationContext context = start("occurrences")) {
+			ProctoringService service = context.getBean(ProctoringService.class);
+			List<DetectionEvent> events = service.getSession(sessionId).getDetectionEvents();
+			assertThat(events).extracting("occurrences").containsExactly(6, 1);
+			assertThat(service.generateReport(sessionId).getIntegrityScore())
+					.isEqualTo(reportBefore.getIntegrityScore());
+		}
+	}
+
+	@Test
+	void batchRepeatsShareTheIdOfTheirRunAndCanScorePerRun() {
+		try (ConfigurableApplicationContext context = start("runs")) {
+			ProctoringService service = context.getBean(ProctoringService.class);
+			String sessionId = service.startSession("Candidate");
+			service.addDetectionEvent(sessionId, "PHONE_DETECTED", "Phone", "DANGER");
+
+			List<DetectionEvent> batch = new ArrayList<>();
+			batch.add(new DetectionEvent("PHONE_DETECTED", "Phone", "DANGER", null));
+			batch.add(new DetectionEvent("LOOKING_AWAY", "Looking away", "WARNING", null));
+			batch.add(new DetectionEvent("LOOKING_AWAY", "Looking away", "WARNING", null));
+			batch.add(new DetectionEvent("LOOKING_AWAY", "Looking away", "WARNING", null));
+			List<EventIngestionResult> results = service.addDetectionEvents(sessionId, batch);
+
+			List<DetectionEvent> events = service.getSession(sessionId).getDetectionEvents();
+			assertThat(events).extracting("eventType").containsExactly("PHONE_DETECTED", "LOOKING_AWAY");
+			assertThat(events).extracting("occurrences").containsExactly(2, 3);
+			assertThat(results).extracting("eventId").containsExactly(
+					events.get(0).getId(), events.get(1).getId(), events.get(1).getId(), events.get(1).getId());
+
+			ProctoringReport report = service.generateReport(sessionId);
+			assertThat(report.getTotalEvents()).isEqualTo(2);
+			assertThat(report.getIntegrityScore()).isEqualTo(100 - 18 - 5);
+		}
+	}
+
+	private ConfigurableApplicationContext start(String scoreBy) {
+		return new SpringApplicationBuilder(VideoProctoringBackendApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--app.proctoring.journal.enabled=true",
+						"--app.proctoring.journal.directory=" + directory,
+						"--app.proctoring.journal.fsync-interval-ms=0",
+						"--app.proctoring.coalescing.window-ms=60000",
+						"--app.proctoring.coalescing.score-by=" + scoreBy);
+	}
+}
@@ -0,0 +1,98 @@
+package com.tutedude.proctoring.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventIdGeneratorTest {
+
+	private static final int THREADS = 32;
+	private static final int IDS = 10_000_000;
+	private static final int IDS_PER_THREAD = IDS / THREADS;
+
+	@Test
+	void tenMillionIdsAcross32ThreadsAreUniqueAndMonotonicPerThread() throws Exception {
+		EventIdGenerator generator = new EventIdGenerator(7);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+
+		List<Future<long[]>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			futures.add(executor.submit(() -> {
+				long[] ids = new long[IDS_PER_THREAD];
+				start.await();
+				for (int i = 0; i < ids.length; i++) {
+					ids[i] = generator.nextId();
+				}
+				return ids;
+			}));
+		}
+
+		long begin = System.nanoTime();
+		start.countDown();
+		long[] all = new long[THREADS * IDS_PER_THREAD];
+		int offset = 0;
+		for (Future<long[]> future : futures) {
+			long[] ids = future.get();
+			for (int i = 1; i < ids.length; i++) {
+				assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+			}
+			System.arraycopy(ids, 0, all, offset, ids.length);
+			offset += ids.length;
+		}
+		long elapsed = System.nanoTime() - begin;
+		executor.shutdown();
+		System.out.printf("Generated %,d IDs on %d threads at %,.0f IDs/sec%n",
+				all.length, THREADS, all.length / (elapsed / 1_000_000_000.0));
+
+		Arrays.sort(all);
+		for (int i = 1; i < all.length; i++) {
+			if (all[i] == all[i - 1]) {
+				throw new AssertionError("Duplicate ID " + all[i]);
+			}
+		}
+		assertThat(all[0] & EventIdGenerator.MAX_NODE_ID).isEqualTo(7);
+	}
+
+	@Test
+	void idsFromDifferentNodesNeverCollide() {
+		EventIdGenerator first = new EventIdGenerator(1);
+		EventIdGenerator second = new EventIdGenerator(2);
+		for (int i = 0; i < 100_000; i++) {
+			assertThat(first.nextId()).isNotEqualTo(second.nextId());
+		}
+	}
+
+	@Test
+	void advancePastKeepsNewIdsAfterReplayedOnes() {
+		EventIdGenerator generator = new EventIdGenerator(3);
+		long replayed = generator.nextId() + (1_000_000L << EventIdGenerator.NODE_BITS);
+
+		generator.advancePast(replayed);
+
+		assertThat(generator.nextId()).isGreaterThan(replayed);
+	}
+
+	@Test
+	void idsCarryTheirTimestamp() {
+		long before = System.currentTimeMillis();
+		long id = new EventIdGenerator(0).nextId();
+
+		assertThat(EventIdGenerator.timestampOf(id)).isBetween(before, System.currentTimeMillis());
+	}
+
+	@Test
+	void rejectsOutOfRangeNodeIds() {
+		assertThatThrownBy(() -> new EventIdGenerator(256)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new EventIdGenerator(-1)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,272 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.DetectionEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventJournalTest {
+
+	private static final int SEGMENT_BYTES = 4096;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void replaysLifecycleAndEventsAcrossSegments() throws IOException {
+		EventJournal journal = open(new RecordingHandler());
+		journal.sessionStarted("S1", "Alice", 1_000L);
+		journal.sessionStarted("S2", "Bob", 2_000L);
+		for (int i = 0; i < 200; i++) {
+			journal.eventAppended("S1", i, "NO_FACE", "No face detected", "DANGER", 10_000L + i);
+		}
+		journal.eventAppended("S2", 500, "looking_away", null, "warning", 20_000L);
+		journal.sessionEnded("S1", "COMPLETED", 30_000L, 29);
+		journal.sessionDeleted("S2");
+		journal.close();
+
+		assertThat(segments()).hasSizeGreaterThan(1);
+
+		RecordingHandler replayed = new RecordingHandler();
+		EventJournal reopened = open(replayed);
+		assertThat(replayed.records).hasSize(2 + 200 + 1 + 1 + 1);
+		assertThat(replayed.records.get(0)).isEqualTo("start S1 Alice 1000");
+		assertThat(replayed.records.get(2)).isEqualTo("event S1 0 NO_FACE No face detected DANGER 10000");
+		assertThat(replayed.records.get(202)).isEqualTo("event S2 500 looking_away null warning 20000");
+		assertThat(replayed.records.get(203)).isEqualTo("end S1 COMPLETED 30000 29");
+		assertThat(replayed.records.get(204)).isEqualTo("delete S2");
+
+		// Appends after a replay continue the same journal
+		reopened.eventAppended("S1", 999, "PHONE_DETECTED", "Phone", "DANGER", 40_000L);
+		reopened.close();
+		RecordingHandler again = new RecordingHandler();
+		open(again).close();
+		assertThat(again.records).hasSize(206).last().isEqualTo("event S1 999 PHONE_DETECTED Phone DANGER 40000");
+	}
+
+	@Test
+	void batchAppendsAreJournaled() {
+		EventJournal journal = open(new RecordingHandler());
+		journal.sessionStarted("S1", "Alice", 1_000L);
+		List<DetectionEvent> batch = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			DetectionEvent event = new DetectionEvent("MULTIPLE_FACES", "Two faces", "DANGER", "S1");
+			event.setId((long) i);
+			event.setTimestamp(SessionEventLog.toLocalDateTime(5_000L + i));
+			batch.add(event);
+		}
+		journal.eventsAppended("S1", batch);
+		journal.close();
+
+		RecordingHandler replayed = new RecordingHandler();
+		open(replayed).close();
+		assertThat(replayed.records).containsExactly(
+				"start S1 Alice 1000",
+				"event S1 0 MULTIPLE_FACES Two faces DANGER 5000",
+				"event S1 1 MULTIPLE_FACES Two faces DANGER 5001",
+				"event S1 2 MULTIPLE_FACES Two faces DANGER 5002");
+	}
+
+	@Test
+	void runExtensionsPoliciesAndSequencesReplayInOrder() {
+		EventJournal journal = open(new RecordingHandler());
+		journal.sessionStarted("S1", "Alice", 1_000L);
+		journal.eventAppended("S1", 1, "NO_FACE", "No face detected", "DANGER", 2_000L);
+		journal.eventExtended("S1", 0, 2_500L, 2);
+		journal.eventExtended("S1", 0, 3_000L, 3);
+		journal.sessionPolicyAssigned("S1", "strict");
+		journal.sequencesAccepted("S1", new long[] { 7, 9, 8, 0 }, 3);
+		journal.close();
+
+		RecordingHandler replayed = new RecordingHandler();
+		open(replayed).close();
+		assertThat(replayed.records).containsExactly(
+				"start S1 Alice 1000",
+				"event S1 1 NO_FACE No face detected DANGER 2000",
+				"extend S1 0 2500 2",
+				"extend S1 0 3000 3",
+				"policy S1 strict",
+				"sequences S1 [7, 9, 8]");
+	}
+
+	@Test
+	void tornTailIsIgnoredAndOverwritten() throws IOException {
+		EventJournal journal = open(new RecordingHandler());
+		journal.sessionStarted("S1", "Alice", 1_000L);
+		journal.eventAppended("S1", 1, "NO_FACE", "First", "DANGER", 2_000L);
+		journal.eventAppended("S1", 2, "NO_FACE", "Second", "DANGER", 3_000L);
+		journal.close();
+
+		// Corrupt the payload of the last record, as a crash mid-write would
+		Path segment = segments().get(0);
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+			int position = 0;
+			int lastRecord = 0;
+			while (buffer.getInt(position) > 0) {
+				lastRecord = position;
+				position += 8 + buffer.getInt(position);
+			}
+			buffer.put(lastRecord + 12, (byte) 0x7f);
+		}
+
+		RecordingHandler replayed = new RecordingHandler();
+		EventJournal reopened = open(replayed);
+		assertThat(replayed.records).containsExactly("start S1 Alice 1000", "event S1 1 NO_FACE First DANGER 2000");
+
+		reopened.eventAppended("S1", 3, "PHONE_DETECTED", "Third", "DANGER", 4_000L);
+		reopened.close();
+		RecordingHandler again = new RecordingHandler();
+		open(again).close();
+		assertThat(again.records).last().isEqualTo("event S1 3 PHONE_DETECTED Third DANGER 4000");
+		assertThat(again.records).hasSize(3);
+	}
+
+	@Test
+	void segmentsOfDeletedSessionsAreRetired() throws IOException {
+		EventJournal journal = open(new RecordingHandler());
+		journal.sessionStarted("S1", "Alice", 1_000L);
+		for (int i = 0; i < 300; i++) {
+			journal.eventAppended("S1", i, "NO_FACE", "No face detected", "DANGER", 10_000L + i);
+		}
+		journal.sessionStarted("S2", "Bob", 2_000L);
+		journal.eventAppended("S2", 500, "PHONE_DETECTED", "Phone", "DANGER", 20_000L);
+		int written = segments().size();
+		assertThat(written).isGreaterThan(2);
+
+		// Only the current segment also holds records of S2
+		journal.sessionDeleted("S1");
+		assertThat(segments()).hasSize(1);
+		assertThat(journal.segmentCount()).isEqualTo(1);
+		journal.close();
+
+		// S1's records left beside S2's are skipped, and handles are not reused
+		RecordingHandler replayed = new RecordingHandler();
+		EventJournal reopened = open(replayed);
+		assertThat(replayed.records).containsExactly("start S2 Bob 2000", "event S2 500 PHONE_DETECTED Phone DANGER 20000");
+		reopened.sessionStarted("S3", "Carol", 3_000L);
+		for (int i = 0; i < 100; i++) {
+			reopened.eventAppended("S3", 1_000 + i, "LOOKING_AWAY", "Looking away", "WARNING", 30_000L + i);
+		}
+		reopened.sessionDeleted("S2");
+		reopened.close();
+
+		// The segment that started S2 also started S3, so it stays
+		RecordingHandler again = new RecordingHandler();
+		open(again).close();
+		assertThat(again.records).hasSize(2 + 1 + 100 + 1).startsWith("start S2 Bob 2000",
+				"event S2 500 PHONE_DETECTED Phone DANGER 20000", "start S3 Carol 3000");
+		assertThat(again.records.subList(3, 103)).allMatch(record -> record.startsWith("event S3 "));
+		assertThat(again.records).last().isEqualTo("delete S2");
+	}
+
+	@Test
+	void concurrentAppendsSharingForcesAreAllReplayed() throws Exception {
+		EventJournal journal = open(new RecordingHandler());
+		int threads = 8;
+		for (int t = 0; t < threads; t++) {
+			journal.sessionStarted("S" + t, "Candidate " + t, 1_000L);
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> appends = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			String sessionId = "S" + t;
+			appends.add(executor.submit(() -> {
+				for (int i = 0; i < 100; i++) {
+					journal.eventAppended(sessionId, i, "NO_FACE", "No face detected", "DANGER", 10_000L + i);
+				}
+			}));
+		}
+		for (Future<?> append : appends) {
+			append.get();
+		}
+		executor.shutdown();
+		journal.close();
+
+		RecordingHandler replayed = new RecordingHandler();
+		open(replayed).close();
+		assertThat(replayed.records).hasSize(threads + threads * 100);
+		for (int t = 0; t < threads; t++) {
+			String prefix = "event S" + t + " ";
+			assertThat(replayed.records.stream().filter(record -> record.startsWith(prefix))).hasSize(100);
+		}
+	}
+
+	@Test
+	void disabledJournalIsANoOp() {
+		EventJournal journal = new EventJournal(false, directory, SEGMENT_BYTES, 0);
+		assertThat(journal.replay(new RecordingHandler())).isZero();
+		journal.sessionStarted("S1", "Alice", 1_000L);
+		journal.eventAppended("S1", 1, "NO_FACE", "First", "DANGER", 2_000L);
+		journal.close();
+		assertThat(directory).isEmptyDirectory();
+	}
+
+	private EventJournal open(RecordingHandler handler) {
+		EventJournal journal = new EventJournal(true, directory, SEGMENT_BYTES, 0);
+		journal.replay(handler);
+		return journal;
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.sorted().toList();
+		}
+	}
+
+	private static final class RecordingHandler implements EventJournal.ReplayHandler {
+		private final List<String> records = new ArrayList<>();
+
+		@Override
+		public void sessionStarted(String sessionId, String candidateName, long startMillis) {
+			records.add("start " + sessionId + " " + candidateName + " " + startMillis);
+		}
+
+		@Override
+		public void eventAppended(String sessionId, long id, String eventType, String message, String severity,
+								  long timestampMillis) {
+			records.add("event " + sessionId + " " + id + " " + eventType + " " + message + " " + severity + " "
+					+ timestampMillis);
+		}
+
+		@Override
+		public void eventExtended(String sessionId, int index, long endMillis, int occurrences) {
+			records.add("extend " + sessionId + " " + index + " " + endMillis + " " + occurrences);
+		}
+
+		@Override
+		public void sessionPolicyAssigned(String sessionId, String policyName) {
+			records.add("policy " + sessionId + " " + policyName);
+		}
+
+		@Override
+		public void sequencesAccepted(String sessionId, long[] sequences) {
+			records.add("sequences " + sessionId + " " + Arrays.toString(sequences));
+		}
+
+		@Override
+		public void sessionEnded(String sessionId, String status, long endMillis, int durationInSeconds) {
+			records.add("end " + sessionId + " " + status + " " + endMillis + " " + durationInSeconds);
+		}
+
+		@Override
+		public void sessionDeleted(String sessionId) {
+			records.add("delete " + sessionId);
+		}
+	}
+}
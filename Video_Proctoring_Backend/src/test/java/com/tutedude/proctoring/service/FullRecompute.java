@@ -0,0 +1,31 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.DetectionEvent;
+import com.tutedude.proctoring.model.ProctoringReport;
+import com.tutedude.proctoring.model.SessionSnapshot;
+
+/**
+ * Scores a session by walking its snapshot's events instead of reading a running aggregate,
+ * the reference the aggregates are checked and benchmarked against
+ */
+public final class FullRecompute {
+
+	private FullRecompute() {
+	}
+
+	/**
+	 * Each coalesced repeat is counted at the end of its run, as score-by=occurrences does
+	 */
+	public static ProctoringReport report(ScoringPolicy policy, SessionSnapshot session) {
+		SessionAggregate aggregate = new SessionAggregate(policy);
+		for (DetectionEvent event : session.getDetectionEvents()) {
+			aggregate.record(event.getEventType(), event.getSeverity(),
+					SessionEventLog.toEpochMillis(event.getTimestamp()));
+			for (int i = 1; i < event.getOccurrences(); i++) {
+				aggregate.record(event.getEventType(), event.getSeverity(),
+						SessionEventLog.toEpochMillis(event.getEndTimestamp()));
+			}
+		}
+		return aggregate.toReport(session);
+	}
+}
@@ -0,0 +1,118 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.VideoProctoringBackendApplication;
+import com.tutedude.proctoring.model.DetectionEvent;
+import com.tutedude.proctoring.model.ProctoringReport;
+import com.tutedude.proctoring.model.SessionSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JournalRecoveryTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void restartRebuildsSessionsEventsAndScores() {
+		String activeSession;
+		String completedSession;
+		ProctoringReport reportBefore;
+		try (ConfigurableApplicationContext context = start()) {
+			ProctoringService service = context.getBean(ProctoringService.class);
+			activeSession = service.startSession("Active Candidate");
+			completedSession = service.startSession("Completed Candidate");
+			String deletedSession = service.startSession("Deleted Candidate");
+
+			service.addDetectionEvent(activeSession, "LOOKING_AWAY", "Looking away", "WARNING");
+			service.addDetectionEvent(completedSession, "NO_FACE", "No face detected", "DANGER");
+			service.addDetectionEvent(completedSession, "custom", "Custom", "low");
+			service.endSession(completedSession);
+			service.deleteSession(deletedSession);
+			reportBefore = service.generateReport(completedSession);
+		}
+
+		try (ConfigurableApplicationContext context = start()) {
+			ProctoringService service = context.getBean(ProctoringService.class);
+			assertThat(service.getAllSessions()).hasSize(2);
+
+			SessionSnapshot completed = service.getSession(completedSession);
+			assertThat(completed.getStatus()).isEqualTo("COMPLETED");
+			assertThat(completed.getDetectionEvents()).extracting("eventType").containsExactly("NO_FACE", "custom");
+
+			ProctoringReport reportAfter = service.generateReport(completedSession);
+			assertThat(reportAfter.getIntegrityScore()).isEqualTo(reportBefore.getIntegrityScore());
+			assertThat(reportAfter.getEventSummary()).isEqualTo(reportBefore.getEventSummary());
+
+			// The recovered active session keeps accepting events with fresh, larger IDs
+			long lastId = service.getSession(activeSession).getDetectionEvents().get(0).getId();
+			service.addDetectionEvent(activeSession, "NO_FACE", "No face detected", "DANGER");
+			assertThat(service.getSession(activeSession).getDetectionEvents().get(1).getId()).isGreaterThan(lastId);
+		}
+	}
+
+	@Test
+	void retriesAfterRestartAreStillRecognised() {
+		String sessionId;
+		try (ConfigurableApplicationContext context = start()) {
+			ProctoringService service = context.getBean(ProctoringService.class);
+			sessionId = service.startSession("Retrying Candidate");
+			service.addDetectionEvent(sessionId, "NO_FACE", "No face detected", "DANGER", 7L);
+			service.addDetectionEvent(sessionId, "NO_FACE", "No face detected", "DANGER", 9L);
+		}
+
+		try (ConfigurableApplicationContext context = start()) {
+			ProctoringService service = context.getBean(ProctoringService.class);
+			assertThat(service.addDetectionEvent(sessionId, "NO_FACE", "No face detected", "DANGER", 9L)).isFalse();
+			assertThat(service.addDetectionEvent(sessionId, "NO_FACE", "No face detected", "DANGER", 8L)).isTrue();
+			assertThat(service.getSession(sessionId).getDetectionEvents()).hasSize(3);
+		}
+	}
+
+	@Test
+	void eventsTooLargeToJournalAreRejectedBeforeTheyAreStored() {
+		String sessionId;
+		String oversized = "x".repeat(1024 * 1024);
+		try (ConfigurableApplicationContext context = start("--app.proctoring.journal.segment-size-mb=1")) {
+			ProctoringService service = context.getBean(ProctoringService.class);
+			assertThatThrownBy(() -> service.startSession(oversized)).isInstanceOf(IllegalArgumentException.class);
+			sessionId = service.startSession("Verbose Candidate");
+
+			assertThatThrownBy(() -> service.addDetectionEvent(sessionId, "NO_FACE", oversized, "DANGER", 1L))
+					.isInstanceOf(IllegalArgumentException.class);
+			DetectionEvent tooLarge = new DetectionEvent("NO_FACE", oversized, "DANGER", null);
+			DetectionEvent fine = new DetectionEvent("NO_FACE", "No face detected", "DANGER", null);
+			assertThat(service.addDetectionEvents(sessionId, List.of(tooLarge, fine)))
+					.extracting("status")
+					.containsExactly("REJECTED", "ACCEPTED");
+			// Nothing was claimed for the rejected attempt, so its retry still goes through
+			assertThat(service.addDetectionEvent(sessionId, "NO_FACE", "Retried", "DANGER", 1L)).isTrue();
+			assertThat(service.getAllSessions()).hasSize(1);
+			assertThat(service.generateReport(sessionId).getTotalEvents()).isEqualTo(2);
+		}
+
+		try (ConfigurableApplicationContext context = start("--app.proctoring.journal.segment-size-mb=1")) {
+			SessionSnapshot recovered = context.getBean(ProctoringService.class).getSession(sessionId);
+			assertThat(recovered.getDetectionEvents()).extracting("message").containsExactly("No face detected", "Retried");
+		}
+	}
+
+	private ConfigurableApplicationContext start(String... properties) {
+		String[] args = new String[properties.length + 3];
+		args[0] = "--app.proctoring.journal.enabled=true";
+		args[1] = "--app.proctoring.journal.directory=" + directory;
+		args[2] = "--app.proctoring.journal.fsync-interval-ms=0";
+		System.arraycopy(properties, 0, args, 3, properties.length);
+		return new SpringApplicationBuilder(VideoProctoringBackendApplication.class)
+				.web(WebApplicationType.NONE)
+				.run(args);
+	}
+}
@@ -0,0 +1,426 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.DetectionEvent;
+import com.tutedude.proctoring.model.EventIngestionResult;
+import com.tutedude.proctoring.model.InterviewSession;
+import com.tutedude.proctoring.model.ProctoringReport;
+import com.tutedude.proctoring.model.SessionSnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Import(ProctoringServiceTest.FailingJournalConfiguration.class)
+class ProctoringServiceTest {
+
+	@Autowired
+	private ProctoringService proctoringService;
+
+	@Autowired
+	private ColdSessionStore coldStore;
+
+	@Autowired
+	private FailingJournal failingJournal;
+
+	/** Journal that is off like the default one, but can be made to fail its next write */
+	static class FailingJournal extends EventJournal {
+		private final AtomicBoolean failNext = new AtomicBoolean();
+
+		FailingJournal() {
+			super(false, Path.of("target/failing-journal"), 1024 * 1024, 100);
+		}
+
+		void failNextWrite() {
+			failNext.set(true);
+		}
+
+		@Override
+		public void eventAppended(String sessionId, long id, String eventType, String message,
+								  String severity, long timestampMillis) {
+			failIfArmed();
+			super.eventAppended(sessionId, id, eventType, message, severity, timestampMillis);
+		}
+
+		@Override
+		public void eventsAppended(String sessionId, List<DetectionEvent> events) {
+			failIfArmed();
+			super.eventsAppended(sessionId, events);
+		}
+
+		private void failIfArmed() {
+			if (failNext.getAndSet(false)) {
+				throw new UncheckedIOException(new IOException("No space left on device"));
+			}
+		}
+	}
+
+	// Imported rather than a @TestConfiguration, so contexts started from the application class never scan it
+	static class FailingJournalConfiguration {
+		@Bean
+		@Primary
+		FailingJournal failingJournal() {
+			return new FailingJournal();
+		}
+	}
+
+	@Test
+	void concurrentDetectionEventsAreAllRecorded() throws Exception {
+		String sessionId = proctoringService.startSession("Concurrent Candidate");
+		int threads = 8;
+		int eventsPerThread = 500;
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < eventsPerThread; i++) {
+					proctoringService.addDetectionEvent(sessionId, "LOOKING_AWAY", "Looking away", "WARNING");
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		assertThat(proctoringService.getSession(sessionId).getDetectionEvents()).hasSize(threads * eventsPerThread);
+		assertThat(proctoringService.generateReport(sessionId).getWarningEvents()).isEqualTo(threads * eventsPerThread);
+	}
+
+	@Test
+	void snapshotThatReadsAsEndedHoldsEveryEvent() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		for (int round = 0; round < 50; round++) {
+			String sessionId = proctoringService.startSession("Snapshot Candidate");
+			CyclicBarrier start = new CyclicBarrier(3);
+			Future<?> appends = executor.submit(() -> {
+				start.await();
+				try {
+					while (true) {
+						proctoringService.addDetectionEvent(sessionId, "NO_FACE", "No face detected", "DANGER");
+					}
+				} catch (IllegalStateException e) {
+					// Ended
+				}
+				return null;
+			});
+			Future<List<SessionSnapshot>> reads = executor.submit(() -> {
+				start.await();
+				List<SessionSnapshot> ended = new ArrayList<>();
+				while (ended.size() < 20) {
+					SessionSnapshot snapshot = proctoringService.getSession(sessionId);
+					if (!"ACTIVE".equals(snapshot.getStatus())) {
+						ended.add(snapshot);
+					}
+				}
+				return ended;
+			});
+			start.await();
+			LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(500_000));
+			proctoringService.endSession(sessionId);
+			appends.get();
+
+			int total = proctoringService.getSession(sessionId).getEventWatermark();
+			assertThat(reads.get()).allSatisfy(snapshot -> {
+				assertThat(snapshot.getEventWatermark()).isEqualTo(total);
+				assertThat(snapshot.getEndTime()).isNotNull();
+			});
+		}
+		executor.shutdown();
+	}
+
+	@Test
+	void deletingDuringAppendsLeavesNoStateBehind() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		for (int round = 0; round < 200; round++) {
+			String sessionId = proctoringService.startSession("Deleted Candidate");
+			CyclicBarrier start = new CyclicBarrier(2);
+			Future<?> appends = executor.submit(() -> {
+				start.await();
+				try {
+					for (long sequence = 0; ; sequence++) {
+						proctoringService.addDetectionEvent(sessionId, "NO_FACE", "No face detected", "DANGER", sequence);
+					}
+				} catch (IllegalArgumentException | IllegalStateException e) {
+					// Deleted
+				}
+				return null;
+			});
+			start.await();
+			LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(200_000));
+			assertThat(proctoringService.deleteSession(sessionId)).isTrue();
+			appends.get();
+
+			assertThat(proctoringService.holdsState(sessionId)).isFalse();
+		}
+		executor.shutdown();
+	}
+
+	@Test
+	void endedSessionReportDoesNotKeepTheLiveLog() {
+		String sessionId = proctoringService.startSession("Archived Candidate");
+		for (int i = 0; i < 100; i++) {
+			proctoringService.addDetectionEvent(sessionId, "NO_FACE", "No face detected", "DANGER");
+		}
+		SessionEventLog live = proctoringService.liveEvents(sessionId);
+		proctoringService.endSession(sessionId);
+
+		// Archived, so nothing but the caller's snapshots points at the live log any more
+		assertThat(proctoringService.liveEvents(sessionId)).isNull();
+		List<DetectionEvent> reported = proctoringService.generateReport(sessionId).getDetectionEvents();
+		assertThat(reported).hasSize(100);
+		assertThat(live.backs(reported)).isFalse();
+		assertThat(live.backs(live.snapshot())).isTrue();
+	}
+
+	@Test
+	void sequenceOfAnEventThatFailedToStoreIsAcceptedOnRetry() {
+		String sessionId = proctoringService.startSession("Failed Write Candidate");
+
+		failingJournal.failNextWrite();
+		assertThatThrownBy(() -> proctoringService.addDetectionEvent(sessionId, "NO_FACE", "No face detected",
+				"DANGER", 7L)).isInstanceOf(UncheckedIOException.class);
+		assertThat(proctoringService.addDetectionEvent(sessionId, "NO_FACE", "No face detected", "DANGER", 7L))
+				.isTrue();
+		assertThat(proctoringService.addDetectionEvent(sessionId, "NO_FACE", "No face detected", "DANGER", 7L))
+				.isFalse();
+
+		DetectionEvent batched = new DetectionEvent();
+		batched.setEventType("PHONE_DETECTED");
+		batched.setMessage("Phone detected");
+		batched.setSeverity("DANGER");
+		batched.setSequence(8L);
+		failingJournal.failNextWrite();
+		assertThatThrownBy(() -> proctoringService.addDetectionEvents(sessionId, List.of(batched)))
+				.isInstanceOf(UncheckedIOException.class);
+		assertThat(proctoringService.addDetectionEvents(sessionId, List.of(batched)))
+				.extracting(EventIngestionResult::getStatus).containsExactly("ACCEPTED");
+
+		// Each event stored once, nothing left over from the failed attempts
+		assertThat(proctoringService.getSession(sessionId).getDetectionEvents())
+				.extracting(DetectionEvent::getEventType).containsExactly("NO_FACE", "PHONE_DETECTED");
+	}
+
+	@Test
+	void concurrentPostsStoreIdsInIncreasingOrder() throws Exception {
+		String sessionId = proctoringService.startSession("Ordered Candidate");
+		int threads = 6;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			boolean batches = t % 2 == 1;
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < 1_000; i++) {
+					if (batches) {
+						proctoringService.addDetectionEvents(sessionId, List.of(
+								new DetectionEvent("NO_FACE", "No face detected", "DANGER", null),
+								new DetectionEvent("LOOKING_AWAY", "Looking away", "WARNING", null)));
+					} else {
+						proctoringService.addDetectionEvent(sessionId, "LOOKING_AWAY", "Looking away", "WARNING");
+					}
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		List<DetectionEvent> events = proctoringService.getSession(sessionId).getDetectionEvents();
+		assertThat(events).hasSize(threads / 2 * 3_000);
+		for (int i = 1; i < events.size(); i++) {
+			assertThat(events.get(i).getId()).as("event %d", i).isGreaterThan(events.get(i - 1).getId());
+		}
+	}
+
+	@Test
+	void noEventIsAcceptedAfterSessionEnds() throws Exception {
+		int appenders = 3;
+		ExecutorService executor = Executors.newFixedThreadPool(appenders);
+		try {
+			for (int round = 0; round < 200; round++) {
+				String sessionId = proctoringService.startSession("Racing Candidate");
+				CyclicBarrier start = new CyclicBarrier(appenders + 1);
+				List<Future<Integer>> futures = new ArrayList<>();
+				for (int t = 0; t < appenders; t++) {
+					boolean batches = t % 2 == 1;
+					futures.add(executor.submit(() -> {
+						start.await();
+						int accepted = 0;
+						try {
+							while (true) {
+								if (batches) {
+									proctoringService.addDetectionEvents(sessionId, List.of(
+											new DetectionEvent("NO_FACE", "No face detected", "DANGER", null),
+											new DetectionEvent("LOOKING_AWAY", "Looking away", "WARNING", null)));
+									accepted += 2;
+								} else {
+									proctoringService.addDetectionEvent(sessionId, "LOOKING_AWAY", "Looking away", "WARNING");
+									accepted++;
+								}
+							}
+						} catch (IllegalStateException e) {
+							return accepted;
+						}
+					}));
+				}
+
+				start.await();
+				LockSupport.parkNanos(ThreadLocalRandom.current().nextInt(100_000));
+				int atEnd = proctoringService.endSession(sessionId).getDetectionEvents().size();
+				int accepted = 0;
+				for (Future<Integer> future : futures) {
+					accepted += future.get();
+				}
+
+				assertThat(atEnd).as("round %d", round).isEqualTo(accepted);
+				assertThat(proctoringService.getSession(sessionId).getDetectionEvents()).hasSize(accepted);
+				assertThat(proctoringService.generateReport(sessionId).getTotalEvents()).isEqualTo(accepted);
+				proctoringService.deleteSession(sessionId);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void retriedEventsAreStoredOnce() {
+		String sessionId = proctoringService.startSession("Flaky Network Candidate");
+
+		assertThat(proctoringService.addDetectionEvent(sessionId, "PHONE_DETECTED", "Phone", "DANGER", 1L)).isTrue();
+		assertThat(proctoringService.addDetectionEvent(sessionId, "NO_FACE", "No face", "DANGER", 3L)).isTrue();
+		assertThat(proctoringService.addDetectionEvent(sessionId, "PHONE_DETECTED", "Phone", "DANGER", 1L)).isFalse();
+		// Arrives late, after a later event: still stored once
+		assertThat(proctoringService.addDetectionEvent(sessionId, "LOOKING_AWAY", "Away", "WARNING", 2L)).isTrue();
+		assertThat(proctoringService.addDetectionEvent(sessionId, "LOOKING_AWAY", "Away", "WARNING", 2L)).isFalse();
+
+		List<DetectionEvent> retried = new ArrayList<>();
+		for (long sequence : new long[] { 3, 4, 4, 5 }) {
+			DetectionEvent event = new DetectionEvent("NOTES_DETECTED", "Notes", "WARNING", null);
+			event.setSequence(sequence);
+			retried.add(event);
+		}
+		assertThat(proctoringService.addDetectionEvents(sessionId, retried))
+				.extracting("status")
+				.containsExactly("DUPLICATE", "ACCEPTED", "DUPLICATE", "ACCEPTED");
+
+		// Far ahead: everything more than a window behind it is stale
+		proctoringService.addDetectionEvent(sessionId, "NOTES_DETECTED", "Notes", "WARNING", 1_000L);
+		assertThatThrownBy(() -> proctoringService.addDetectionEvent(sessionId, "NO_FACE", "No face", "DANGER", 0L))
+				.isInstanceOf(StaleSequenceException.class);
+		DetectionEvent stale = new DetectionEvent("NOTES_DETECTED", "Notes", "WARNING", null);
+		stale.setSequence(0L);
+		assertThat(proctoringService.addDetectionEvents(sessionId, List.of(stale)))
+				.extracting("status")
+				.containsExactly("REJECTED");
+
+		ProctoringReport report = proctoringService.generateReport(sessionId);
+		assertThat(report.getTotalEvents()).isEqualTo(6);
+		assertThat(report.getDangerEvents()).isEqualTo(2);
+	}
+
+	@Test
+	void snapshotsStopAtTheirWatermarkAndLeaveTheLiveSessionAlone() {
+		LocalDateTime from = LocalDateTime.now();
+		String sessionId = proctoringService.startSession("Snapshot Candidate");
+		proctoringService.addDetectionEvent(sessionId, "NO_FACE", "No face detected", "DANGER");
+		proctoringService.addDetectionEvent(sessionId, "LOOKING_AWAY", "Looking away", "WARNING");
+
+		SessionSnapshot before = proctoringService.getSession(sessionId);
+		proctoringService.addDetectionEvent(sessionId, "PHONE_DETECTED", "Phone detected", "DANGER");
+		SessionSnapshot after = proctoringService.endSession(sessionId);
+
+		assertThat(before.getEventWatermark()).isEqualTo(2);
+		assertThat(before.getDetectionEvents()).hasSize(2);
+		assertThat(before.getStatus()).isEqualTo("ACTIVE");
+		assertThat(after.getEventWatermark()).isEqualTo(3);
+		assertThat(after.getStatus()).isEqualTo("COMPLETED");
+		assertThat(proctoringService.generateReport(sessionId).getDetectionEvents()).hasSize(3);
+
+		InterviewSession live = proctoringService.findSessions(null, from, null).stream()
+				.filter(session -> session.getSessionId().equals(sessionId))
+				.findFirst().orElseThrow();
+		assertThat(live.getDetectionEvents()).isEmpty();
+	}
+
+	@Test
+	void endedSessionsAreReadBackFromTheColdTier() {
+		String sessionId = proctoringService.startSession("Archived Candidate");
+		for (int i = 0; i < 50; i++) {
+			proctoringService.addDetectionEvent(sessionId, i % 5 == 0 ? "NO_FACE" : "LOOKING_AWAY", "Event " + i,
+					i % 5 == 0 ? "DANGER" : "WARNING");
+		}
+		List<DetectionEvent> live = proctoringService.getSession(sessionId).getDetectionEvents();
+		ProctoringReport liveReport = proctoringService.generateReport(sessionId);
+
+		proctoringService.endSession(sessionId);
+		assertThat(coldStore.load(sessionId)).isNotNull();
+
+		List<DetectionEvent> archived = proctoringService.getSession(sessionId).getDetectionEvents();
+		assertThat(archived).hasSameSizeAs(live);
+		for (int i = 0; i < live.size(); i++) {
+			assertThat(archived.get(i)).usingRecursiveComparison().isEqualTo(live.get(i));
+		}
+		assertThat(proctoringService.listEvents(sessionId, null, 20).getItems())
+				.extracting("message").startsWith("Event 0", "Event 1");
+		ProctoringReport report = proctoringService.generateReport(sessionId);
+		assertThat(report.getTotalEvents()).isEqualTo(liveReport.getTotalEvents()).isEqualTo(50);
+		assertThat(report.getIntegrityScore()).isEqualTo(liveReport.getIntegrityScore());
+
+		proctoringService.deleteSession(sessionId);
+		assertThat(coldStore.load(sessionId)).isNull();
+	}
+
+	@Test
+	void aggregatedReportMatchesFullRecompute() {
+		String sessionId = proctoringService.startSession("Scoring Candidate");
+		proctoringService.addDetectionEvent(sessionId, "NO_FACE", "No face detected", "DANGER");
+		proctoringService.addDetectionEvent(sessionId, "looking_away", "Looking away", "warning");
+		proctoringService.addDetectionEvent(sessionId, "PHONE_DETECTED", "Phone detected", "danger");
+		proctoringService.addDetectionEvent(sessionId, "MULTIPLE_FACES", "Two faces", "DANGER");
+		proctoringService.addDetectionEvent(sessionId, "CUSTOM_SIGNAL", "Custom", "INFO");
+
+		ProctoringReport aggregated = proctoringService.generateReport(sessionId);
+		ProctoringReport recomputed = FullRecompute.report(ScoringPolicy.defaults(), proctoringService.getSession(sessionId));
+
+		assertThat(aggregated.getIntegrityScore()).isEqualTo(recomputed.getIntegrityScore()).isEqualTo(30);
+		assertThat(aggregated.getOverallRating()).isEqualTo(recomputed.getOverallRating());
+		assertThat(aggregated.getEventSummary()).isEqualTo(recomputed.getEventSummary());
+		assertThat(aggregated.getTotalEvents()).isEqualTo(recomputed.getTotalEvents()).isEqualTo(5);
+		assertThat(aggregated.getDangerEvents()).isEqualTo(recomputed.getDangerEvents()).isEqualTo(3);
+		assertThat(aggregated.getWarningEvents()).isEqualTo(recomputed.getWarningEvents()).isEqualTo(1);
+	}
+
+	@Test
+	void aggregatedScoreMatchesFullRecomputeForLightSession() {
+		String sessionId = proctoringService.startSession("Light Candidate");
+		proctoringService.addDetectionEvent(sessionId, "LOOKING_AWAY", "Looking away", "WARNING");
+		proctoringService.addDetectionEvent(sessionId, "NOTES_DETECTED", "Notes", "WARNING");
+
+		ProctoringReport aggregated = proctoringService.generateReport(sessionId);
+		ProctoringReport recomputed = FullRecompute.report(ScoringPolicy.defaults(), proctoringService.getSession(sessionId));
+
+		assertThat(aggregated.getIntegrityScore()).isEqualTo(recomputed.getIntegrityScore()).isEqualTo(90);
+		assertThat(aggregated.getOverallRating()).isEqualTo("Excellent");
+	}
+}
@@ -0,0 +1,79 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.ProctoringReport;
+import com.tutedude.proctoring.model.ScoringPolicyDefinition;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "app.proctoring.scoring.policies.cached.type-weights[PHONE_DETECTED]=10")
+class ReportCacheTest {
+
+	@Autowired
+	private ProctoringService proctoringService;
+
+	@Autowired
+	private ReportCache reportCache;
+
+	@Test
+	void endedSessionReportIsBuiltOnce() {
+		String sessionId = proctoringService.startSession("Cached Candidate");
+		proctoringService.addDetectionEvent(sessionId, "NO_FACE", "No face detected", "DANGER");
+
+		// Active sessions still change, so every report is built fresh
+		ProctoringReport active = proctoringService.generateReport(sessionId);
+		assertThat(proctoringService.generateReport(sessionId)).isNotSameAs(active);
+
+		proctoringService.endSession(sessionId);
+		long hits = reportCache.hitCount();
+		long misses = reportCache.missCount();
+		// Built by the first fetch rather than when the session ends
+		ProctoringReport ended = proctoringService.generateReport(sessionId);
+		assertThat(proctoringService.generateReport(sessionId)).isSameAs(ended);
+		assertThat(reportCache.missCount()).isEqualTo(misses + 1);
+		assertThat(reportCache.hitCount()).isEqualTo(hits + 1);
+		assertThat(ended.getTotalEvents()).isEqualTo(1);
+		assertThat(ended.getDetectionEvents()).hasSize(1);
+		assertThat(ended.getIntegrityScore()).isEqualTo(active.getIntegrityScore());
+
+		assertThat(proctoringService.deleteSession(sessionId)).isTrue();
+		assertThatThrownBy(() -> proctoringService.generateReport(sessionId))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void rescoringReplacesCachedReport() {
+		String sessionId = proctoringService.startSession("Rescored Candidate", "cached");
+		proctoringService.addDetectionEvent(sessionId, "PHONE_DETECTED", "Phone detected", "DANGER");
+		proctoringService.endSession(sessionId);
+		assertThat(proctoringService.generateReport(sessionId).getIntegrityScore()).isEqualTo(80);
+
+		ScoringPolicyDefinition harsher = new ScoringPolicyDefinition();
+		harsher.setTypeWeights(Map.of("PHONE_DETECTED", 30));
+		proctoringService.updateScoringPolicy("cached", harsher);
+
+		long misses = reportCache.missCount();
+		assertThat(proctoringService.generateReport(sessionId).getIntegrityScore()).isEqualTo(60);
+		assertThat(reportCache.missCount()).isEqualTo(misses + 1);
+	}
+
+	@Test
+	void reportScoredUnderAReplacedPolicyIsRebuilt() {
+		ScoringPolicy before = ScoringPolicy.compile("replaced", new ScoringPolicyDefinition());
+		ScoringPolicy after = ScoringPolicy.compile("replaced", new ScoringPolicyDefinition());
+		ProctoringReport stale = new ProctoringReport();
+		ProctoringReport fresh = new ProctoringReport();
+
+		// A report built just before the policy was installed
+		assertThat(reportCache.get("SESSION_REPLACED", before, id -> stale)).isSameAs(stale);
+		assertThat(reportCache.get("SESSION_REPLACED", before, id -> fresh)).isSameAs(stale);
+		assertThat(reportCache.get("SESSION_REPLACED", after, id -> fresh)).isSameAs(fresh);
+		assertThat(reportCache.get("SESSION_REPLACED", after, id -> stale)).isSameAs(fresh);
+		reportCache.invalidate("SESSION_REPLACED");
+	}
+}
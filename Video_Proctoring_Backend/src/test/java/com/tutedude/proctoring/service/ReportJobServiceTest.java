@@ -0,0 +1,108 @@
+package com.tutedude.proctoring.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tutedude.proctoring.model.InterviewSession;
+import com.tutedude.proctoring.model.ReportJob;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+		"app.proctoring.max-concurrent-sessions=0",
+		"app.proctoring.reports.bulk.parallelism=2"
+})
+class ReportJobServiceTest {
+
+	@Autowired
+	private ProctoringService proctoringService;
+
+	@Autowired
+	private ReportJobService reportJobService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void jobBuildsReportsOfMatchingSessionsInOrder() throws Exception {
+		LocalDateTime from = LocalDateTime.now();
+		for (int i = 0; i < 300; i++) {
+			String sessionId = proctoringService.startSession("Bulk " + i);
+			for (int k = 0; k < i % 4; k++) {
+				proctoringService.addDetectionEvent(sessionId, "PHONE_DETECTED", "Phone detected", "DANGER");
+			}
+			if (i % 3 == 0) {
+				proctoringService.endSession(sessionId);
+			}
+		}
+
+		ReportJob job = reportJobService.submit("COMPLETED", from, null);
+		assertThat(job.getTotalSessions()).isEqualTo(100);
+		// Read straight away: rows not built yet are waited for
+		String[] lines = stream(job.getJobId(), "ndjson").split("\n");
+
+		List<String> expected = new ArrayList<>();
+		for (InterviewSession session : proctoringService.findSessions("COMPLETED", from, null)) {
+			expected.add(session.getSessionId());
+		}
+		List<String> written = new ArrayList<>();
+		for (String line : lines) {
+			JsonNode report = objectMapper.readTree(line);
+			String sessionId = report.get("sessionId").asText();
+			written.add(sessionId);
+			assertThat(report.get("integrityScore").asInt())
+					.isEqualTo(proctoringService.generateReport(sessionId).getIntegrityScore());
+			assertThat(report.has("detectionEvents")).isFalse();
+		}
+		assertThat(written).containsExactlyElementsOf(expected);
+
+		ReportJob finished = reportJobService.getJob(job.getJobId());
+		assertThat(finished.getState()).isEqualTo("COMPLETED");
+		assertThat(finished.getCompletedSessions()).isEqualTo(100);
+		assertThat(finished.getFinishedAt()).isNotNull();
+	}
+
+	@Test
+	void csvHasHeaderAndOneRowPerSession() throws Exception {
+		LocalDateTime from = LocalDateTime.now();
+		String sessionId = proctoringService.startSession("Smith, \"Jo\"");
+		proctoringService.addDetectionEvent(sessionId, "NO_FACE", "No face detected", "DANGER");
+		proctoringService.addDetectionEvent(sessionId, "CUSTOM_CHECK", "Custom check", "WARNING");
+
+		ReportJob job = reportJobService.submit(null, from, null);
+		String[] lines = stream(job.getJobId(), "csv").split("\n");
+
+		assertThat(lines).hasSize(2);
+		assertThat(lines[0]).startsWith("sessionId,candidateName,sessionDate,")
+				.endsWith(",LOOKING_AWAY,NO_FACE,MULTIPLE_FACES,PHONE_DETECTED,BOOK_DETECTED,NOTES_DETECTED,otherEvents");
+		assertThat(lines[1]).startsWith(sessionId + ",\"Smith, \"\"Jo\"\"\",").endsWith(",0,1,0,0,0,0,1");
+
+		assertThatThrownBy(() -> reportJobService.streamResults(job.getJobId(), "xml"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void cancelledJobIsDiscarded() {
+		ReportJob job = reportJobService.submit(null, null, null);
+
+		assertThat(reportJobService.cancel(job.getJobId())).isTrue();
+		assertThat(reportJobService.getJob(job.getJobId())).isNull();
+		assertThat(reportJobService.streamResults(job.getJobId(), "ndjson")).isNull();
+		assertThat(reportJobService.cancel(job.getJobId())).isFalse();
+	}
+
+	private String stream(String jobId, String format) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		reportJobService.streamResults(jobId, format).writeTo(out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+}
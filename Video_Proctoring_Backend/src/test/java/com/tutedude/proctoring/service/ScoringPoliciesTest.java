@@ -0,0 +1,73 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.VideoProctoringBackendApplication;
+import com.tutedude.proctoring.model.ScoringPolicyDefinition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScoringPoliciesTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void configuredPoliciesScoreSessionsAndSurviveRestart() {
+		List<String> strictSessions = new ArrayList<>();
+		String defaultSession;
+		try (ConfigurableApplicationContext context = start()) {
+			ProctoringService service = context.getBean(ProctoringService.class);
+			assertThat(service.getScoringPolicies()).containsKeys("default", "strict");
+
+			for (int i = 0; i < 200; i++) {
+				String sessionId = service.startSession("Strict " + i, "strict");
+				service.addDetectionEvent(sessionId, "PHONE_DETECTED", "Phone detected", "DANGER");
+				strictSessions.add(sessionId);
+			}
+			defaultSession = service.startSession("Default");
+			service.addDetectionEvent(defaultSession, "PHONE_DETECTED", "Phone detected", "DANGER");
+
+			assertThat(service.generateReport(strictSessions.get(0)).getIntegrityScore()).isEqualTo(100 - 10 - 40);
+			assertThat(service.generateReport(defaultSession).getIntegrityScore()).isEqualTo(100 - 10 - 8);
+
+			// Replacing the policy re-scores only the sessions that use it
+			ScoringPolicyDefinition relaxed = new ScoringPolicyDefinition();
+			relaxed.setTypeWeights(Map.of("PHONE_DETECTED", 0));
+			assertThat(service.updateScoringPolicy("strict", relaxed)).isEqualTo(200);
+			for (String sessionId : strictSessions) {
+				assertThat(service.generateReport(sessionId).getIntegrityScore()).isEqualTo(90);
+			}
+			assertThat(service.generateReport(defaultSession).getIntegrityScore()).isEqualTo(82);
+		}
+
+		// Sessions keep their policy across a restart; policies come back from configuration
+		try (ConfigurableApplicationContext context = start()) {
+			ProctoringService service = context.getBean(ProctoringService.class);
+			assertThat(service.getSession(strictSessions.get(0)).getScoringPolicy()).isEqualTo("strict");
+			assertThat(service.generateReport(strictSessions.get(0)).getIntegrityScore()).isEqualTo(50);
+			assertThat(service.getSession(defaultSession).getScoringPolicy()).isEqualTo("default");
+		}
+	}
+
+	private ConfigurableApplicationContext start() {
+		return new SpringApplicationBuilder(VideoProctoringBackendApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--app.proctoring.journal.enabled=true",
+						"--app.proctoring.journal.directory=" + directory,
+						"--app.proctoring.journal.fsync-interval-ms=100",
+						"--app.proctoring.max-concurrent-sessions=0",
+						"--app.proctoring.scoring.rescore-threads=4",
+						"--app.proctoring.scoring.policies.strict.type-weights[PHONE_DETECTED]=40",
+						"--app.proctoring.scoring.policies.strict.ratings[Pass]=60",
+						"--app.proctoring.scoring.policies.strict.ratings[Fail]=0");
+	}
+}
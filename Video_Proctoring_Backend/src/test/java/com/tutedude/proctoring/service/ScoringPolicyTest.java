@@ -0,0 +1,146 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.InterviewSession;
+import com.tutedude.proctoring.model.ProctoringReport;
+import com.tutedude.proctoring.model.SessionSnapshot;
+import com.tutedude.proctoring.model.ScoringPolicyDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScoringPolicyTest {
+
+	@Test
+	void defaultPolicyMatchesTheFullRecompute() {
+		InterviewSession session = new InterviewSession("S1", "Candidate");
+		SessionAggregate aggregate = new SessionAggregate();
+		String[][] events = {
+				{ "NO_FACE", "DANGER" }, { "LOOKING_AWAY", "WARNING" }, { "custom", "low" },
+				{ "PHONE_DETECTED", "danger" }, { "BOOK_DETECTED", null }, { "MULTIPLE_FACES", "INFO" } };
+		SessionEventLog log = new SessionEventLog("S1");
+		for (int i = 0; i < events.length; i++) {
+			aggregate.record(events[i][0], events[i][1], 1_000L * i);
+			log.append(i, events[i][0], "message", events[i][1], 1_000L * i);
+		}
+		SessionSnapshot snapshot = new SessionSnapshot(session, log.snapshot());
+
+		ProctoringReport recomputed = FullRecompute.report(ScoringPolicy.defaults(), snapshot);
+		ProctoringReport aggregated = aggregate.toReport(snapshot);
+		assertThat(aggregated.getIntegrityScore()).isEqualTo(recomputed.getIntegrityScore()).isEqualTo(40);
+		assertThat(aggregated.getOverallRating()).isEqualTo(recomputed.getOverallRating());
+		assertThat(aggregated.getScoringPolicy()).isEqualTo("default");
+	}
+
+	@Test
+	void capsLimitWhatOneTypeCanDeduct() {
+		ScoringPolicy policy = ScoringPolicy.compile("capped", definition(Map.of("NO_FACE", 30), null));
+		SessionAggregate aggregate = new SessionAggregate(policy);
+		for (int i = 0; i < 5; i++) {
+			aggregate.record("NO_FACE", "DANGER", i);
+		}
+		aggregate.record("LOOKING_AWAY", "WARNING", 10);
+
+		assertThat(aggregate.getIntegrityScore()).isEqualTo(100 - 30 - 5);
+	}
+
+	@Test
+	void decayHalvesWeightPerHalfLifeBeforeTheLatestEvent() {
+		ScoringPolicy policy = ScoringPolicy.compile("decaying", definition(null, 60L));
+		SessionAggregate aggregate = new SessionAggregate(policy);
+		aggregate.record("NO_FACE", "DANGER", 0L);
+		assertThat(aggregate.getIntegrityScore()).isEqualTo(100 - 22);
+
+		// One half-life later the first event counts 11, the new one the full 5
+		aggregate.record("LOOKING_AWAY", "WARNING", 60_000L);
+		assertThat(aggregate.getIntegrityScore()).isEqualTo(100 - 11 - 5);
+
+		// Sessions far longer than the rebase interval keep finite weights
+		aggregate.record("LOOKING_AWAY", "WARNING", 60_000L * 200);
+		assertThat(aggregate.getIntegrityScore()).isEqualTo(100 - 5);
+	}
+
+	@Test
+	void rescoringRebuildsDecayedWeightsFromTheLog() {
+		SessionEventLog log = new SessionEventLog("S1");
+		SessionAggregate aggregate = new SessionAggregate();
+		log.append(1L, "NO_FACE", "No face detected", "DANGER", 0L);
+		aggregate.record("NO_FACE", "DANGER", 0L);
+		log.append(2L, "LOOKING_AWAY", "Looking away", "WARNING", 60_000L);
+		log.extend(1, 120_000L, 3);
+		for (int i = 0; i < 3; i++) {
+			aggregate.record("LOOKING_AWAY", "WARNING", 60_000L);
+		}
+		assertThat(aggregate.getIntegrityScore()).isEqualTo(100 - 22 - 15);
+
+		aggregate.rescore(ScoringPolicy.compile("decaying", definition(null, 60L)), log, false);
+		// NO_FACE two half-lives back, one warning one half-life back, two at the latest time
+		assertThat(aggregate.getIntegrityScore()).isEqualTo(Math.round(100 - 22 / 4.0 - 2.5 - 10));
+		aggregate.rescore(ScoringPolicy.defaults(), log, false);
+		assertThat(aggregate.getIntegrityScore()).isEqualTo(100 - 22 - 15);
+	}
+
+	@Test
+	void rescoringDuringIngestionWeighsEveryEventOnce() throws Exception {
+		ScoringPolicyDefinition definition = definition(null, 3_600L);
+		definition.setSeverityWeights(Map.of("WARNING", 1));
+		definition.setTypeWeights(Map.of("LOOKING_AWAY", 0));
+		ScoringPolicy policy = ScoringPolicy.compile("decaying", definition);
+		SessionEventLog log = new SessionEventLog("S1");
+		SessionAggregate aggregate = new SessionAggregate(policy);
+
+		Thread ingestion = new Thread(() -> {
+			for (int i = 0; i < 60; i++) {
+				// As the service does: store and record under the shared side of the lock
+				aggregate.recordLock.readLock().lock();
+				try {
+					log.append(i, "LOOKING_AWAY", "Looking away", "WARNING", 0L);
+					aggregate.record("LOOKING_AWAY", "WARNING", 0L);
+				} finally {
+					aggregate.recordLock.readLock().unlock();
+				}
+			}
+		});
+		ingestion.start();
+		while (ingestion.isAlive()) {
+			aggregate.rescore(policy, log, false);
+		}
+		ingestion.join();
+
+		assertThat(aggregate.getIntegrityScore()).isEqualTo(100 - 60);
+	}
+
+	@Test
+	void ratingsAndPartialDefinitions() {
+		ScoringPolicyDefinition definition = new ScoringPolicyDefinition();
+		Map<String, Integer> ratings = new LinkedHashMap<>();
+		ratings.put("Fail", 0);
+		ratings.put("Pass", 75);
+		definition.setRatings(ratings);
+		ScoringPolicy policy = ScoringPolicy.compile("pass-fail", definition);
+
+		assertThat(policy.rating(75)).isEqualTo("Pass");
+		assertThat(policy.rating(74)).isEqualTo("Fail");
+		// Unset weights fall back to the defaults
+		assertThat(policy.getDefinition().getTypeWeights()).containsEntry("NO_FACE", 12);
+
+		ratings.put("Fail", 10);
+		assertThatThrownBy(() -> ScoringPolicy.compile("gap", definition))
+				.isInstanceOf(IllegalArgumentException.class);
+		definition.setRatings(null);
+		definition.setSeverityWeights(Map.of("CRITICAL", 20));
+		assertThatThrownBy(() -> ScoringPolicy.compile("unknown", definition))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("CRITICAL");
+	}
+
+	private static ScoringPolicyDefinition definition(Map<String, Integer> typeCaps, Long halfLifeSeconds) {
+		ScoringPolicyDefinition definition = new ScoringPolicyDefinition();
+		definition.setTypeCaps(typeCaps);
+		definition.setDecayHalfLifeSeconds(halfLifeSeconds);
+		return definition;
+	}
+}
@@ -0,0 +1,117 @@
+package com.tutedude.proctoring.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.tutedude.proctoring.service.SequenceWindow.Outcome.ACCEPTED;
+import static com.tutedude.proctoring.service.SequenceWindow.Outcome.DUPLICATE;
+import static com.tutedude.proctoring.service.SequenceWindow.Outcome.STALE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SequenceWindowTest {
+
+	@Test
+	void outOfOrderSequencesInsideTheWindowAreAcceptedOnce() {
+		SequenceWindow window = new SequenceWindow(64);
+
+		assertThat(window.accept(5)).isEqualTo(ACCEPTED);
+		assertThat(window.accept(2)).isEqualTo(ACCEPTED);
+		assertThat(window.accept(5)).isEqualTo(DUPLICATE);
+		assertThat(window.accept(2)).isEqualTo(DUPLICATE);
+		assertThat(window.accept(0)).isEqualTo(ACCEPTED);
+		assertThat(window.accept(6)).isEqualTo(ACCEPTED);
+		assertThat(window.accept(3)).isEqualTo(ACCEPTED);
+		assertThat(window.highest()).isEqualTo(6);
+	}
+
+	@Test
+	void slidingForgetsOldBitsAndMarksWhatFellBehindAsStale() {
+		SequenceWindow window = new SequenceWindow(64);
+		window.accept(0);
+		window.accept(10);
+
+		// 10 and 0 now share bits with 74 and 64
+		assertThat(window.accept(70)).isEqualTo(ACCEPTED);
+		assertThat(window.accept(0)).isEqualTo(STALE);
+		assertThat(window.accept(64)).isEqualTo(ACCEPTED);
+		assertThat(window.accept(74)).isEqualTo(ACCEPTED);
+		assertThat(window.accept(10)).isEqualTo(STALE);
+		assertThat(window.accept(11)).isEqualTo(ACCEPTED);
+
+		assertThat(window.accept(1_000)).isEqualTo(ACCEPTED);
+		assertThat(window.accept(974)).isEqualTo(ACCEPTED);
+		assertThat(window.accept(936)).isEqualTo(STALE);
+		assertThat(window.accept(937)).isEqualTo(ACCEPTED);
+		assertThat(window.accept(1_000)).isEqualTo(DUPLICATE);
+	}
+
+	@Test
+	void releasedSequenceIsAcceptedAgain() {
+		SequenceWindow window = new SequenceWindow(64);
+		window.accept(3);
+		window.accept(5);
+
+		window.release(5);
+		window.release(3);
+		assertThat(window.accept(5)).isEqualTo(ACCEPTED);
+		assertThat(window.accept(3)).isEqualTo(ACCEPTED);
+		assertThat(window.highest()).isEqualTo(5);
+
+		// Once below the window a release changes nothing
+		window.accept(100);
+		window.release(3);
+		assertThat(window.accept(3)).isEqualTo(STALE);
+	}
+
+	@Test
+	void invalidSizesAndSequencesAreRejected() {
+		assertThatThrownBy(() -> new SequenceWindow(100)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new SequenceWindow(256).accept(-1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void concurrentRetriesAreAcceptedExactlyOnce() throws Exception {
+		int sequences = 20_000;
+		int threads = 4;
+		SequenceWindow window = new SequenceWindow(256);
+		AtomicInteger accepted = new AtomicInteger();
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			long seed = t;
+			futures.add(executor.submit(() -> {
+				// Every thread sends every sequence, shuffled within blocks smaller than the window
+				Random random = new Random(seed);
+				for (int block = 0; block < sequences; block += 64) {
+					List<Long> order = new ArrayList<>();
+					for (long s = block; s < Math.min(block + 64, sequences); s++) {
+						order.add(s);
+					}
+					Collections.shuffle(order, random);
+					for (long sequence : order) {
+						if (window.accept(sequence) == ACCEPTED) {
+							accepted.incrementAndGet();
+						}
+					}
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		// Copies from a lagging thread may come back stale, but the first copy of each is accepted
+		assertThat(accepted.get()).isEqualTo(sequences);
+	}
+}
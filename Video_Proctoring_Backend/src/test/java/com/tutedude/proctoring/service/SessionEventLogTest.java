@@ -0,0 +1,193 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.DetectionEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionEventLogTest {
+
+	private static final int WRITERS = 16;
+	private static final int EVENTS_PER_WRITER = 50_000;
+	private static final int BATCH_SIZE = 7;
+
+	@Test
+	void concurrentWritersNeverLoseEvents() throws Exception {
+		SessionEventLog log = new SessionEventLog("SESSION");
+		ExecutorService executor = Executors.newFixedThreadPool(WRITERS + 1);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicBoolean writing = new AtomicBoolean(true);
+
+		List<Future<?>> writers = new ArrayList<>();
+		for (int w = 0; w < WRITERS; w++) {
+			int writer = w;
+			writers.add(executor.submit(() -> {
+				start.await();
+				int i = 0;
+				while (i < EVENTS_PER_WRITER) {
+					// Alternate single appends and small batches
+					if (i % 2 == 0 || i + BATCH_SIZE > EVENTS_PER_WRITER) {
+						log.append(event(writer, i++));
+					} else {
+						List<DetectionEvent> batch = new ArrayList<>(BATCH_SIZE);
+						for (int b = 0; b < BATCH_SIZE; b++) {
+							batch.add(event(writer, i++));
+						}
+						log.appendAll(batch);
+					}
+				}
+				return null;
+			}));
+		}
+
+		// A concurrent reader checks that every snapshot is a gap-free, growing prefix
+		Future<Integer> reader = executor.submit(() -> {
+			start.await();
+			int snapshots = 0;
+			int lastSize = 0;
+			while (writing.get()) {
+				List<DetectionEvent> snapshot = log.snapshot();
+				assertThat(snapshot.size()).isGreaterThanOrEqualTo(lastSize);
+				for (int i = lastSize; i < snapshot.size(); i++) {
+					assertThat(snapshot.get(i)).isNotNull();
+				}
+				lastSize = snapshot.size();
+				snapshots++;
+			}
+			return snapshots;
+		});
+
+		start.countDown();
+		for (Future<?> writer : writers) {
+			writer.get(60, TimeUnit.SECONDS);
+		}
+		writing.set(false);
+		assertThat(reader.get(60, TimeUnit.SECONDS)).isPositive();
+		executor.shutdown();
+
+		List<DetectionEvent> events = log.snapshot();
+		assertThat(events).hasSize(WRITERS * EVENTS_PER_WRITER);
+
+		BitSet seen = new BitSet(WRITERS * EVENTS_PER_WRITER);
+		for (DetectionEvent event : events) {
+			int id = event.getId().intValue();
+			assertThat(seen.get(id)).as("duplicate event %d", id).isFalse();
+			seen.set(id);
+		}
+		assertThat(seen.cardinality()).isEqualTo(WRITERS * EVENTS_PER_WRITER);
+	}
+
+	@Test
+	void snapshotIsNotAffectedByLaterAppends() {
+		SessionEventLog log = new SessionEventLog("SESSION");
+		for (int i = 0; i < 3000; i++) {
+			log.append(event(0, i));
+		}
+
+		List<DetectionEvent> snapshot = log.snapshot();
+		log.append(event(0, 3000));
+
+		assertThat(snapshot).hasSize(3000);
+		assertThat(snapshot.get(2999).getId()).isEqualTo(2999L);
+		assertThat(log.size()).isEqualTo(3001);
+	}
+
+	@Test
+	void columnarEncodingRoundTripsEveryField() {
+		SessionEventLog log = new SessionEventLog("SESSION_RT");
+		LocalDateTime timestamp = LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_000_000);
+
+		DetectionEvent known = new DetectionEvent("NO_FACE", "No face detected", "DANGER", "ignored");
+		known.setId(41L);
+		known.setTimestamp(timestamp);
+		DetectionEvent custom = new DetectionEvent("looking_away", null, "warning", "ignored");
+		custom.setId(42L);
+		custom.setTimestamp(timestamp);
+		log.append(known);
+		log.append(custom);
+		log.append(43L, "CUSTOM_SIGNAL", "No face detected", null, 1_700_000_000_123L);
+
+		DetectionEvent expected = new DetectionEvent("NO_FACE", "No face detected", "DANGER", "SESSION_RT");
+		expected.setId(41L);
+		expected.setTimestamp(timestamp);
+		expected.setEndTimestamp(timestamp);
+
+		List<DetectionEvent> events = log.snapshot();
+		assertThat(events.get(0)).usingRecursiveComparison().isEqualTo(expected);
+		assertThat(events.get(1).getEventType()).isEqualTo("looking_away");
+		assertThat(events.get(1).getSeverity()).isEqualTo("warning");
+		assertThat(events.get(1).getMessage()).isNull();
+		assertThat(events.get(2).getEventType()).isEqualTo("CUSTOM_SIGNAL");
+		assertThat(events.get(2).getSeverity()).isNull();
+		assertThat(events.get(2).getMessage()).isEqualTo("No face detected");
+		assertThat(events.get(2).getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+				.isEqualTo(1_700_000_000_123L);
+	}
+
+	@Test
+	void extendedEventsCarryTheirRun() {
+		SessionEventLog log = new SessionEventLog("SESSION_RUN");
+		log.append(1L, "NO_FACE", "No face detected", "DANGER", 1_000L);
+		log.append(2L, "PHONE_DETECTED", "Phone", "DANGER", 2_000L);
+		log.extend(0, 4_000L, 3);
+
+		List<DetectionEvent> events = log.snapshot();
+		assertThat(log.occurrences(0)).isEqualTo(3);
+		assertThat(events.get(0).getOccurrences()).isEqualTo(3);
+		assertThat(events.get(0).getEndTimestamp()).isEqualTo(SessionEventLog.toLocalDateTime(4_000L));
+		assertThat(log.occurrences(1)).isEqualTo(1);
+		assertThat(events.get(1).getEndTimestamp()).isEqualTo(events.get(1).getTimestamp());
+
+		// A coalesced event appended whole keeps its run
+		SessionEventLog copy = new SessionEventLog("SESSION_COPY");
+		copy.append(events.get(0));
+		assertThat(copy.snapshot().get(0)).usingRecursiveComparison()
+				.ignoringFields("sessionId").isEqualTo(events.get(0));
+	}
+
+	@Test
+	void segmentsStartSmallAndGrowAcrossEveryBoundary() {
+		SessionEventLog log = new SessionEventLog("SESSION_GROW");
+		assertThat(log.estimatedBytes()).isZero();
+
+		log.append(0L, "NO_FACE", "No face detected", "DANGER", 0L);
+		// One 16-slot segment plus the message dictionary entry
+		assertThat(log.estimatedBytes()).isEqualTo(16 * 28L + 64);
+
+		for (int i = 1; i < 5_000; i++) {
+			log.append(i, "NO_FACE", "No face detected", "DANGER", i * 10L);
+		}
+		// Runs on both sides of the 1024-slot boundary
+		log.extend(1023, 99_999L, 2);
+		log.extend(1024, 99_999L, 3);
+
+		List<DetectionEvent> events = log.snapshot();
+		for (int i = 0; i < 5_000; i++) {
+			assertThat(events.get(i).getId()).isEqualTo(i);
+		}
+		assertThat(log.occurrences(1023)).isEqualTo(2);
+		assertThat(log.occurrences(1024)).isEqualTo(3);
+		assertThat(log.occurrences(1022)).isEqualTo(1);
+		// 1024 slots in small segments, then four of 1024 for the other 3976 events; runs
+		// only in the 512- and 1024-slot segments that hold one
+		assertThat(log.estimatedBytes()).isEqualTo(5 * 1024 * 28L + (512 + 1024) * 12L + 64);
+	}
+
+	private static DetectionEvent event(int writer, int i) {
+		DetectionEvent event = new DetectionEvent("LOOKING_AWAY", "Looking away", "WARNING", "SESSION");
+		event.setId((long) writer * EVENTS_PER_WRITER + i);
+		return event;
+	}
+}
@@ -0,0 +1,97 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.config.ExecutionMode;
+import com.tutedude.proctoring.model.InterviewSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionEventStreamTest {
+
+	private SessionEventStream stream;
+
+	@AfterEach
+	void shutdown() {
+		stream.shutdown();
+	}
+
+	@Test
+	void stalledClientsDoNotDelayOtherSessions() throws Exception {
+		stream = new SessionEventStream(100, 60_000, 256, 60_000, ExecutionMode.PLATFORM);
+		// More stalled clients than the old fixed dispatcher had threads
+		List<StalledEmitter> stalled = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			StalledEmitter emitter = new StalledEmitter();
+			register("SESSION_SLOW_" + i, emitter);
+			stalled.add(emitter);
+		}
+		for (StalledEmitter emitter : stalled) {
+			assertThat(emitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+
+		RecordingEmitter healthy = new RecordingEmitter();
+		register("SESSION_FAST", healthy);
+
+		assertThat(healthy.delivered.await(5, TimeUnit.SECONDS)).isTrue();
+		stalled.forEach(emitter -> emitter.release.countDown());
+	}
+
+	@Test
+	void clientThatStopsReadingIsDisconnected() throws Exception {
+		stream = new SessionEventStream(100, 60_000, 256, 100, ExecutionMode.PLATFORM);
+		StalledEmitter emitter = new StalledEmitter();
+		register("SESSION_SLOW", emitter);
+
+		assertThat(emitter.failed.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(stream.getSubscriberCount("SESSION_SLOW")).isZero();
+	}
+
+	private void register(String sessionId, SseEmitter emitter) {
+		InterviewSession session = new InterviewSession(sessionId, "Stream Candidate");
+		SessionEventLog log = new SessionEventLog(sessionId);
+		log.append(1, "NO_FACE", "No face detected", "DANGER", 1_000L);
+		stream.register(session, log, new SessionAggregate(), emitter, 0);
+	}
+
+	/** Blocks on the first write like a client whose socket buffer is full */
+	private static final class StalledEmitter extends SseEmitter {
+		final CountDownLatch sending = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch failed = new CountDownLatch(1);
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			sending.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			throw new IOException("Connection closed");
+		}
+
+		@Override
+		public void completeWithError(Throwable ex) {
+			// The container drops the connection, which fails the blocked write
+			failed.countDown();
+			release.countDown();
+		}
+	}
+
+	private static final class RecordingEmitter extends SseEmitter {
+		final CountDownLatch delivered = new CountDownLatch(1);
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			delivered.countDown();
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.VideoProctoringBackendApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+		"app.proctoring.max-concurrent-sessions=3",
+		"app.proctoring.session-timeout-minutes=1",
+		"app.proctoring.cleanup-interval-hours=1",
+		"app.proctoring.eviction.batch-size=2",
+		// Keep the scheduled run out of the way; the tests drive eviction themselves
+		"app.proctoring.eviction.interval-ms=3600000"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class SessionEvictionTest {
+
+	@Autowired
+	private ProctoringService proctoringService;
+
+	@Test
+	void admissionRejectsSessionsPastTheLimitUntilOneEnds() {
+		String first = proctoringService.startSession("Candidate 1");
+		proctoringService.startSession("Candidate 2");
+		proctoringService.startSession("Candidate 3");
+
+		assertThatThrownBy(() -> proctoringService.startSession("Candidate 4"))
+				.isInstanceOf(SessionLimitExceededException.class);
+		assertThat(proctoringService.getRejectedSessions()).isEqualTo(1);
+
+		proctoringService.endSession(first);
+		// Ending twice must not free a second slot
+		proctoringService.endSession(first);
+		proctoringService.startSession("Candidate 4");
+		assertThatThrownBy(() -> proctoringService.startSession("Candidate 5"))
+				.isInstanceOf(SessionLimitExceededException.class);
+	}
+
+	@Test
+	void idleSessionsTimeOutWhileBusyOnesAreRescheduled() throws Exception {
+		String idle = proctoringService.startSession("Idle Candidate");
+		String busy = proctoringService.startSession("Busy Candidate");
+		long started = System.currentTimeMillis();
+		Thread.sleep(50);
+		proctoringService.addDetectionEvent(busy, "LOOKING_AWAY", "Looking away", "WARNING");
+
+		int timedOut = proctoringService.expireIdleSessions(started + 60_000 + 20);
+
+		assertThat(timedOut).isEqualTo(1);
+		assertThat(proctoringService.getSession(idle).getStatus()).isEqualTo("TERMINATED");
+		assertThat(proctoringService.getSession(idle).getEndTime()).isNotNull();
+		assertThat(proctoringService.getSession(busy).getStatus()).isEqualTo("ACTIVE");
+		assertThat(proctoringService.getTimedOutSessions()).isEqualTo(1);
+		assertThat(proctoringService.getSystemStatistics()).containsEntry("terminatedSessions", 1);
+
+		// The busy session times out once it has also been idle for the timeout
+		assertThat(proctoringService.expireIdleSessions(System.currentTimeMillis() + 61_000)).isEqualTo(1);
+		assertThat(proctoringService.getSession(busy).getStatus()).isEqualTo("TERMINATED");
+
+		// Both slots were given back
+		for (int i = 0; i < 3; i++) {
+			proctoringService.startSession("Next Candidate " + i);
+		}
+	}
+
+	@Test
+	void heartbeatsKeepQuietSessionsActive() throws Exception {
+		String quiet = proctoringService.startSession("Quiet Candidate");
+		long started = System.currentTimeMillis();
+		Thread.sleep(50);
+		assertThat(proctoringService.heartbeat(quiet)).isTrue();
+
+		assertThat(proctoringService.expireIdleSessions(started + 60_000 + 20)).isZero();
+		assertThat(proctoringService.getSession(quiet).getStatus()).isEqualTo("ACTIVE");
+
+		// Without further heartbeats it times out like any idle session, and can no longer be kept alive
+		assertThat(proctoringService.expireIdleSessions(System.currentTimeMillis() + 61_000)).isEqualTo(1);
+		assertThat(proctoringService.heartbeat(quiet)).isFalse();
+		assertThat(proctoringService.heartbeat("SESSION_MISSING")).isFalse();
+
+		// Terminated sessions are evicted along with completed ones
+		assertThat(proctoringService.evictEndedSessions(System.currentTimeMillis() + 2 * 3600_000L)).isEqualTo(1);
+		assertThat(proctoringService.getSession(quiet)).isNull();
+	}
+
+	@Test
+	void nonPositiveEvictionBatchSizeIsRejectedAtStartup() {
+		assertThatThrownBy(() -> new SpringApplicationBuilder(VideoProctoringBackendApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--app.proctoring.eviction.batch-size=0"))
+				.hasRootCauseInstanceOf(IllegalArgumentException.class)
+				.hasRootCauseMessage("Eviction batch size must be positive: 0");
+	}
+
+	@Test
+	void endedSessionsAreEvictedInBoundedBatches() {
+		List<String> ended = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			String sessionId = proctoringService.startSession("Ended Candidate " + i);
+			proctoringService.endSession(sessionId);
+			ended.add(sessionId);
+		}
+		String active = proctoringService.startSession("Active Candidate");
+
+		// Pretend two hours have passed so every session is past the one-hour retention
+		long later = System.currentTimeMillis() + 2 * 3600_000L;
+		assertThat(proctoringService.evictEndedSessions(later)).isEqualTo(2);
+		assertThat(proctoringService.evictEndedSessions(later)).isEqualTo(1);
+		assertThat(proctoringService.evictEndedSessions(later)).isZero();
+
+		assertThat(ended).allSatisfy(sessionId -> assertThat(proctoringService.getSession(sessionId)).isNull());
+		assertThat(proctoringService.getSession(active)).isNotNull();
+		assertThat(proctoringService.getEvictedSessions()).isEqualTo(3);
+	}
+}
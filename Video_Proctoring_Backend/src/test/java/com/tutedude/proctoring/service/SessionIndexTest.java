@@ -0,0 +1,130 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.InterviewSession;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionIndexTest {
+
+	private final SessionIndex index = new SessionIndex();
+
+	@Test
+	void indexesFollowStartEndAndDelete() {
+		InterviewSession first = session("S1", "Alice Smith", 10);
+		InterviewSession second = session("S2", "alice smith ", 5);
+		InterviewSession third = session("S3", "Bob", 1);
+		index.add(first);
+		index.add(second);
+		index.add(third);
+
+		assertThat(index.count("ACTIVE")).isEqualTo(3);
+		assertThat(index.forCandidate("ALICE SMITH").values()).containsExactly(first, second);
+
+		String previous = second.getStatus();
+		second.endSession();
+		index.statusChanged(second, previous);
+		assertThat(index.count("ACTIVE")).isEqualTo(2);
+		assertThat(index.count("completed")).isEqualTo(1);
+		assertThat(index.withStatus("COMPLETED").values()).containsExactly(second);
+
+		index.remove(second);
+		assertThat(index.count("COMPLETED")).isZero();
+		assertThat(index.size()).isEqualTo(2);
+		assertThat(index.forCandidate("Alice Smith").values()).containsExactly(first);
+
+		index.remove(first);
+		assertThat(index.forCandidate("Alice Smith")).isEmpty();
+	}
+
+	@Test
+	void startTimeRangeOnlyCoversOlderSessions() {
+		for (int hours = 1; hours <= 48; hours++) {
+			index.add(session("S" + hours, "Candidate", hours));
+		}
+
+		SessionKey cutoff = SessionIndex.startedBefore(
+				SessionEventLog.toEpochMillis(LocalDateTime.now().minusHours(24).minusMinutes(30)));
+		assertThat(index.all().headMap(cutoff, false)).hasSize(24);
+	}
+
+	@Test
+	void countsStayExactUnderConcurrentTransitions() throws Exception {
+		int threads = 8;
+		int sessionsPerThread = 2_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int thread = t;
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < sessionsPerThread; i++) {
+					InterviewSession session = session("T" + thread + "_" + i, "Candidate " + (i % 10), 0);
+					index.add(session);
+					if (i % 2 == 0) {
+						String previous = session.getStatus();
+						session.endSession();
+						index.statusChanged(session, previous);
+					}
+					if (i % 4 == 0) {
+						index.remove(session);
+					}
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		int total = threads * sessionsPerThread;
+		assertThat(index.size()).isEqualTo(total * 3 / 4);
+		assertThat(index.count("ACTIVE")).isEqualTo(total / 2);
+		assertThat(index.count("COMPLETED")).isEqualTo(total / 4);
+		assertThat(index.withStatus("COMPLETED")).hasSize(total / 4);
+	}
+
+	@Test
+	void sessionEndedWhileBeingRemovedLeavesNoBucketEntry() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		for (int i = 0; i < 2_000; i++) {
+			InterviewSession session = session("R" + i, "Candidate", 0);
+			index.add(session);
+			CountDownLatch start = new CountDownLatch(1);
+			Future<?> end = executor.submit(() -> {
+				start.await();
+				String previous = session.getStatus();
+				session.endSession();
+				index.statusChanged(session, previous);
+				return null;
+			});
+			Future<?> remove = executor.submit(() -> {
+				start.await();
+				index.remove(session);
+				return null;
+			});
+			start.countDown();
+			end.get();
+			remove.get();
+		}
+		executor.shutdown();
+
+		assertThat(index.size()).isZero();
+		assertThat(index.count("ACTIVE")).isZero();
+		assertThat(index.count("COMPLETED")).isZero();
+		assertThat(index.withStatus("COMPLETED")).isEmpty();
+	}
+
+	private static InterviewSession session(String sessionId, String candidateName, int hoursAgo) {
+		InterviewSession session = new InterviewSession(sessionId, candidateName);
+		session.setStartTime(LocalDateTime.now().minusHours(hoursAgo));
+		return session;
+	}
+}
@@ -0,0 +1,95 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.SessionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SessionLifecycleTest {
+
+	@Test
+	void sealTurnsAwayNewAppendsAndWaitsForThoseInside() throws Exception {
+		SessionLifecycle lifecycle = new SessionLifecycle();
+		assertThat(lifecycle.tryEnter()).isTrue();
+
+		Thread sealer = new Thread(lifecycle::seal);
+		sealer.start();
+		sealer.join(50);
+		assertThat(sealer.isAlive()).isTrue();
+		assertThat(lifecycle.status()).isEqualTo(SessionStatus.ENDING);
+		assertThat(lifecycle.tryEnter()).isFalse();
+
+		lifecycle.exit();
+		sealer.join(5000);
+		assertThat(sealer.isAlive()).isFalse();
+		assertThat(lifecycle.inFlight()).isZero();
+
+		lifecycle.finish(SessionStatus.COMPLETED);
+		assertThat(lifecycle.status()).isEqualTo(SessionStatus.COMPLETED);
+		assertThat(lifecycle.seal()).isFalse();
+		assertThat(lifecycle.tryEnter()).isFalse();
+		assertThatThrownBy(() -> lifecycle.finish(SessionStatus.ACTIVE)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	/**
+	 * Writers race a sealer, round after round; whatever the interleaving, the value the
+	 * sealer reads right after sealing must be the final one.
+	 */
+	@Test
+	void nothingIsWrittenAfterSeal() throws Exception {
+		int writers = 3;
+		int rounds = 2_000;
+		ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+		try {
+			for (int round = 0; round < rounds; round++) {
+				SessionLifecycle lifecycle = new SessionLifecycle();
+				AtomicInteger stored = new AtomicInteger();
+				AtomicInteger accepted = new AtomicInteger();
+				CyclicBarrier start = new CyclicBarrier(writers + 1);
+
+				Future<?>[] futures = new Future<?>[writers];
+				for (int w = 0; w < writers; w++) {
+					futures[w] = executor.submit(() -> {
+						start.await();
+						while (lifecycle.tryEnter()) {
+							try {
+								stored.incrementAndGet();
+							} finally {
+								lifecycle.exit();
+							}
+							accepted.incrementAndGet();
+						}
+						return null;
+					});
+				}
+				Future<Integer> sealed = executor.submit(() -> {
+					start.await();
+					for (int spin = ThreadLocalRandom.current().nextInt(200); spin > 0; spin--) {
+						Thread.onSpinWait();
+					}
+					lifecycle.seal();
+					int seen = stored.get();
+					lifecycle.finish(SessionStatus.COMPLETED);
+					return seen;
+				});
+
+				int seen = sealed.get();
+				for (Future<?> future : futures) {
+					future.get();
+				}
+				assertThat(stored.get()).as("round %d", round).isEqualTo(seen);
+				assertThat(accepted.get()).as("round %d", round).isEqualTo(seen);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.tutedude.proctoring.service;
+
+import com.tutedude.proctoring.model.EventType;
+import com.tutedude.proctoring.model.Severity;
+import com.tutedude.proctoring.model.TimelineBucket;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimelineRollupTest {
+
+	private static final long BASE = 1_700_000_000_000L;
+
+	@Test
+	void countsEventsPerBucketByTypeAndSeverity() {
+		TimelineRollup rollup = new TimelineRollup(10_000, 6);
+		rollup.record(BASE + 1_000, EventType.LOOKING_AWAY, Severity.WARNING);
+		rollup.record(BASE + 9_999, EventType.PHONE_DETECTED, Severity.DANGER);
+		rollup.record(BASE + 25_000, EventType.LOOKING_AWAY, Severity.WARNING);
+		rollup.record(BASE + 25_500, null, Severity.INFO);
+
+		List<TimelineBucket> buckets = rollup.buckets(Long.MIN_VALUE, Long.MAX_VALUE);
+		assertThat(buckets).hasSize(2);
+		TimelineBucket first = buckets.get(0);
+		assertThat(first.getStart()).isEqualTo(SessionEventLog.toLocalDateTime(BASE));
+		assertThat(first.getTotalEvents()).isEqualTo(2);
+		assertThat(first.getDangerEvents()).isEqualTo(1);
+		assertThat(first.getWarningEvents()).isEqualTo(1);
+		assertThat(first.getEventCounts()).containsEntry("LOOKING_AWAY", 1).containsEntry("PHONE_DETECTED", 1);
+		assertThat(buckets.get(1).getEventCounts()).containsEntry("LOOKING_AWAY", 1).containsEntry("OTHER", 1);
+
+		assertThat(rollup.buckets(BASE + 10_000, Long.MAX_VALUE)).hasSize(1);
+		assertThat(rollup.buckets(BASE, BASE + 20_000)).hasSize(1);
+	}
+
+	@Test
+	void windowSlidesAndDropsEventsOlderThanIt() {
+		TimelineRollup rollup = new TimelineRollup(10_000, 6);
+		rollup.record(BASE, EventType.NO_FACE, Severity.DANGER);
+		rollup.record(BASE + 60_000, EventType.NO_FACE, Severity.DANGER);
+
+		// The slot of the first bucket was reused one lap later
+		List<TimelineBucket> buckets = rollup.buckets(Long.MIN_VALUE, Long.MAX_VALUE);
+		assertThat(buckets).extracting(TimelineBucket::getStart)
+				.containsExactly(SessionEventLog.toLocalDateTime(BASE + 60_000));
+
+		rollup.record(BASE + 5_000, EventType.NO_FACE, Severity.DANGER);
+		assertThat(rollup.buckets(Long.MIN_VALUE, Long.MAX_VALUE).get(0).getTotalEvents()).isEqualTo(1);
+	}
+
+	@Test
+	void concurrentRecordsAreAllCounted() throws Exception {
+		TimelineRollup rollup = new TimelineRollup(1_000, 100);
+		int threads = 8;
+		int eventsPerThread = 20_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < eventsPerThread; i++) {
+					rollup.record(BASE + (i % 50) * 1_000L, EventType.LOOKING_AWAY, Severity.WARNING);
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		List<TimelineBucket> buckets = rollup.buckets(Long.MIN_VALUE, Long.MAX_VALUE);
+		assertThat(buckets).hasSize(50);
+		assertThat(buckets.stream().mapToInt(TimelineBucket::getTotalEvents).sum()).isEqualTo(threads * eventsPerThread);
+	}
+}